@@ -2,11 +2,26 @@ plugins {
     id("java")
     id("java-library")
     id("maven-publish")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
+// the foreign function & memory API used for native calls is final since Java 22
 java {
-    sourceCompatibility = JavaVersion.VERSION_21
-    targetCompatibility = JavaVersion.VERSION_21
+    sourceCompatibility = JavaVersion.VERSION_22
+    targetCompatibility = JavaVersion.VERSION_22
+}
+
+// downcalls are restricted methods, which warn at runtime unless native access is enabled
+tasks.withType<Test>().configureEach {
+    useJUnitPlatform()
+    jvmArgs("--enable-native-access=ALL-UNNAMED")
+}
+
+jmh {
+    jmhVersion = "1.37"
+    jvmArgs.add("--enable-native-access=ALL-UNNAMED")
+    // benchmark results are written to build/results/jmh/results.json, to be compared between versions
+    resultFormat = "JSON"
 }
 
 group = "org.voidlang"
@@ -22,6 +37,10 @@ dependencies {
     api("org.bytedeco:llvm-platform:16.0.4-1.5.9")
     api("org.bytedeco:javacpp:1.5.9")
     api("org.bytedeco:llvm:16.0.4-1.5.9")
+
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 publishing {
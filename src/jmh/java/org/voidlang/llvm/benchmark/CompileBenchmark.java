@@ -0,0 +1,75 @@
+package org.voidlang.llvm.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.voidlang.llvm.jit.ExecutionEngine;
+import org.voidlang.llvm.jit.JitCompilerOptions;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents the benchmarks of the MCJIT compile time of a module, per optimization level of the code generator.
+ * <br>
+ * Each invocation builds a fresh module outside the measurement, then creates an execution engine for it and
+ * resolves the address of every function, which forces MCJIT to generate the code of the whole module.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompileBenchmark {
+    @Param({ "0", "1", "2", "3" })
+    public int optimizationLevel;
+
+    @Param({ "16" })
+    public int functions;
+
+    @Param({ "256" })
+    public int instructions;
+
+    private JitCompilerOptions options;
+    private IRContext context;
+    private IRModule module;
+    private ExecutionEngine engine;
+
+    @Setup(Level.Trial)
+    public void setupOptions() {
+        options = Fixtures.options(optimizationLevel);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownOptions() {
+        options.dispose();
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        context = IRContext.create();
+        module = Fixtures.arithmeticModule(context, functions, instructions);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        // the engine owns the module
+        if (engine != null)
+            engine.dispose();
+        else
+            module.dispose();
+        engine = null;
+        context.dispose();
+    }
+
+    @Benchmark
+    public long compile() {
+        engine = Fixtures.engine(module, options);
+        long checksum = 0;
+        for (int i = 0; i < functions; i++)
+            checksum += LLVMGetFunctionAddress(engine.handle(), "f" + i);
+        return checksum;
+    }
+}
@@ -0,0 +1,97 @@
+package org.voidlang.llvm.benchmark;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.voidlang.llvm.instruction.IRBlock;
+import org.voidlang.llvm.instruction.IRBuilder;
+import org.voidlang.llvm.jit.ExecutionEngine;
+import org.voidlang.llvm.jit.JitCompilerOptions;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.target.NativeTarget;
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.type.IRType;
+import org.voidlang.llvm.type.IRTypes;
+import org.voidlang.llvm.value.IRFunction;
+import org.voidlang.llvm.value.IRValue;
+
+import java.util.List;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents a utility class that builds the modules and engines used by the benchmarks.
+ */
+class Fixtures {
+    /**
+     * Create a module of straight-line arithmetic functions of type {@code (i64, i64) -> i64}, named {@code f0},
+     * {@code f1} and so on. Each function computes a chain of the specified number of additions, multiplications
+     * and subtractions, through a stack slot, so that the optimizer has some work to do.
+     *
+     * @param context the context in which the module is created
+     * @param functions the number of functions of the module
+     * @param instructions the number of arithmetic instructions of each function
+     * @return a new module
+     */
+    static IRModule arithmeticModule(IRContext context, int functions, int instructions) {
+        IRModule module = IRModule.create(context, "arithmetic");
+        IRType i64 = IRTypes.ofInt64(context);
+        IRFunctionType type = IRFunctionType.create(context, i64, List.of(i64, i64), false);
+        IRBuilder builder = IRBuilder.create(context);
+        try {
+            for (int i = 0; i < functions; i++) {
+                IRFunction function = IRFunction.create(module, "f" + i, type);
+                builder.positionAtEnd(IRBlock.create(context, function, "entry"));
+                IRValue slot = builder.alloc(i64);
+                builder.store(function.parameter(0), slot);
+                IRValue value = function.parameter(1);
+                for (int j = 0; j < instructions; j++) {
+                    IRValue loaded = builder.load(i64, slot);
+                    value = switch (j % 3) {
+                        case 0 -> builder.add(value, loaded);
+                        case 1 -> builder.multiply(value, loaded);
+                        default -> builder.subtract(value, loaded);
+                    };
+                    builder.store(value, slot);
+                }
+                builder.returnValue(value);
+            }
+        } finally {
+            builder.dispose();
+        }
+        return module;
+    }
+
+    /**
+     * Create the options of an MCJIT compiler with the specified optimization level.
+     *
+     * @param optimizationLevel the optimization level of the code generator
+     * @return new JIT compiler options
+     */
+    static JitCompilerOptions options(int optimizationLevel) {
+        JitCompilerOptions options = JitCompilerOptions.create();
+        LLVMInitializeMCJITCompilerOptions(options.handle(), options.handle().sizeof());
+        options.optimizationLevel(optimizationLevel);
+        return options;
+    }
+
+    /**
+     * Create an MCJIT execution engine for the specified module. The engine takes the ownership of the module, but
+     * the options remain owned by the caller.
+     *
+     * @param module the module to compile
+     * @param options the options of the compiler, e.g. created by {@link #options(int)}
+     * @return a new execution engine
+     * @throws IllegalStateException if the engine could not be created
+     */
+    static ExecutionEngine engine(IRModule module, JitCompilerOptions options) {
+        NativeTarget.initialize();
+        ExecutionEngine engine = ExecutionEngine.create();
+        BytePointer error = new BytePointer();
+        if (!engine.createMCJITCompilerForModule(module, options, error)) {
+            String message = error.getString();
+            LLVMDisposeMessage(error);
+            throw new IllegalStateException("Failed to create the execution engine: " + message);
+        }
+        return engine;
+    }
+}
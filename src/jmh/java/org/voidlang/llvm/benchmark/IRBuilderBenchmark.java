@@ -0,0 +1,124 @@
+package org.voidlang.llvm.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.voidlang.llvm.instruction.IRBlock;
+import org.voidlang.llvm.instruction.IRBuilder;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.type.IRType;
+import org.voidlang.llvm.type.IRTypes;
+import org.voidlang.llvm.value.IRFunction;
+import org.voidlang.llvm.value.IRValue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents the benchmarks of the instruction emission rate of the {@link IRBuilder}, and of the creation of
+ * function types.
+ * <br>
+ * Every invocation emits a batch of instructions into a fresh basic block, which is deleted afterward, so the
+ * module does not grow over the course of an iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IRBuilderBenchmark {
+    /**
+     * The number of instructions emitted by each invocation.
+     */
+    private static final int BATCH = 256;
+
+    private IRContext context;
+    private IRModule module;
+    private IRBuilder builder;
+    private IRFunction function;
+    private IRFunction callee;
+    private IRType i64;
+    private List<IRType> parameterTypes;
+    private List<IRValue> arguments;
+
+    @Setup
+    public void setup() {
+        context = IRContext.create();
+        module = IRModule.create(context, "builder");
+        builder = IRBuilder.create(context);
+        i64 = IRTypes.ofInt64(context);
+        parameterTypes = List.of(i64, i64);
+        IRFunctionType type = IRFunctionType.create(context, i64, parameterTypes, false);
+        function = IRFunction.create(module, "emit", type);
+        callee = IRFunction.create(module, "callee", type);
+        arguments = List.of(function.parameter(0), function.parameter(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        builder.dispose();
+        module.dispose();
+        context.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void emitAdd() {
+        IRBlock block = IRBlock.create(context, function, "block");
+        builder.positionAtEnd(block);
+        IRValue left = function.parameter(0);
+        IRValue right = function.parameter(1);
+        for (int i = 0; i < BATCH; i++)
+            left = builder.add(left, right);
+        LLVMDeleteBasicBlock(block.handle());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void emitLoadStore() {
+        IRBlock block = IRBlock.create(context, function, "block");
+        builder.positionAtEnd(block);
+        IRValue slot = builder.alloc(i64);
+        for (int i = 0; i < BATCH / 2; i++)
+            builder.store(builder.load(i64, slot), slot);
+        LLVMDeleteBasicBlock(block.handle());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void emitCall() {
+        IRBlock block = IRBlock.create(context, function, "block");
+        builder.positionAtEnd(block);
+        IRFunctionType type = callee.type();
+        for (int i = 0; i < BATCH; i++)
+            builder.call(type, callee, arguments);
+        LLVMDeleteBasicBlock(block.handle());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void emitCallArray() {
+        IRBlock block = IRBlock.create(context, function, "block");
+        builder.positionAtEnd(block);
+        IRFunctionType type = callee.type();
+        IRValue[] values = arguments.toArray(IRValue[]::new);
+        for (int i = 0; i < BATCH; i++)
+            builder.call(type, callee, values, "");
+        LLVMDeleteBasicBlock(block.handle());
+    }
+
+    @Benchmark
+    public void createFunctionType(Blackhole blackhole) {
+        // function types are uniqued by LLVM, so this measures the lookup and the wrapper allocation
+        blackhole.consume(IRFunctionType.create(context, i64, parameterTypes, false));
+    }
+
+    @Benchmark
+    public void createFunctionTypeArray(Blackhole blackhole) {
+        blackhole.consume(IRFunctionType.create(context, i64, i64, i64));
+    }
+}
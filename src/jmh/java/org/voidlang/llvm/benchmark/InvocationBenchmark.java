@@ -0,0 +1,96 @@
+package org.voidlang.llvm.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.voidlang.llvm.instruction.IRBlock;
+import org.voidlang.llvm.instruction.IRBuilder;
+import org.voidlang.llvm.jit.ExecutionEngine;
+import org.voidlang.llvm.jit.IRGenericValue;
+import org.voidlang.llvm.jit.JitCompilerOptions;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.type.IRType;
+import org.voidlang.llvm.type.IRTypes;
+import org.voidlang.llvm.value.IRFunction;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Represents the benchmarks of the call latency of JIT compiled functions, through
+ * {@link ExecutionEngine#runFunction(IRFunction, List)} and through direct native calls.
+ * <br>
+ * MCJIT can only run functions with a handful of signatures through {@code runFunction}, therefore the generic
+ * call is measured with a function of type {@code (i32) -> i32}, and compared with a downcall of the same function.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvocationBenchmark {
+    private JitCompilerOptions options;
+    private IRContext context;
+    private ExecutionEngine engine;
+    private IRFunction square;
+    private List<IRGenericValue> arguments;
+    private MethodHandle squareHandle;
+    private LongBinaryOperator arithmetic;
+    private int value = 7;
+    private long left = 3;
+    private long right = 5;
+
+    @Setup
+    public void setup() {
+        context = IRContext.create();
+        IRModule module = Fixtures.arithmeticModule(context, 1, 8);
+        IRType i32 = IRTypes.ofInt32(context);
+        square = IRFunction.create(module, "square", IRFunctionType.create(context, i32, List.of(i32), false));
+        IRBuilder builder = IRBuilder.create(context);
+        try {
+            builder.positionAtEnd(IRBlock.create(context, square, "entry"));
+            builder.returnValue(builder.multiply(square.parameter(0), square.parameter(0)));
+        } finally {
+            builder.dispose();
+        }
+        options = Fixtures.options(2);
+        engine = Fixtures.engine(module, options);
+        arguments = List.of(IRGenericValue.ofInt(i32, value, true));
+        squareHandle = engine.nativeFunction(square).handle();
+        IRType i64 = IRTypes.ofInt64(context);
+        IRFunctionType arithmeticType = IRFunctionType.create(context, i64, List.of(i64, i64), false);
+        arithmetic = engine.nativeFunction(IRFunction.getByName(module, "f0", arithmeticType).get()).asLongBinaryOperator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        arguments.forEach(IRGenericValue::dispose);
+        // the engine owns the module
+        engine.dispose();
+        options.dispose();
+        context.dispose();
+    }
+
+    @Benchmark
+    public long runFunction() {
+        IRGenericValue result = engine.runFunction(square, arguments);
+        try {
+            return result.toInt(true);
+        } finally {
+            result.dispose();
+        }
+    }
+
+    @Benchmark
+    public int downcall() throws Throwable {
+        return (int) squareHandle.invokeExact(value);
+    }
+
+    @Benchmark
+    public long invoker() {
+        return arithmetic.applyAsLong(left, right);
+    }
+}
@@ -0,0 +1,71 @@
+package org.voidlang.llvm.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.module.OptimizationLevel;
+import org.voidlang.llvm.module.PassBuilderOptions;
+import org.voidlang.llvm.target.NativeTarget;
+import org.voidlang.llvm.target.TargetMachine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the benchmarks of the optimization time of a module, per default pipeline of the new pass manager.
+ * <br>
+ * Each invocation builds a fresh module outside the measurement, then runs the pipeline of the optimization level
+ * on it, with the cost model of the host, so the time of the optimizer can be told apart from the time of the code
+ * generator, that is measured by the {@link CompileBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptimizeBenchmark {
+    @Param({ "O0", "O1", "O2", "O3", "Os", "Oz" })
+    public OptimizationLevel level;
+
+    @Param({ "16" })
+    public int functions;
+
+    @Param({ "256" })
+    public int instructions;
+
+    private TargetMachine machine;
+    private PassBuilderOptions options;
+    private IRContext context;
+    private IRModule module;
+
+    @Setup(Level.Trial)
+    public void setupPipeline() {
+        NativeTarget.initialize();
+        machine = TargetMachine.host();
+        options = PassBuilderOptions.create();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownPipeline() {
+        options.dispose();
+        machine.dispose();
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        context = IRContext.create();
+        module = Fixtures.arithmeticModule(context, functions, instructions);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        module.dispose();
+        context.dispose();
+    }
+
+    @Benchmark
+    public IRModule optimize() {
+        module.optimize(level, machine, options);
+        return module;
+    }
+}
@@ -0,0 +1,43 @@
+package org.voidlang.llvm.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.voidlang.llvm.error.VerificationFailureAction;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the benchmarks of the verification of modules of different sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerificationBenchmark {
+    @Param({ "1", "16", "256" })
+    public int functions;
+
+    private IRContext context;
+    private IRModule module;
+
+    @Setup
+    public void setup() {
+        context = IRContext.create();
+        module = Fixtures.arithmeticModule(context, functions, 64);
+    }
+
+    @TearDown
+    public void tearDown() {
+        module.dispose();
+        context.dispose();
+    }
+
+    @Benchmark
+    public boolean verify() {
+        // no message buffer is passed, as LLVM allocates a message even if the verification succeeds
+        return module.verify(VerificationFailureAction.RETURN_STATUS, null);
+    }
+}
@@ -2,10 +2,21 @@ package org.voidlang.llvm.behaviour;
 
 /**
  * Represents an LLVM value wrapper that should be disposed after use.
+ * <br>
+ * Disposable wrappers can be used in try-with-resources statements, or be owned by a {@link Scope} that disposes
+ * them in bulk.
  */
-public interface Disposable {
+public interface Disposable extends AutoCloseable {
     /**
      * Dispose of the value handle held by this object.
      */
     void dispose();
+
+    /**
+     * Dispose of the value handle held by this object. This is equivalent to {@link #dispose()}.
+     */
+    @Override
+    default void close() {
+        dispose();
+    }
 }
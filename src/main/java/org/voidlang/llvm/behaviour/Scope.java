@@ -0,0 +1,261 @@
+package org.voidlang.llvm.behaviour;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Represents a scope that owns native LLVM handles, and disposes all of them at once, in the reverse order of
+ * their creation, when the scope is closed.
+ * <br>
+ * While a scope is open, it is the current scope of its thread, and the contexts, modules, builders, execution
+ * engines and generic values created on that thread are registered with it automatically. Other wrappers can be
+ * registered with {@link #own(Disposable)}. Scopes can be nested, in which case the innermost scope is the current
+ * one, and they must be closed in the reverse order of their opening, on the thread that opened them.
+ * <br>
+ * A scope is confined to its thread, so registering and unregistering handles takes no locks. The handles are
+ * identified by the equality of their wrappers, which compare the native handles they hold, so two wrappers of the
+ * same handle, e.g. two {@link org.voidlang.llvm.target.DataLayout} records, are owned and disposed only once.
+ * <br>
+ * When the ownership of a handle moves to another object, e.g. a module that is compiled by an
+ * {@link org.voidlang.llvm.jit.ExecutionEngine} or added to an {@link org.voidlang.llvm.jit.OrcJit}, the handle is
+ * unregistered from the open scopes of the calling thread, so it is not disposed twice. Likewise, a handle that is
+ * disposed directly is unregistered from them. Handles that are handed over to or disposed by another thread must
+ * be {@link #release(Disposable) released} from their scope on its own thread first.
+ * <br>
+ * The current scope is referenced strongly by its thread, so the handles of an open scope are never disposed while
+ * the thread is alive. A scope whose thread terminates without closing it is disposed by a {@link Cleaner}, as a
+ * safety net against native memory leaks. Such scopes are counted by {@link #leaked()}, as they indicate a missing
+ * {@link #close()}. The cleaner is registered per scope rather than per wrapper, as the wrappers are values that
+ * are recreated for the same handle, so an unreachable wrapper does not imply an unused handle.
+ */
+public final class Scope implements AutoCloseable {
+    /**
+     * The cleaner that disposes the handles of leaked scopes.
+     */
+    private static final Cleaner cleaner = Cleaner.create();
+
+    /**
+     * The innermost open scope of each thread.
+     */
+    private static final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    /**
+     * The number of scopes that have been disposed by the cleaner.
+     */
+    private static final AtomicLong leaked = new AtomicLong();
+
+    /**
+     * The handles owned by the scope. They are kept outside the scope, so the cleaner can dispose them after the
+     * scope became unreachable.
+     */
+    private final Resources resources = new Resources();
+
+    /**
+     * The registration of the scope with the cleaner.
+     */
+    private final Cleaner.Cleanable cleanable;
+
+    /**
+     * The scope that was current, when this scope was opened.
+     */
+    private final Scope parent;
+
+    /**
+     * The thread that opened the scope, which is the only thread that may use it.
+     */
+    private final Thread thread;
+
+    /**
+     * Initialize the scope, nested in the specified parent scope.
+     *
+     * @param parent the scope that was current, or {@code null}
+     * @param thread the thread that opened the scope
+     */
+    private Scope(Scope parent, Thread thread) {
+        this.parent = parent;
+        this.thread = thread;
+        this.cleanable = cleaner.register(this, resources);
+    }
+
+    /**
+     * Register the specified handle with this scope, so it is disposed when the scope is closed. A handle that is
+     * owned by another open scope of the calling thread is moved to this scope.
+     *
+     * @param resource the handle to own
+     * @param <T> the type of the handle
+     * @return the specified handle
+     * @throws IllegalStateException if the scope has been closed, or it is not used by its own thread
+     */
+    public <T extends Disposable> T own(T resource) {
+        checkNotNull(resource, "resource");
+        checkThread();
+        checkState(!resources.closed, "Scope has been closed");
+        untrack(resource);
+        resources.handles.add(resource);
+        return resource;
+    }
+
+    /**
+     * Unregister the specified handle from this scope, without disposing it. The caller takes the ownership of the
+     * handle.
+     *
+     * @param resource the handle to release
+     * @param <T> the type of the handle
+     * @return the specified handle
+     * @throws IllegalStateException if the scope is not used by its own thread
+     */
+    public <T extends Disposable> T release(T resource) {
+        checkNotNull(resource, "resource");
+        checkThread();
+        resources.handles.remove(resource);
+        return resource;
+    }
+
+    /**
+     * Dispose of the specified handle right away, and unregister it from this scope.
+     *
+     * @param resource the handle to dispose
+     */
+    public void dispose(Disposable resource) {
+        release(resource).dispose();
+    }
+
+    /**
+     * Retrieve the number of handles owned by this scope.
+     *
+     * @return the number of owned handles
+     * @throws IllegalStateException if the scope is not used by its own thread
+     */
+    public int size() {
+        checkThread();
+        return resources.handles.size();
+    }
+
+    /**
+     * Dispose of every handle owned by this scope, in the reverse order of their registration, and make the parent
+     * scope the current scope again.
+     * <br>
+     * Every handle is disposed, even if disposing one of them fails. The first failure is rethrown afterward, with
+     * the other failures attached as suppressed exceptions.
+     *
+     * @throws IllegalStateException if the scope is not the current scope of the calling thread
+     */
+    @Override
+    public void close() {
+        if (resources.closed)
+            return;
+        checkState(current.get() == this, "Scope must be closed by its thread, after its nested scopes");
+        if (parent != null)
+            current.set(parent);
+        else
+            current.remove();
+        resources.closed = true;
+        cleanable.clean();
+        if (resources.failure != null)
+            throw resources.failure;
+    }
+
+    /**
+     * Check that the scope is used by the thread that opened it.
+     */
+    private void checkThread() {
+        checkState(Thread.currentThread() == thread, "Scope must be used by the thread that opened it");
+    }
+
+    /**
+     * Open a new scope, that becomes the current scope of the calling thread.
+     *
+     * @return a new scope
+     */
+    public static Scope open() {
+        Scope scope = new Scope(current.get(), Thread.currentThread());
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * Register the specified handle with the current scope of the calling thread, if there is one. This is called
+     * by the factories of the wrappers that are owned by scopes automatically.
+     *
+     * @param resource the handle to register
+     * @param <T> the type of the handle
+     * @return the specified handle
+     */
+    public static <T extends Disposable> T track(T resource) {
+        Scope scope = current.get();
+        return scope != null ? scope.own(resource) : resource;
+    }
+
+    /**
+     * Unregister the specified handle from the open scope of the calling thread that owns it, because its
+     * ownership has been transferred to another object or the handle has been disposed.
+     *
+     * @param resource the handle whose ownership has been transferred
+     * @param <T> the type of the handle
+     * @return the specified handle
+     */
+    public static <T extends Disposable> T untrack(T resource) {
+        // a handle is owned by at most one scope, and is usually owned by the innermost one
+        for (Scope scope = current.get(); scope != null; scope = scope.parent) {
+            if (scope.resources.handles.remove(resource))
+                break;
+        }
+        return resource;
+    }
+
+    /**
+     * Retrieve the number of scopes that have been disposed by the cleaner, because they were not closed.
+     *
+     * @return the number of leaked scopes
+     */
+    public static long leaked() {
+        return leaked.get();
+    }
+
+    /**
+     * Represents the handles owned by a scope, which are disposed when the scope is closed or cleaned.
+     */
+    private static final class Resources implements Runnable {
+        /**
+         * The owned handles, in the order of their registration, which are only accessed by the thread of the
+         * scope, or by the cleaner after that thread has terminated.
+         */
+        private final LinkedHashSet<Disposable> handles = new LinkedHashSet<>();
+
+        /**
+         * The indication, whether the scope has been closed explicitly.
+         */
+        private volatile boolean closed;
+
+        /**
+         * The first failure that occurred while the handles were disposed.
+         */
+        private RuntimeException failure;
+
+        @Override
+        public void run() {
+            if (!closed)
+                leaked.incrementAndGet();
+            // no handle can be registered with a closed or unreachable scope anymore
+            closed = true;
+            List<Disposable> owned = new ArrayList<>(handles.reversed());
+            handles.clear();
+            for (Disposable resource : owned) {
+                try {
+                    resource.dispose();
+                } catch (RuntimeException e) {
+                    if (failure == null)
+                        failure = e;
+                    else
+                        failure.addSuppressed(e);
+                }
+            }
+        }
+    }
+}
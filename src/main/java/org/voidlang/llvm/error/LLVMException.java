@@ -0,0 +1,54 @@
+package org.voidlang.llvm.error;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.llvm.LLVM.LLVMErrorRef;
+
+import java.io.Serial;
+
+import static org.bytedeco.llvm.global.LLVM.LLVMDisposeErrorMessage;
+import static org.bytedeco.llvm.global.LLVM.LLVMGetErrorMessage;
+
+/**
+ * Represents an unchecked exception that is thrown when an LLVM API call reports a failure through an
+ * {@link LLVMErrorRef} handle.
+ */
+public class LLVMException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Initialize the exception with the specified error message.
+     *
+     * @param message the error message reported by LLVM
+     */
+    public LLVMException(String message) {
+        super(message);
+    }
+
+    /**
+     * Consume the specified LLVM error and throw it as an exception, if it indicates a failure.
+     *
+     * @param error the LLVM error handle, or {@code null} if the operation was successful
+     * @throws LLVMException if the error handle indicates a failure
+     */
+    public static void check(LLVMErrorRef error) {
+        if (error != null)
+            throw of(error);
+    }
+
+    /**
+     * Consume the specified LLVM error and wrap its message in a new exception.
+     *
+     * @param error the LLVM error handle to consume
+     * @return a new exception that describes the error
+     */
+    public static LLVMException of(LLVMErrorRef error) {
+        // retrieving the message consumes the error, so only the message needs to be disposed
+        BytePointer message = LLVMGetErrorMessage(error);
+        try {
+            return new LLVMException(message.getString());
+        } finally {
+            LLVMDisposeErrorMessage(message);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.voidlang.llvm.instruction;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents an enumeration of the predicates of the floating-point comparison instruction.
+ * <br>
+ * Ordered predicates are false if either operand is NaN, unordered predicates are true if either operand is NaN.
+ */
+public enum FloatPredicate {
+    /**
+     * `FALSE` indicates, that the comparison always yields false.
+     */
+    FALSE(LLVMRealPredicateFalse),
+
+    /**
+     * `ORDERED_EQUAL` indicates, that the operands are ordered and equal.
+     */
+    ORDERED_EQUAL(LLVMRealOEQ),
+
+    /**
+     * `ORDERED_GREATER` indicates, that the operands are ordered and the left one is greater.
+     */
+    ORDERED_GREATER(LLVMRealOGT),
+
+    /**
+     * `ORDERED_GREATER_OR_EQUAL` indicates, that the operands are ordered and the left one is greater or equal.
+     */
+    ORDERED_GREATER_OR_EQUAL(LLVMRealOGE),
+
+    /**
+     * `ORDERED_LESS` indicates, that the operands are ordered and the left one is less.
+     */
+    ORDERED_LESS(LLVMRealOLT),
+
+    /**
+     * `ORDERED_LESS_OR_EQUAL` indicates, that the operands are ordered and the left one is less or equal.
+     */
+    ORDERED_LESS_OR_EQUAL(LLVMRealOLE),
+
+    /**
+     * `ORDERED_NOT_EQUAL` indicates, that the operands are ordered and not equal.
+     */
+    ORDERED_NOT_EQUAL(LLVMRealONE),
+
+    /**
+     * `ORDERED` indicates, that neither operand is NaN.
+     */
+    ORDERED(LLVMRealORD),
+
+    /**
+     * `UNORDERED` indicates, that either operand is NaN.
+     */
+    UNORDERED(LLVMRealUNO),
+
+    /**
+     * `UNORDERED_EQUAL` indicates, that the operands are unordered or equal.
+     */
+    UNORDERED_EQUAL(LLVMRealUEQ),
+
+    /**
+     * `UNORDERED_GREATER` indicates, that the operands are unordered or the left one is greater.
+     */
+    UNORDERED_GREATER(LLVMRealUGT),
+
+    /**
+     * `UNORDERED_GREATER_OR_EQUAL` indicates, that the operands are unordered or the left one is greater or equal.
+     */
+    UNORDERED_GREATER_OR_EQUAL(LLVMRealUGE),
+
+    /**
+     * `UNORDERED_LESS` indicates, that the operands are unordered or the left one is less.
+     */
+    UNORDERED_LESS(LLVMRealULT),
+
+    /**
+     * `UNORDERED_LESS_OR_EQUAL` indicates, that the operands are unordered or the left one is less or equal.
+     */
+    UNORDERED_LESS_OR_EQUAL(LLVMRealULE),
+
+    /**
+     * `UNORDERED_NOT_EQUAL` indicates, that the operands are unordered or not equal.
+     */
+    UNORDERED_NOT_EQUAL(LLVMRealUNE),
+
+    /**
+     * `TRUE` indicates, that the comparison always yields true.
+     */
+    TRUE(LLVMRealPredicateTrue);
+
+    /**
+     * The code of the predicate.
+     */
+    private final int code;
+
+    FloatPredicate(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return this.code;
+    }
+
+    /**
+     * Retrieve the floating-point comparison predicate from the specified code.
+     *
+     * @param code the code of the predicate
+     * @return the comparison predicate, or an empty optional if the code is invalid
+     */
+    public static Optional<FloatPredicate> of(int code) {
+        return Arrays.stream(values())
+            .filter(predicate -> predicate.code == code)
+            .findFirst();
+    }
+}
@@ -2,18 +2,26 @@ package org.voidlang.llvm.instruction;
 
 import org.bytedeco.javacpp.Pointer;
 import org.bytedeco.javacpp.PointerPointer;
+import org.bytedeco.llvm.LLVM.LLVMBasicBlockRef;
 import org.bytedeco.llvm.LLVM.LLVMBuilderRef;
+import org.bytedeco.llvm.LLVM.LLVMTypeRef;
 import org.bytedeco.llvm.LLVM.LLVMValueRef;
 import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.behaviour.Scope;
 import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.ScratchPointers;
+import org.voidlang.llvm.type.IRStructType;
 import org.voidlang.llvm.type.IRType;
 import org.voidlang.llvm.value.IRFunction;
+import org.voidlang.llvm.value.IRIntrinsic;
 import org.voidlang.llvm.value.IRValue;
 
 import java.util.List;
 
 import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Represents a handle to an LLVM IR builder. It is a pointer to an opaque structure that represents the builder
@@ -24,8 +32,41 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * <br>
  * This class type is typically used as a parameter type in various LLVM builder-related functions,
  * allowing you to pass and manipulate the builder object.
+ * <br>
+ * A builder is confined to a single thread. The operands of instructions that take a variable number of values are
+ * passed to LLVM through the {@link ScratchPointers} of the thread, so emitting such instructions does not allocate
+ * native memory.
  */
-public record IRBuilder(LLVMBuilderRef handle, IRContext context) implements Disposable {
+public class IRBuilder implements Disposable {
+    /**
+     * The handle to the LLVM IR builder.
+     */
+    private final LLVMBuilderRef handle;
+
+    /**
+     * The context in which the builder creates instructions.
+     */
+    private final IRContext context;
+
+    /**
+     * Initialize the IR builder with the specified handle and context.
+     *
+     * @param handle the handle to the LLVM IR builder
+     * @param context the context in which the builder creates instructions
+     */
+    public IRBuilder(LLVMBuilderRef handle, IRContext context) {
+        this.handle = checkNotNull(handle, "handle");
+        this.context = checkNotNull(context, "context");
+    }
+
+    public LLVMBuilderRef handle() {
+        return this.handle;
+    }
+
+    public IRContext context() {
+        return this.context;
+    }
+
     /**
      * Position the LLVM IR builder at the end of a basic block. It is used to specify the insertion point for
      * new instructions within a basic block.
@@ -91,6 +132,65 @@ public record IRBuilder(LLVMBuilderRef handle, IRContext context) implements Dis
         return new IRValue(LLVMBuildRetVoid(handle));
     }
 
+    /**
+     * Create an unconditional branch instruction, which transfers control to the specified block.
+     * <br>
+     * For more information on the br instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#br-instruction">LLVM documentation</a>
+     *
+     * @param destination the block that control is transferred to
+     * @return an IRValue that represents the branch instruction
+     */
+    public IRValue branch(IRBlock destination) {
+        return new IRValue(LLVMBuildBr(handle, checkNotNull(destination, "destination").handle()));
+    }
+
+    /**
+     * Create a conditional branch instruction, which transfers control to one of two blocks, depending on the
+     * value of an {@code i1} condition.
+     * <br>
+     * For more information on the br instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#br-instruction">LLVM documentation</a>
+     *
+     * @param condition an {@code i1} value that selects the destination
+     * @param thenBlock the block that control is transferred to, if the condition is true
+     * @param elseBlock the block that control is transferred to, if the condition is false
+     * @return an IRValue that represents the branch instruction
+     */
+    public IRValue conditionalBranch(IRValue condition, IRBlock thenBlock, IRBlock elseBlock) {
+        return new IRValue(LLVMBuildCondBr(handle, checkNotNull(condition, "condition").handle(), checkNotNull(thenBlock, "thenBlock").handle(), checkNotNull(elseBlock, "elseBlock").handle()));
+    }
+
+    /**
+     * Create a switch instruction, which transfers control to one of several blocks, depending on the value of an
+     * integer. The cases are added to the returned instruction with {@link IRSwitch#addCase(IRValue, IRBlock)}.
+     * <br>
+     * For more information on the switch instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#switch-instruction">LLVM documentation</a>
+     *
+     * @param value the integer value that selects the case
+     * @param defaultBlock the block that control is transferred to, if no case matches the value
+     * @param expectedCases the number of cases that will be added, used to reserve room for them
+     * @return an IRSwitch that represents the switch instruction
+     */
+    public IRSwitch switchOn(IRValue value, IRBlock defaultBlock, int expectedCases) {
+        checkArgument(expectedCases >= 0, "expectedCases must not be negative");
+        return new IRSwitch(LLVMBuildSwitch(handle, checkNotNull(value, "value").handle(), checkNotNull(defaultBlock, "defaultBlock").handle(), expectedCases));
+    }
+
+    /**
+     * Create an unreachable instruction, which tells the optimizer that the current point of the code is never
+     * reached. It terminates a block, that control can not fall out of, e.g. after a call that never returns.
+     * <br>
+     * For more information on the unreachable instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#unreachable-instruction">LLVM documentation</a>
+     *
+     * @return an IRValue that represents the unreachable instruction
+     */
+    public IRValue unreachable() {
+        return new IRValue(LLVMBuildUnreachable(handle));
+    }
+
     /**
      * Perform an addition operation. It is used for integer addition with optional overflow checking.
      * <br>
@@ -939,6 +1039,170 @@ public record IRBuilder(LLVMBuilderRef handle, IRContext context) implements Dis
         return remainderUnsigned(left, right, "");
     }
 
+    /**
+     * Perform a bitwise and of two integer values. Applied to {@code i1} values, it is the logical conjunction. The operands may also be vectors.
+     * <br>
+     * For more information on the and instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#and-instruction">LLVM documentation</a>
+     *
+     * @param left the left-hand side integer value
+     * @param right the right-hand side integer value
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the result of the operation
+     */
+    public IRValue and(IRValue left, IRValue right, String name) {
+        return new IRValue(LLVMBuildAnd(handle, checkNotNull(left, "left").handle(), checkNotNull(right, "right").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Perform a bitwise and of two integer values.
+     *
+     * @param left the left-hand side integer value
+     * @param right the right-hand side integer value
+     *
+     * @return an IRValue that represents the result of the operation
+     */
+    public IRValue and(IRValue left, IRValue right) {
+        return and(left, right, "");
+    }
+
+    /**
+     * Perform a bitwise or of two integer values. Applied to {@code i1} values, it is the logical disjunction. The operands may also be vectors.
+     * <br>
+     * For more information on the or instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#or-instruction">LLVM documentation</a>
+     *
+     * @param left the left-hand side integer value
+     * @param right the right-hand side integer value
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the result of the operation
+     */
+    public IRValue or(IRValue left, IRValue right, String name) {
+        return new IRValue(LLVMBuildOr(handle, checkNotNull(left, "left").handle(), checkNotNull(right, "right").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Perform a bitwise or of two integer values.
+     *
+     * @param left the left-hand side integer value
+     * @param right the right-hand side integer value
+     *
+     * @return an IRValue that represents the result of the operation
+     */
+    public IRValue or(IRValue left, IRValue right) {
+        return or(left, right, "");
+    }
+
+    /**
+     * Perform a bitwise exclusive or of two integer values. The operands may also be vectors.
+     * <br>
+     * For more information on the xor instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#xor-instruction">LLVM documentation</a>
+     *
+     * @param left the left-hand side integer value
+     * @param right the right-hand side integer value
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the result of the operation
+     */
+    public IRValue xor(IRValue left, IRValue right, String name) {
+        return new IRValue(LLVMBuildXor(handle, checkNotNull(left, "left").handle(), checkNotNull(right, "right").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Perform a bitwise exclusive or of two integer values.
+     *
+     * @param left the left-hand side integer value
+     * @param right the right-hand side integer value
+     *
+     * @return an IRValue that represents the result of the operation
+     */
+    public IRValue xor(IRValue left, IRValue right) {
+        return xor(left, right, "");
+    }
+
+    /**
+     * Invert the bits of an integer value, by an exclusive or with all bits set. Applied to an {@code i1} value, it
+     * is the logical negation.
+     * <br>
+     * For more information on the xor instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#xor-instruction">LLVM documentation</a>
+     *
+     * @param value the integer value to be inverted
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the inverted value
+     */
+    public IRValue not(IRValue value, String name) {
+        return new IRValue(LLVMBuildNot(handle, checkNotNull(value, "value").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Invert the bits of an integer value.
+     *
+     * @param value the integer value to be inverted
+     *
+     * @return an IRValue that represents the inverted value
+     */
+    public IRValue not(IRValue value) {
+        return not(value, "");
+    }
+
+    /**
+     * Negate an integer value, by subtracting it from zero. The negation of the minimum value wraps around to
+     * itself.
+     * <br>
+     * For more information on the sub instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#sub-instruction">LLVM documentation</a>
+     *
+     * @param value the integer value to be negated
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the negated value
+     */
+    public IRValue negate(IRValue value, String name) {
+        return new IRValue(LLVMBuildNeg(handle, checkNotNull(value, "value").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Negate an integer value.
+     *
+     * @param value the integer value to be negated
+     *
+     * @return an IRValue that represents the negated value
+     */
+    public IRValue negate(IRValue value) {
+        return negate(value, "");
+    }
+
+    /**
+     * Negate a floating-point value, by flipping its sign bit.
+     * <br>
+     * For more information on the fneg instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#fneg-instruction">LLVM documentation</a>
+     *
+     * @param value the floating-point value to be negated
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the negated value
+     */
+    public IRValue negateFloat(IRValue value, String name) {
+        return new IRValue(LLVMBuildFNeg(handle, checkNotNull(value, "value").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Negate a floating-point value.
+     *
+     * @param value the floating-point value to be negated
+     *
+     * @return an IRValue that represents the negated value
+     */
+    public IRValue negateFloat(IRValue value) {
+        return negateFloat(value, "");
+    }
+
     /**
      * Allocate memory on the stack for a new variable. It is used to create a new stack-allocated variable
      * of the specified type.
@@ -1072,65 +1336,1108 @@ public record IRBuilder(LLVMBuilderRef handle, IRContext context) implements Dis
     }
 
     /**
-     * Perform a function call instruction. It is used to call a function with the specified signature and arguments.
+     * Truncate an integer value to a narrower integer type, by discarding its most significant bits. The operand
+     * may also be a vector, in which case the type must be a vector of the same length.
      * <br>
-     * The signature parameter specifies the type of the function being called. The function parameter is an IRFunction
-     * object that represents the function to be called. The arguments parameter is a list of IRValue objects that
-     * represent the arguments to the function.
+     * For more information on the trunc instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#trunc-to-instruction">LLVM documentation</a>
+     *
+     * @param value the value to be converted
+     * @param type the narrower integer type of the result
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue truncate(IRValue value, IRType type, String name) {
+        return new IRValue(LLVMBuildTrunc(handle, checkNotNull(value, "value").handle(), checkNotNull(type, "type").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Truncate an integer value to a narrower integer type, by discarding its most significant bits.
+     *
+     * @param value the value to be converted
+     * @param type the narrower integer type of the result
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue truncate(IRValue value, IRType type) {
+        return truncate(value, type, "");
+    }
+
+    /**
+     * Extend an integer value to a wider integer type, by filling the new most significant bits with zeros. The
+     * operand may also be a vector, in which case the type must be a vector of the same length.
      * <br>
-     * The name parameter is an optional name for the instruction, which can be used for debugging purposes.
+     * For more information on the zext instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#zext-to-instruction">LLVM documentation</a>
+     *
+     * @param value the value to be converted
+     * @param type the wider integer type of the result
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue zeroExtend(IRValue value, IRType type, String name) {
+        return new IRValue(LLVMBuildZExt(handle, checkNotNull(value, "value").handle(), checkNotNull(type, "type").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Extend an integer value to a wider integer type, by filling the new most significant bits with zeros.
+     *
+     * @param value the value to be converted
+     * @param type the wider integer type of the result
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue zeroExtend(IRValue value, IRType type) {
+        return zeroExtend(value, type, "");
+    }
+
+    /**
+     * Extend an integer value to a wider integer type, by copying its sign bit into the new most significant bits.
+     * The operand may also be a vector, in which case the type must be a vector of the same length.
      * <br>
-     * The function returns an IRValue that represents the result of the function call. You can use this value in
-     * subsequent instructions or store it in a variable.
+     * For more information on the sext instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#sext-to-instruction">LLVM documentation</a>
+     *
+     * @param value the value to be converted
+     * @param type the wider integer type of the result
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue signExtend(IRValue value, IRType type, String name) {
+        return new IRValue(LLVMBuildSExt(handle, checkNotNull(value, "value").handle(), checkNotNull(type, "type").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Extend an integer value to a wider integer type, by copying its sign bit into the new most significant bits.
+     *
+     * @param value the value to be converted
+     * @param type the wider integer type of the result
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue signExtend(IRValue value, IRType type) {
+        return signExtend(value, type, "");
+    }
+
+    /**
+     * Convert a signed integer value to the nearest value of a floating-point type. The operand may also be a
+     * vector, in which case the type must be a vector of the same length.
      * <br>
-     * Note that the function call instruction is used to call a function with the specified signature and arguments.
-     * The function must have the same signature as the one specified in the signature parameter.
+     * For more information on the sitofp instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#sitofp-to-instruction">LLVM documentation</a>
+     *
+     * @param value the value to be converted
+     * @param type the floating-point type of the result
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue signedToFloat(IRValue value, IRType type, String name) {
+        return new IRValue(LLVMBuildSIToFP(handle, checkNotNull(value, "value").handle(), checkNotNull(type, "type").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Convert a signed integer value to the nearest value of a floating-point type.
+     *
+     * @param value the value to be converted
+     * @param type the floating-point type of the result
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue signedToFloat(IRValue value, IRType type) {
+        return signedToFloat(value, type, "");
+    }
+
+    /**
+     * Convert an unsigned integer value to the nearest value of a floating-point type. The operand may also be a
+     * vector, in which case the type must be a vector of the same length.
      * <br>
-     * For more information on the call instruction, see the
-     * <a href="https://llvm.org/docs/LangRef.html#call-instruction">LLVM documentation</a>
+     * For more information on the uitofp instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#uitofp-to-instruction">LLVM documentation</a>
      *
-     * @param signature the LLVM type of the function being called
-     * @param function an IRFunction object that represents the function to be called
-     * @param arguments a list of IRValue objects that represent the arguments to the function
+     * @param value the value to be converted
+     * @param type the floating-point type of the result
      * @param name an optional name for the instruction (can be set to "" if not needed)
      *
-     * @return an IRValue that represents the result of the function call
+     * @return an IRValue that represents the converted value
      */
-    public IRValue call(IRType signature, IRFunction function, List<IRValue> arguments, String name) {
-        // unwrap the handles or the function call arguments
-        PointerPointer<Pointer> args = new PointerPointer<>(checkNotNull(arguments).size());
-        for (int i = 0; i < arguments.size(); i++)
-            args.put(i, checkNotNull(arguments.get(i), "arguments.get(" + i + ")").handle());
-        // create the function call instruction
-        LLVMValueRef call = LLVMBuildCall2(handle, checkNotNull(signature, "signature").handle(), checkNotNull(function, "function").handle(), args, arguments.size(), checkNotNull(name, "name"));
-        // wrap the function call instruction in an IRValue object
-        return new IRValue(call);
+    public IRValue unsignedToFloat(IRValue value, IRType type, String name) {
+        return new IRValue(LLVMBuildUIToFP(handle, checkNotNull(value, "value").handle(), checkNotNull(type, "type").handle(), checkNotNull(name, "name")));
     }
 
     /**
-     * Perform a function call instruction. It is used to call a function with the specified signature and arguments.
+     * Convert an unsigned integer value to the nearest value of a floating-point type.
+     *
+     * @param value the value to be converted
+     * @param type the floating-point type of the result
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue unsignedToFloat(IRValue value, IRType type) {
+        return unsignedToFloat(value, type, "");
+    }
+
+    /**
+     * Convert a floating-point value to a signed integer type, rounding towards zero. The result is poison, if the
+     * value is NaN or does not fit into the integer type, see {@link #floatToSignedSaturated(IRValue, IRType,
+     * String)}. The operand may also be a vector, in which case the type must be a vector of the same length.
      * <br>
-     * The signature parameter specifies the type of the function being called. The function parameter is an IRFunction
-     * object that represents the function to be called. The arguments parameter is a list of IRValue objects that
-     * represent the arguments to the function.
+     * For more information on the fptosi instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#fptosi-to-instruction">LLVM documentation</a>
+     *
+     * @param value the value to be converted
+     * @param type the integer type of the result
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue floatToSigned(IRValue value, IRType type, String name) {
+        return new IRValue(LLVMBuildFPToSI(handle, checkNotNull(value, "value").handle(), checkNotNull(type, "type").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Convert a floating-point value to a signed integer type, rounding towards zero.
+     *
+     * @param value the value to be converted
+     * @param type the integer type of the result
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue floatToSigned(IRValue value, IRType type) {
+        return floatToSigned(value, type, "");
+    }
+
+    /**
+     * Convert a floating-point value to an unsigned integer type, rounding towards zero. The result is poison, if
+     * the value is NaN or does not fit into the integer type. The operand may also be a vector, in which case the
+     * type must be a vector of the same length.
      * <br>
-     * The function returns an IRValue that represents the result of the function call. You can use this value in
-     * subsequent instructions or store it in a variable.
+     * For more information on the fptoui instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#fptoui-to-instruction">LLVM documentation</a>
+     *
+     * @param value the value to be converted
+     * @param type the integer type of the result
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue floatToUnsigned(IRValue value, IRType type, String name) {
+        return new IRValue(LLVMBuildFPToUI(handle, checkNotNull(value, "value").handle(), checkNotNull(type, "type").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Convert a floating-point value to an unsigned integer type, rounding towards zero.
+     *
+     * @param value the value to be converted
+     * @param type the integer type of the result
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue floatToUnsigned(IRValue value, IRType type) {
+        return floatToUnsigned(value, type, "");
+    }
+
+    /**
+     * Compare two integer or pointer values with the specified predicate. The operands may also be vectors, in
+     * which case the result is a vector of {@code i1} values.
      * <br>
-     * Note that the function call instruction is used to call a function with the specified signature and arguments.
-     * The function must have the same signature as the one specified in the signature parameter.
+     * For more information on the icmp instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#icmp-instruction">LLVM documentation</a>
+     *
+     * @param predicate the comparison to perform
+     * @param left the left-hand side value to be compared
+     * @param right the right-hand side value to be compared
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the {@code i1} result of the comparison
+     */
+    public IRValue compare(IntPredicate predicate, IRValue left, IRValue right, String name) {
+        return new IRValue(LLVMBuildICmp(handle, checkNotNull(predicate, "predicate").code(), checkNotNull(left, "left").handle(), checkNotNull(right, "right").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Compare two integer or pointer values with the specified predicate.
      * <br>
-     * For more information on the call instruction, see the
-     * <a href="https://llvm.org/docs/LangRef.html#call-instruction">LLVM documentation</a>
+     * For more information on the icmp instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#icmp-instruction">LLVM documentation</a>
      *
-     * @param signature the LLVM type of the function being called
-     * @param function an IRFunction object that represents the function to be called
-     * @param arguments a list of IRValue objects that represent the arguments to the function
+     * @param predicate the comparison to perform
+     * @param left the left-hand side value to be compared
+     * @param right the right-hand side value to be compared
      *
-     * @return an IRValue that represents the result of the function call
+     * @return an IRValue that represents the {@code i1} result of the comparison
      */
-    public IRValue call(IRType signature, IRFunction function, List<IRValue> arguments) {
-        return call(signature, function, arguments, "");
+    public IRValue compare(IntPredicate predicate, IRValue left, IRValue right) {
+        return compare(predicate, left, right, "");
+    }
+
+    /**
+     * Compare two floating-point values with the specified predicate. The operands may also be vectors, in which
+     * case the result is a vector of {@code i1} values.
+     * <br>
+     * For more information on the fcmp instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#fcmp-instruction">LLVM documentation</a>
+     *
+     * @param predicate the comparison to perform
+     * @param left the left-hand side value to be compared
+     * @param right the right-hand side value to be compared
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the {@code i1} result of the comparison
+     */
+    public IRValue compareFloat(FloatPredicate predicate, IRValue left, IRValue right, String name) {
+        return new IRValue(LLVMBuildFCmp(handle, checkNotNull(predicate, "predicate").code(), checkNotNull(left, "left").handle(), checkNotNull(right, "right").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Compare two floating-point values with the specified predicate.
+     * <br>
+     * For more information on the fcmp instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#fcmp-instruction">LLVM documentation</a>
+     *
+     * @param predicate the comparison to perform
+     * @param left the left-hand side value to be compared
+     * @param right the right-hand side value to be compared
+     *
+     * @return an IRValue that represents the {@code i1} result of the comparison
+     */
+    public IRValue compareFloat(FloatPredicate predicate, IRValue left, IRValue right) {
+        return compareFloat(predicate, left, right, "");
+    }
+
+    /**
+     * Select one of two values, depending on an {@code i1} condition, without branching. A vector of conditions
+     * selects the elements of two vectors individually.
+     * <br>
+     * For more information on the select instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#select-instruction">LLVM documentation</a>
+     *
+     * @param condition the condition that selects the value
+     * @param thenValue the value of the result, if the condition is true
+     * @param elseValue the value of the result, if the condition is false
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the selected value
+     */
+    public IRValue select(IRValue condition, IRValue thenValue, IRValue elseValue, String name) {
+        return new IRValue(LLVMBuildSelect(handle, checkNotNull(condition, "condition").handle(), checkNotNull(thenValue, "thenValue").handle(), checkNotNull(elseValue, "elseValue").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Select one of two values, depending on an {@code i1} condition, without branching.
+     * <br>
+     * For more information on the select instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#select-instruction">LLVM documentation</a>
+     *
+     * @param condition the condition that selects the value
+     * @param thenValue the value of the result, if the condition is true
+     * @param elseValue the value of the result, if the condition is false
+     *
+     * @return an IRValue that represents the selected value
+     */
+    public IRValue select(IRValue condition, IRValue thenValue, IRValue elseValue) {
+        return select(condition, thenValue, elseValue, "");
+    }
+
+    /**
+     * Create a phi node without incoming values, at the current insertion point, which must be at the start of a
+     * block. The incoming values are added with {@link IRPhi#addIncoming(IRValue, IRBlock)}, which allows loop
+     * headers to reference values of the back edge, before the back edge is emitted.
+     * <br>
+     * For more information on the phi instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#phi-instruction">LLVM documentation</a>
+     *
+     * @param type the LLVM type of the value of the phi node
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRPhi that represents the phi node
+     */
+    public IRPhi phi(IRType type, String name) {
+        return new IRPhi(LLVMBuildPhi(handle, checkNotNull(type, "type").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Create a phi node without incoming values, at the current insertion point, which must be at the start of a
+     * block.
+     *
+     * @param type the LLVM type of the value of the phi node
+     *
+     * @return an IRPhi that represents the phi node
+     */
+    public IRPhi phi(IRType type) {
+        return phi(type, "");
+    }
+
+    /**
+     * Compute the address of an element of an aggregate in memory, without accessing the memory. It is used to
+     * index arrays and to address the fields of structs.
+     * <br>
+     * The first index steps over whole values of the specified type from the pointer, the following indices select
+     * elements within the value. Struct elements must be selected with constant {@code i32} indices.
+     * <br>
+     * For more information on the getelementptr instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#getelementptr-instruction">LLVM documentation</a>
+     *
+     * @param type the type of the values that the pointer points to
+     * @param pointer the base address
+     * @param indices the indices of the element
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the address of the element
+     */
+    public IRValue gep(IRType type, IRValue pointer, IRValue[] indices, String name) {
+        PointerPointer<Pointer> args = indices(indices);
+        return new IRValue(LLVMBuildGEP2(handle, checkNotNull(type, "type").handle(), checkNotNull(pointer, "pointer").handle(), args, indices.length, checkNotNull(name, "name")));
+    }
+
+    /**
+     * Compute the address of an element of an aggregate in memory, without accessing the memory.
+     *
+     * @param type the type of the values that the pointer points to
+     * @param pointer the base address
+     * @param indices the indices of the element
+     *
+     * @return an IRValue that represents the address of the element
+     */
+    public IRValue gep(IRType type, IRValue pointer, IRValue... indices) {
+        return gep(type, pointer, indices, "");
+    }
+
+    /**
+     * Compute the address of an element of an aggregate in memory, which is known to stay within the bounds of the
+     * allocated object of the pointer. If it does not, the result is a poison value.
+     * <br>
+     * The inbounds guarantee lets the optimizer assume, that the address computation does not wrap, which is
+     * required to vectorize loops, that walk through memory with an induction variable.
+     * <br>
+     * For more information on the getelementptr instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#getelementptr-instruction">LLVM documentation</a>
+     *
+     * @param type the type of the values that the pointer points to
+     * @param pointer the base address
+     * @param indices the indices of the element
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the address of the element
+     */
+    public IRValue inBoundsGEP(IRType type, IRValue pointer, IRValue[] indices, String name) {
+        PointerPointer<Pointer> args = indices(indices);
+        return new IRValue(LLVMBuildInBoundsGEP2(handle, checkNotNull(type, "type").handle(), checkNotNull(pointer, "pointer").handle(), args, indices.length, checkNotNull(name, "name")));
+    }
+
+    /**
+     * Compute the address of an element of an aggregate in memory, which is known to stay within the bounds of the
+     * allocated object of the pointer.
+     *
+     * @param type the type of the values that the pointer points to
+     * @param pointer the base address
+     * @param indices the indices of the element
+     *
+     * @return an IRValue that represents the address of the element
+     */
+    public IRValue inBoundsGEP(IRType type, IRValue pointer, IRValue... indices) {
+        return inBoundsGEP(type, pointer, indices, "");
+    }
+
+    /**
+     * Compute the address of a field of the struct, that the specified pointer points to.
+     * <br>
+     * For more information on the getelementptr instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#getelementptr-instruction">LLVM documentation</a>
+     *
+     * @param type the struct type that the pointer points to
+     * @param pointer the address of the struct
+     * @param index the index of the field
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the address of the field
+     */
+    public IRValue structGEP(IRStructType type, IRValue pointer, int index, String name) {
+        checkArgument(index >= 0 && index < checkNotNull(type, "type").elementCount(), "index out of bounds: %s", index);
+        return new IRValue(LLVMBuildStructGEP2(handle, type.handle(), checkNotNull(pointer, "pointer").handle(), index, checkNotNull(name, "name")));
+    }
+
+    /**
+     * Compute the address of a field of the struct, that the specified pointer points to.
+     *
+     * @param type the struct type that the pointer points to
+     * @param pointer the address of the struct
+     * @param index the index of the field
+     *
+     * @return an IRValue that represents the address of the field
+     */
+    public IRValue structGEP(IRStructType type, IRValue pointer, int index) {
+        return structGEP(type, pointer, index, "");
+    }
+
+    /**
+     * Extract the element at the specified index from an aggregate value, e.g. a field of a struct value, that is
+     * held in registers rather than in memory.
+     * <br>
+     * For more information on the extractvalue instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#extractvalue-instruction">LLVM documentation</a>
+     *
+     * @param aggregate the struct or array value
+     * @param index the index of the element
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the element
+     */
+    public IRValue extractValue(IRValue aggregate, int index, String name) {
+        checkArgument(index >= 0, "index must not be negative");
+        return new IRValue(LLVMBuildExtractValue(handle, checkNotNull(aggregate, "aggregate").handle(), index, checkNotNull(name, "name")));
+    }
+
+    /**
+     * Extract the element at the specified index from an aggregate value.
+     *
+     * @param aggregate the struct or array value
+     * @param index the index of the element
+     *
+     * @return an IRValue that represents the element
+     */
+    public IRValue extractValue(IRValue aggregate, int index) {
+        return extractValue(aggregate, index, "");
+    }
+
+    /**
+     * Insert a value at the specified index of an aggregate value. The instruction does not modify the specified
+     * aggregate, it returns a new aggregate, in which the element is replaced with the value.
+     * <br>
+     * For more information on the insertvalue instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#insertvalue-instruction">LLVM documentation</a>
+     *
+     * @param aggregate the struct or array value
+     * @param value the new value of the element
+     * @param index the index of the element
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the updated aggregate
+     */
+    public IRValue insertValue(IRValue aggregate, IRValue value, int index, String name) {
+        checkArgument(index >= 0, "index must not be negative");
+        return new IRValue(LLVMBuildInsertValue(handle, checkNotNull(aggregate, "aggregate").handle(), checkNotNull(value, "value").handle(), index, checkNotNull(name, "name")));
+    }
+
+    /**
+     * Insert a value at the specified index of an aggregate value.
+     *
+     * @param aggregate the struct or array value
+     * @param value the new value of the element
+     * @param index the index of the element
+     *
+     * @return an IRValue that represents the updated aggregate
+     */
+    public IRValue insertValue(IRValue aggregate, IRValue value, int index) {
+        return insertValue(aggregate, value, index, "");
+    }
+
+    /**
+     * Extract a single element from a vector. It is used to read one lane of a SIMD value.
+     * <br>
+     * If the index is greater than or equal to the number of elements of the vector, the result is a poison value.
+     * <br>
+     * For more information on the extractelement instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#extractelement-instruction">LLVM documentation</a>
+     *
+     * @param vector the vector to extract the element from
+     * @param index an integer value that represents the index of the element
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the extracted element
+     */
+    public IRValue extractElement(IRValue vector, IRValue index, String name) {
+        return new IRValue(LLVMBuildExtractElement(handle, checkNotNull(vector, "vector").handle(), checkNotNull(index, "index").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Extract a single element from a vector. It is used to read one lane of a SIMD value.
+     * <br>
+     * For more information on the extractelement instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#extractelement-instruction">LLVM documentation</a>
+     *
+     * @param vector the vector to extract the element from
+     * @param index the constant index of the element
+     *
+     * @return an IRValue that represents the extracted element
+     */
+    public IRValue extractElement(IRValue vector, int index) {
+        return extractElement(vector, indexOf(index), "");
+    }
+
+    /**
+     * Insert a single element into a vector. It is used to write one lane of a SIMD value.
+     * <br>
+     * The instruction does not modify the specified vector, it returns a new vector, in which the element at the
+     * specified index is replaced with the specified value.
+     * <br>
+     * For more information on the insertelement instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#insertelement-instruction">LLVM documentation</a>
+     *
+     * @param vector the vector to insert the element into
+     * @param value the value of the element, which must have the element type of the vector
+     * @param index an integer value that represents the index of the element
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the updated vector
+     */
+    public IRValue insertElement(IRValue vector, IRValue value, IRValue index, String name) {
+        return new IRValue(LLVMBuildInsertElement(handle, checkNotNull(vector, "vector").handle(), checkNotNull(value, "value").handle(), checkNotNull(index, "index").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Insert a single element into a vector. It is used to write one lane of a SIMD value.
+     * <br>
+     * For more information on the insertelement instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#insertelement-instruction">LLVM documentation</a>
+     *
+     * @param vector the vector to insert the element into
+     * @param value the value of the element, which must have the element type of the vector
+     * @param index the constant index of the element
+     *
+     * @return an IRValue that represents the updated vector
+     */
+    public IRValue insertElement(IRValue vector, IRValue value, int index) {
+        return insertElement(vector, value, indexOf(index), "");
+    }
+
+    /**
+     * Shuffle the elements of two vectors into a new vector. It is used to permute, broadcast, interleave or
+     * concatenate the lanes of SIMD values.
+     * <br>
+     * The mask is a constant vector of {@code i32} indices, whose length is the length of the result. Indices less
+     * than the length of the left vector select from the left vector, greater indices select from the right vector.
+     * <br>
+     * For more information on the shufflevector instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#shufflevector-instruction">LLVM documentation</a>
+     *
+     * @param left the first vector to select elements from
+     * @param right the second vector to select elements from, which must have the type of the first one
+     * @param mask the constant vector of the indices of the selected elements
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the shuffled vector
+     */
+    public IRValue shuffleVector(IRValue left, IRValue right, IRValue mask, String name) {
+        return new IRValue(LLVMBuildShuffleVector(handle, checkNotNull(left, "left").handle(), checkNotNull(right, "right").handle(), checkNotNull(mask, "mask").handle(), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Shuffle the elements of two vectors into a new vector. It is used to permute, broadcast, interleave or
+     * concatenate the lanes of SIMD values.
+     * <br>
+     * For more information on the shufflevector instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#shufflevector-instruction">LLVM documentation</a>
+     *
+     * @param left the first vector to select elements from
+     * @param right the second vector to select elements from, which must have the type of the first one
+     * @param mask the constant vector of the indices of the selected elements
+     *
+     * @return an IRValue that represents the shuffled vector
+     */
+    public IRValue shuffleVector(IRValue left, IRValue right, IRValue mask) {
+        return shuffleVector(left, right, mask, "");
+    }
+
+    /**
+     * Broadcast a scalar value to every element of a vector.
+     * <br>
+     * The value is inserted into the first lane of a poison vector, which is then shuffled with a zero mask. This is
+     * the canonical form that the backends recognize and lower to a single broadcast instruction. Both fixed and
+     * scalable vector types are supported.
+     *
+     * @param type the vector type of the result, whose element type must be the type of the value
+     * @param value the scalar value to broadcast
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the broadcast vector
+     */
+    public IRValue splat(IRType type, IRValue value, String name) {
+        LLVMTypeRef vectorType = checkNotNull(type, "type").handle();
+        int kind = LLVMGetTypeKind(vectorType);
+        checkArgument(kind == LLVMVectorTypeKind || kind == LLVMScalableVectorTypeKind, "type must be a vector type");
+        LLVMTypeRef int32 = LLVMInt32TypeInContext(context.handle());
+        int size = LLVMGetVectorSize(vectorType);
+        LLVMTypeRef maskType = kind == LLVMScalableVectorTypeKind
+            ? LLVMScalableVectorType(int32, size)
+            : LLVMVectorType(int32, size);
+        LLVMValueRef first = LLVMBuildInsertElement(handle, LLVMGetPoison(vectorType), checkNotNull(value, "value").handle(), LLVMConstInt(int32, 0, 0), "");
+        return new IRValue(LLVMBuildShuffleVector(handle, first, LLVMGetPoison(vectorType), LLVMConstNull(maskType), checkNotNull(name, "name")));
+    }
+
+    /**
+     * Broadcast a scalar value to every element of a vector.
+     *
+     * @param type the vector type of the result, whose element type must be the type of the value
+     * @param value the scalar value to broadcast
+     *
+     * @return an IRValue that represents the broadcast vector
+     */
+    public IRValue splat(IRType type, IRValue value) {
+        return splat(type, value, "");
+    }
+
+    /**
+     * Reduce the elements of a vector to a single scalar value, using the specified reduction. It is used to
+     * combine the lanes of a SIMD accumulator at the end of a vectorized loop.
+     * <br>
+     * For more information on the vector reduction intrinsics, see the
+     * <a href="https://llvm.org/docs/LangRef.html#vector-reduction-intrinsics">LLVM documentation</a>
+     *
+     * @param reduction the operation that combines the elements
+     * @param vector the vector to reduce
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the reduced value
+     */
+    public IRValue reduce(VectorReduction reduction, IRValue vector, String name) {
+        checkNotNull(reduction, "reduction");
+        LLVMTypeRef type = LLVMTypeOf(checkNotNull(vector, "vector").handle());
+        return call(intrinsic(reduction.intrinsic(), type), new IRValue[] { vector }, name);
+    }
+
+    /**
+     * Reduce the elements of a vector to a single scalar value, using the specified reduction.
+     *
+     * @param reduction the operation that combines the elements
+     * @param vector the vector to reduce
+     *
+     * @return an IRValue that represents the reduced value
+     */
+    public IRValue reduce(VectorReduction reduction, IRValue vector) {
+        return reduce(reduction, vector, "");
+    }
+
+    /**
+     * Add the elements of a floating-point vector to a start value.
+     * <br>
+     * The additions are performed sequentially, in the order of the elements, so the result is exactly the result
+     * of the equivalent scalar loop. LLVM may only reassociate the additions, and use a tree of vector additions,
+     * when the call carries the {@code reassoc} fast-math flag, which cannot be set through the C API.
+     *
+     * @param start the scalar value to start the reduction with, use {@code -0.0} for a plain sum
+     * @param vector the vector to reduce
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the sum
+     */
+    public IRValue reduceFloatAdd(IRValue start, IRValue vector, String name) {
+        LLVMTypeRef type = LLVMTypeOf(checkNotNull(vector, "vector").handle());
+        return call(intrinsic("llvm.vector.reduce.fadd", type), new IRValue[] { start, vector }, name);
+    }
+
+    /**
+     * Add the elements of a floating-point vector to a start value, in the order of the elements.
+     *
+     * @param start the scalar value to start the reduction with, use {@code -0.0} for a plain sum
+     * @param vector the vector to reduce
+     *
+     * @return an IRValue that represents the sum
+     */
+    public IRValue reduceFloatAdd(IRValue start, IRValue vector) {
+        return reduceFloatAdd(start, vector, "");
+    }
+
+    /**
+     * Multiply a start value by the elements of a floating-point vector.
+     * <br>
+     * The multiplications are performed sequentially, in the order of the elements, like the additions of
+     * {@link #reduceFloatAdd(IRValue, IRValue, String)}.
+     *
+     * @param start the scalar value to start the reduction with, use {@code 1.0} for a plain product
+     * @param vector the vector to reduce
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the product
+     */
+    public IRValue reduceFloatMultiply(IRValue start, IRValue vector, String name) {
+        LLVMTypeRef type = LLVMTypeOf(checkNotNull(vector, "vector").handle());
+        return call(intrinsic("llvm.vector.reduce.fmul", type), new IRValue[] { start, vector }, name);
+    }
+
+    /**
+     * Multiply a start value by the elements of a floating-point vector, in the order of the elements.
+     *
+     * @param start the scalar value to start the reduction with, use {@code 1.0} for a plain product
+     * @param vector the vector to reduce
+     *
+     * @return an IRValue that represents the product
+     */
+    public IRValue reduceFloatMultiply(IRValue start, IRValue vector) {
+        return reduceFloatMultiply(start, vector, "");
+    }
+
+    /**
+     * Copy a block of memory between two non-overlapping locations, through the {@code llvm.memcpy} intrinsic.
+     * <br>
+     * Unlike a loop of loads and stores, the intrinsic lets LLVM expand small copies of a constant size into a few
+     * wide moves, and call the tuned {@code memcpy} of the platform for large ones.
+     * <br>
+     * For more information on the memcpy intrinsic, see the
+     * <a href="https://llvm.org/docs/LangRef.html#llvm-memcpy-intrinsic">LLVM documentation</a>
+     *
+     * @param destination the pointer to the destination memory
+     * @param destinationAlignment the known alignment of the destination, in bytes
+     * @param source the pointer to the source memory
+     * @param sourceAlignment the known alignment of the source, in bytes
+     * @param size an integer value that represents the number of bytes to copy
+     *
+     * @return an IRValue that represents the call of the intrinsic
+     */
+    public IRValue memoryCopy(IRValue destination, int destinationAlignment, IRValue source, int sourceAlignment, IRValue size) {
+        checkArgument(destinationAlignment > 0 && sourceAlignment > 0, "alignment must be positive");
+        return new IRValue(LLVMBuildMemCpy(handle, checkNotNull(destination, "destination").handle(), destinationAlignment, checkNotNull(source, "source").handle(), sourceAlignment, checkNotNull(size, "size").handle()));
+    }
+
+    /**
+     * Fill a block of memory with a byte value, through the {@code llvm.memset} intrinsic.
+     * <br>
+     * For more information on the memset intrinsic, see the
+     * <a href="https://llvm.org/docs/LangRef.html#llvm-memset-intrinsic">LLVM documentation</a>
+     *
+     * @param pointer the pointer to the memory to fill
+     * @param value an {@code i8} value that represents the byte to fill the memory with
+     * @param size an integer value that represents the number of bytes to fill
+     * @param alignment the known alignment of the memory, in bytes
+     *
+     * @return an IRValue that represents the call of the intrinsic
+     */
+    public IRValue memorySet(IRValue pointer, IRValue value, IRValue size, int alignment) {
+        checkArgument(alignment > 0, "alignment must be positive");
+        return new IRValue(LLVMBuildMemSet(handle, checkNotNull(pointer, "pointer").handle(), checkNotNull(value, "value").handle(), checkNotNull(size, "size").handle(), alignment));
+    }
+
+    /**
+     * Perform a fused multiply-add operation, which computes {@code left * right + addend} with a single rounding,
+     * through the {@code llvm.fma} intrinsic. The operands may be floating-point scalars or vectors.
+     * <br>
+     * For more information on the fma intrinsic, see the
+     * <a href="https://llvm.org/docs/LangRef.html#llvm-fma-intrinsic">LLVM documentation</a>
+     *
+     * @param left the left-hand side value to be multiplied
+     * @param right the right-hand side value to be multiplied
+     * @param addend the value to be added to the product
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the result of the operation
+     */
+    public IRValue fusedMultiplyAdd(IRValue left, IRValue right, IRValue addend, String name) {
+        LLVMTypeRef type = LLVMTypeOf(checkNotNull(left, "left").handle());
+        return call(intrinsic("llvm.fma", type), new IRValue[] { left, right, addend }, name);
+    }
+
+    /**
+     * Perform a fused multiply-add operation, which computes {@code left * right + addend} with a single rounding.
+     *
+     * @param left the left-hand side value to be multiplied
+     * @param right the right-hand side value to be multiplied
+     * @param addend the value to be added to the product
+     *
+     * @return an IRValue that represents the result of the operation
+     */
+    public IRValue fusedMultiplyAdd(IRValue left, IRValue right, IRValue addend) {
+        return fusedMultiplyAdd(left, right, addend, "");
+    }
+
+    /**
+     * Convert a floating-point value to a signed integer type, rounding towards zero, through the
+     * {@code llvm.fptosi.sat} intrinsic. Values that do not fit into the integer type saturate to its minimum or
+     * maximum, and NaN converts to zero, as in a Java cast. The operand may be a floating-point scalar or vector.
+     * <br>
+     * For more information on the fptosi.sat intrinsic, see the
+     * <a href="https://llvm.org/docs/LangRef.html#llvm-fptosi-sat-intrinsic">LLVM documentation</a>
+     *
+     * @param value the value to be converted
+     * @param type the integer type of the result
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue floatToSignedSaturated(IRValue value, IRType type, String name) {
+        LLVMTypeRef source = LLVMTypeOf(checkNotNull(value, "value").handle());
+        return call(intrinsic("llvm.fptosi.sat", checkNotNull(type, "type").handle(), source), new IRValue[] { value }, name);
+    }
+
+    /**
+     * Convert a floating-point value to a signed integer type, rounding towards zero and saturating at the bounds
+     * of the integer type.
+     *
+     * @param value the value to be converted
+     * @param type the integer type of the result
+     *
+     * @return an IRValue that represents the converted value
+     */
+    public IRValue floatToSignedSaturated(IRValue value, IRType type) {
+        return floatToSignedSaturated(value, type, "");
+    }
+
+    /**
+     * Count the number of set bits of an integer value, through the {@code llvm.ctpop} intrinsic. The operand may
+     * be an integer scalar or vector.
+     * <br>
+     * For more information on the ctpop intrinsic, see the
+     * <a href="https://llvm.org/docs/LangRef.html#llvm-ctpop-intrinsic">LLVM documentation</a>
+     *
+     * @param value the integer value whose bits are counted
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the number of set bits, with the type of the value
+     */
+    public IRValue populationCount(IRValue value, String name) {
+        LLVMTypeRef type = LLVMTypeOf(checkNotNull(value, "value").handle());
+        return call(intrinsic("llvm.ctpop", type), new IRValue[] { value }, name);
+    }
+
+    /**
+     * Count the number of set bits of an integer value, through the {@code llvm.ctpop} intrinsic.
+     *
+     * @param value the integer value whose bits are counted
+     *
+     * @return an IRValue that represents the number of set bits, with the type of the value
+     */
+    public IRValue populationCount(IRValue value) {
+        return populationCount(value, "");
+    }
+
+    /**
+     * Hint the processor to prefetch the data at the specified address into the cache, through the
+     * {@code llvm.prefetch} intrinsic. The hint has no effect on the behavior of the program.
+     * <br>
+     * For more information on the prefetch intrinsic, see the
+     * <a href="https://llvm.org/docs/LangRef.html#llvm-prefetch-intrinsic">LLVM documentation</a>
+     *
+     * @param pointer the address of the data to prefetch
+     * @param write {@code true} if the data will be written, {@code false} if it will only be read
+     * @param locality the temporal locality of the data, from {@code 0} (no locality) to {@code 3} (keep in cache)
+     *
+     * @return an IRValue that represents the call of the intrinsic
+     */
+    public IRValue prefetch(IRValue pointer, boolean write, int locality) {
+        checkArgument(locality >= 0 && locality <= 3, "locality must be between 0 and 3");
+        LLVMTypeRef type = LLVMTypeOf(checkNotNull(pointer, "pointer").handle());
+        // the last operand selects the data cache rather than the instruction cache
+        return call(intrinsic("llvm.prefetch", type), new IRValue[] { pointer, indexOf(write ? 1 : 0), indexOf(locality), indexOf(1) }, "");
+    }
+
+    /**
+     * Let the optimizer assume, that the specified condition is always true, through the {@code llvm.assume}
+     * intrinsic. If the condition is false at runtime, the behavior is undefined.
+     * <br>
+     * For more information on the assume intrinsic, see the
+     * <a href="https://llvm.org/docs/LangRef.html#llvm-assume-intrinsic">LLVM documentation</a>
+     *
+     * @param condition an {@code i1} value that represents the assumed condition
+     *
+     * @return an IRValue that represents the call of the intrinsic
+     */
+    public IRValue assume(IRValue condition) {
+        return call(intrinsic("llvm.assume"), new IRValue[] { checkNotNull(condition, "condition") }, "");
+    }
+
+    /**
+     * Tell the optimizer the most probable value of an integer value, through the {@code llvm.expect} intrinsic.
+     * It is used to lay out the likely branch of a condition as the fall-through path.
+     * <br>
+     * For more information on the expect intrinsic, see the
+     * <a href="https://llvm.org/docs/LangRef.html#llvm-expect-intrinsic">LLVM documentation</a>
+     *
+     * @param value the integer value whose value is expected
+     * @param expected the constant, that is the expected value
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the value, carrying the expectation
+     */
+    public IRValue expect(IRValue value, IRValue expected, String name) {
+        LLVMTypeRef type = LLVMTypeOf(checkNotNull(value, "value").handle());
+        return call(intrinsic("llvm.expect", type), new IRValue[] { value, expected }, name);
+    }
+
+    /**
+     * Tell the optimizer the most probable value of an integer value, through the {@code llvm.expect} intrinsic.
+     *
+     * @param value the integer value whose value is expected
+     * @param expected the constant, that is the expected value
+     *
+     * @return an IRValue that represents the value, carrying the expectation
+     */
+    public IRValue expect(IRValue value, IRValue expected) {
+        return expect(value, expected, "");
+    }
+
+    /**
+     * Perform a function call instruction. It is used to call a function with the specified signature and arguments.
+     * <br>
+     * The signature parameter specifies the type of the function being called. The function parameter is an IRFunction
+     * object that represents the function to be called. The arguments parameter is a list of IRValue objects that
+     * represent the arguments to the function.
+     * <br>
+     * The name parameter is an optional name for the instruction, which can be used for debugging purposes.
+     * <br>
+     * The function returns an IRValue that represents the result of the function call. You can use this value in
+     * subsequent instructions or store it in a variable.
+     * <br>
+     * Note that the function call instruction is used to call a function with the specified signature and arguments.
+     * The function must have the same signature as the one specified in the signature parameter.
+     * <br>
+     * For more information on the call instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#call-instruction">LLVM documentation</a>
+     *
+     * @param signature the LLVM type of the function being called
+     * @param function an IRFunction object that represents the function to be called
+     * @param arguments a list of IRValue objects that represent the arguments to the function
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the result of the function call
+     */
+    public IRValue call(IRType signature, IRFunction function, List<IRValue> arguments, String name) {
+        // unwrap the handles or the function call arguments
+        int length = checkNotNull(arguments, "arguments").size();
+        PointerPointer<Pointer> args = ScratchPointers.first(length);
+        for (int i = 0; i < length; i++)
+            args.put(i, checkNotNull(arguments.get(i), "arguments.get(" + i + ")").handle());
+        // create the function call instruction
+        LLVMValueRef call = LLVMBuildCall2(handle, checkNotNull(signature, "signature").handle(), checkNotNull(function, "function").handle(), args, length, checkNotNull(name, "name"));
+        // wrap the function call instruction in an IRValue object
+        return new IRValue(call);
+    }
+
+    /**
+     * Perform a function call instruction. It is used to call a function with the specified signature and arguments.
+     * <br>
+     * The signature parameter specifies the type of the function being called. The function parameter is an IRFunction
+     * object that represents the function to be called. The arguments parameter is a list of IRValue objects that
+     * represent the arguments to the function.
+     * <br>
+     * The function returns an IRValue that represents the result of the function call. You can use this value in
+     * subsequent instructions or store it in a variable.
+     * <br>
+     * Note that the function call instruction is used to call a function with the specified signature and arguments.
+     * The function must have the same signature as the one specified in the signature parameter.
+     * <br>
+     * For more information on the call instruction, see the
+     * <a href="https://llvm.org/docs/LangRef.html#call-instruction">LLVM documentation</a>
+     *
+     * @param signature the LLVM type of the function being called
+     * @param function an IRFunction object that represents the function to be called
+     * @param arguments a list of IRValue objects that represent the arguments to the function
+     *
+     * @return an IRValue that represents the result of the function call
+     */
+    public IRValue call(IRType signature, IRFunction function, List<IRValue> arguments) {
+        return call(signature, function, arguments, "");
+    }
+
+    /**
+     * Perform a function call instruction, with the arguments specified by an array. Unlike
+     * {@link #call(IRType, IRFunction, List, String)}, the arguments do not have to be collected into a list.
+     *
+     * @param signature the LLVM type of the function being called
+     * @param function an IRFunction object that represents the function to be called
+     * @param arguments an array of IRValue objects that represent the arguments to the function
+     * @param name an optional name for the instruction (can be set to "" if not needed)
+     *
+     * @return an IRValue that represents the result of the function call
+     */
+    public IRValue call(IRType signature, IRFunction function, IRValue[] arguments, String name) {
+        // unwrap the handles or the function call arguments
+        PointerPointer<Pointer> args = ScratchPointers.first(checkNotNull(arguments, "arguments").length);
+        for (int i = 0; i < arguments.length; i++)
+            args.put(i, checkNotNull(arguments[i], "arguments[" + i + "]").handle());
+        // create the function call instruction
+        LLVMValueRef call = LLVMBuildCall2(handle, checkNotNull(signature, "signature").handle(), checkNotNull(function, "function").handle(), args, arguments.length, checkNotNull(name, "name"));
+        return new IRValue(call);
+    }
+
+    /**
+     * Perform a function call instruction, with the specified arguments.
+     *
+     * @param signature the LLVM type of the function being called
+     * @param function an IRFunction object that represents the function to be called
+     * @param arguments the IRValue objects that represent the arguments to the function
+     *
+     * @return an IRValue that represents the result of the function call
+     */
+    public IRValue call(IRType signature, IRFunction function, IRValue... arguments) {
+        return call(signature, function, arguments, "");
+    }
+
+    /**
+     * Perform a call of an intrinsic function, with the specified arguments.
+     * <br>
+     * The number of arguments is checked against the signature of the declared overload, as a mismatch would only
+     * be reported by the verifier otherwise.
+     *
+     * @param intrinsic the declaration of the intrinsic to be called
+     * @param arguments an array of IRValue objects that represent the arguments to the intrinsic
+     * @param name an optional name for the instruction (can be set to "" if not needed), which must be empty if
+     *             the intrinsic returns void
+     *
+     * @return an IRValue that represents the result of the call
+     */
+    public IRValue call(IRIntrinsic intrinsic, IRValue[] arguments, String name) {
+        checkNotNull(intrinsic, "intrinsic");
+        int parameters = intrinsic.type().parameterTypes().size();
+        checkArgument(
+            checkNotNull(arguments, "arguments").length == parameters
+                || (intrinsic.type().variadic() && arguments.length > parameters),
+            "%s expects %s arguments, got %s", intrinsic.name(), parameters, arguments.length
+        );
+        PointerPointer<Pointer> args = ScratchPointers.first(arguments.length);
+        for (int i = 0; i < arguments.length; i++)
+            args.put(i, checkNotNull(arguments[i], "arguments[" + i + "]").handle());
+        return new IRValue(LLVMBuildCall2(handle, intrinsic.type().handle(), intrinsic.handle(), args, arguments.length, checkNotNull(name, "name")));
+    }
+
+    /**
+     * Perform a call of an intrinsic function, with the specified arguments.
+     *
+     * @param intrinsic the declaration of the intrinsic to be called
+     * @param arguments the IRValue objects that represent the arguments to the intrinsic
+     *
+     * @return an IRValue that represents the result of the call
+     */
+    public IRValue call(IRIntrinsic intrinsic, IRValue... arguments) {
+        return call(intrinsic, arguments, "");
+    }
+
+    /**
+     * Declare the specified intrinsic in the module of the current insertion block.
+     *
+     * @param name the base name of the intrinsic
+     * @param overloads the handles to the overload types of the intrinsic
+     * @return the declaration of the intrinsic
+     */
+    private IRIntrinsic intrinsic(String name, LLVMTypeRef... overloads) {
+        LLVMBasicBlockRef block = LLVMGetInsertBlock(handle);
+        checkState(block != null, "builder is not positioned in a block");
+        return IRIntrinsic.declare(LLVMGetGlobalParent(LLVMGetBasicBlockParent(block)), context, name, overloads);
+    }
+
+    /**
+     * Create a constant {@code i32} index, as used by the vector instructions.
+     *
+     * @param index the value of the index
+     * @return an IRValue that represents the constant index
+     */
+    private IRValue indexOf(int index) {
+        checkArgument(index >= 0, "index must not be negative");
+        return new IRValue(LLVMConstInt(LLVMInt32TypeInContext(context.handle()), index, 0));
+    }
+
+    /**
+     * Unwrap the specified indices into the first scratch buffer of the thread.
+     *
+     * @param indices the indices to unwrap
+     * @return the scratch buffer
+     */
+    private PointerPointer<Pointer> indices(IRValue[] indices) {
+        PointerPointer<Pointer> args = ScratchPointers.first(checkNotNull(indices, "indices").length);
+        for (int i = 0; i < indices.length; i++)
+            args.put(i, checkNotNull(indices[i], "indices[" + i + "]").handle());
+        return args;
     }
 
     /**
@@ -1138,6 +2445,7 @@ public record IRBuilder(LLVMBuilderRef handle, IRContext context) implements Dis
      */
     @Override
     public void dispose() {
+        Scope.untrack(this);
         LLVMDisposeBuilder(handle);
     }
 
@@ -1148,6 +2456,6 @@ public record IRBuilder(LLVMBuilderRef handle, IRContext context) implements Dis
      * @return a new LLVM IR builder
      */
     public static IRBuilder create(IRContext context) {
-        return new IRBuilder(LLVMCreateBuilderInContext(context.handle()), context);
+        return Scope.track(new IRBuilder(LLVMCreateBuilderInContext(context.handle()), context));
     }
 }
@@ -0,0 +1,67 @@
+package org.voidlang.llvm.instruction;
+
+import org.bytedeco.javacpp.PointerPointer;
+import org.bytedeco.llvm.LLVM.LLVMBasicBlockRef;
+import org.bytedeco.llvm.LLVM.LLVMValueRef;
+import org.voidlang.llvm.module.ScratchPointers;
+import org.voidlang.llvm.value.IRValue;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a wrapper for a phi node, which selects a value depending on the predecessor block, that control
+ * came from.
+ * <br>
+ * Phi nodes are created without incoming values by {@link IRBuilder#phi(org.voidlang.llvm.type.IRType, String)},
+ * so that loop-carried values can be referenced before the back edge of the loop is emitted. Every predecessor of
+ * the block of the phi node must be added as an incoming block before the function is verified.
+ * <br>
+ * For more information on the phi instruction, see the
+ * <a href="https://llvm.org/docs/LangRef.html#phi-instruction">LLVM documentation</a>
+ */
+public class IRPhi extends IRValue {
+    public IRPhi(LLVMValueRef handle) {
+        super(handle);
+    }
+
+    /**
+     * Add an incoming value to the phi node.
+     *
+     * @param value the value of the phi node, when control comes from the block
+     * @param block the predecessor block
+     */
+    public void addIncoming(IRValue value, IRBlock block) {
+        addIncoming(new IRValue[] { checkNotNull(value, "value") }, new IRBlock[] { checkNotNull(block, "block") });
+    }
+
+    /**
+     * Add several incoming values to the phi node.
+     *
+     * @param values the values of the phi node, when control comes from the block at the same index
+     * @param blocks the predecessor blocks
+     */
+    public void addIncoming(IRValue[] values, IRBlock[] blocks) {
+        checkArgument(
+            checkNotNull(values, "values").length == checkNotNull(blocks, "blocks").length,
+            "values and blocks must have the same length"
+        );
+        PointerPointer<LLVMValueRef> incomingValues = ScratchPointers.first(values.length);
+        PointerPointer<LLVMBasicBlockRef> incomingBlocks = ScratchPointers.second(blocks.length);
+        for (int i = 0; i < values.length; i++) {
+            incomingValues.put(i, checkNotNull(values[i], "values[" + i + "]").handle());
+            incomingBlocks.put(i, checkNotNull(blocks[i], "blocks[" + i + "]").handle());
+        }
+        LLVMAddIncoming(handle, incomingValues, incomingBlocks, values.length);
+    }
+
+    /**
+     * Retrieve the number of incoming values of the phi node.
+     *
+     * @return the number of incoming values
+     */
+    public int incomingCount() {
+        return LLVMCountIncoming(handle);
+    }
+}
@@ -0,0 +1,33 @@
+package org.voidlang.llvm.instruction;
+
+import org.bytedeco.llvm.LLVM.LLVMValueRef;
+import org.voidlang.llvm.value.IRValue;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a wrapper for a switch instruction, which transfers control to one of several blocks, depending on
+ * the value of an integer.
+ * <br>
+ * Switch instructions are created with their default block only by
+ * {@link IRBuilder#switchOn(IRValue, IRBlock, int)}, and the cases are added afterwards.
+ * <br>
+ * For more information on the switch instruction, see the
+ * <a href="https://llvm.org/docs/LangRef.html#switch-instruction">LLVM documentation</a>
+ */
+public class IRSwitch extends IRValue {
+    public IRSwitch(LLVMValueRef handle) {
+        super(handle);
+    }
+
+    /**
+     * Add a case to the switch instruction.
+     *
+     * @param value the integer constant, that selects the case
+     * @param destination the block that control is transferred to, if the value matches
+     */
+    public void addCase(IRValue value, IRBlock destination) {
+        LLVMAddCase(handle, checkNotNull(value, "value").handle(), checkNotNull(destination, "destination").handle());
+    }
+}
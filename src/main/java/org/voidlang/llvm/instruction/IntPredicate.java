@@ -0,0 +1,86 @@
+package org.voidlang.llvm.instruction;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents an enumeration of the predicates of the integer and pointer comparison instruction.
+ */
+public enum IntPredicate {
+    /**
+     * `EQUAL` indicates, that the operands are equal.
+     */
+    EQUAL(LLVMIntEQ),
+
+    /**
+     * `NOT_EQUAL` indicates, that the operands are not equal.
+     */
+    NOT_EQUAL(LLVMIntNE),
+
+    /**
+     * `UNSIGNED_GREATER` indicates, that the left operand is greater than the right one, interpreted as unsigned.
+     */
+    UNSIGNED_GREATER(LLVMIntUGT),
+
+    /**
+     * `UNSIGNED_GREATER_OR_EQUAL` indicates, that the left operand is greater than or equal to the right one, interpreted as unsigned.
+     */
+    UNSIGNED_GREATER_OR_EQUAL(LLVMIntUGE),
+
+    /**
+     * `UNSIGNED_LESS` indicates, that the left operand is less than the right one, interpreted as unsigned.
+     */
+    UNSIGNED_LESS(LLVMIntULT),
+
+    /**
+     * `UNSIGNED_LESS_OR_EQUAL` indicates, that the left operand is less than or equal to the right one, interpreted as unsigned.
+     */
+    UNSIGNED_LESS_OR_EQUAL(LLVMIntULE),
+
+    /**
+     * `SIGNED_GREATER` indicates, that the left operand is greater than the right one, interpreted as signed.
+     */
+    SIGNED_GREATER(LLVMIntSGT),
+
+    /**
+     * `SIGNED_GREATER_OR_EQUAL` indicates, that the left operand is greater than or equal to the right one, interpreted as signed.
+     */
+    SIGNED_GREATER_OR_EQUAL(LLVMIntSGE),
+
+    /**
+     * `SIGNED_LESS` indicates, that the left operand is less than the right one, interpreted as signed.
+     */
+    SIGNED_LESS(LLVMIntSLT),
+
+    /**
+     * `SIGNED_LESS_OR_EQUAL` indicates, that the left operand is less than or equal to the right one, interpreted as signed.
+     */
+    SIGNED_LESS_OR_EQUAL(LLVMIntSLE);
+
+    /**
+     * The code of the predicate.
+     */
+    private final int code;
+
+    IntPredicate(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return this.code;
+    }
+
+    /**
+     * Retrieve the integer comparison predicate from the specified code.
+     *
+     * @param code the code of the predicate
+     * @return the comparison predicate, or an empty optional if the code is invalid
+     */
+    public static Optional<IntPredicate> of(int code) {
+        return Arrays.stream(values())
+            .filter(predicate -> predicate.code == code)
+            .findFirst();
+    }
+}
@@ -0,0 +1,88 @@
+package org.voidlang.llvm.instruction;
+
+/**
+ * Represents an enumeration of the horizontal reductions of a vector to a scalar, that are performed by the
+ * {@code llvm.vector.reduce.*} intrinsics.
+ * <br>
+ * The floating-point additions and multiplications, which also take a start value, are performed by
+ * {@link IRBuilder#reduceFloatAdd(IRValue, IRValue, String)} and its counterparts instead.
+ */
+public enum VectorReduction {
+    /**
+     * `ADD` indicates, that the integer elements are added.
+     */
+    ADD("llvm.vector.reduce.add"),
+
+    /**
+     * `MUL` indicates, that the integer elements are multiplied.
+     */
+    MUL("llvm.vector.reduce.mul"),
+
+    /**
+     * `AND` indicates, that the bitwise and of the integer elements is computed.
+     */
+    AND("llvm.vector.reduce.and"),
+
+    /**
+     * `OR` indicates, that the bitwise or of the integer elements is computed.
+     */
+    OR("llvm.vector.reduce.or"),
+
+    /**
+     * `XOR` indicates, that the bitwise exclusive or of the integer elements is computed.
+     */
+    XOR("llvm.vector.reduce.xor"),
+
+    /**
+     * `SIGNED_MAX` indicates, that the maximum of the signed integer elements is computed.
+     */
+    SIGNED_MAX("llvm.vector.reduce.smax"),
+
+    /**
+     * `SIGNED_MIN` indicates, that the minimum of the signed integer elements is computed.
+     */
+    SIGNED_MIN("llvm.vector.reduce.smin"),
+
+    /**
+     * `UNSIGNED_MAX` indicates, that the maximum of the unsigned integer elements is computed.
+     */
+    UNSIGNED_MAX("llvm.vector.reduce.umax"),
+
+    /**
+     * `UNSIGNED_MIN` indicates, that the minimum of the unsigned integer elements is computed.
+     */
+    UNSIGNED_MIN("llvm.vector.reduce.umin"),
+
+    /**
+     * `FLOAT_MAX` indicates, that the maximum of the floating-point elements is computed.
+     */
+    FLOAT_MAX("llvm.vector.reduce.fmax"),
+
+    /**
+     * `FLOAT_MIN` indicates, that the minimum of the floating-point elements is computed.
+     */
+    FLOAT_MIN("llvm.vector.reduce.fmin");
+
+    /**
+     * The name of the intrinsic that performs the reduction.
+     */
+    private final String intrinsic;
+
+    /**
+     * Initialize the vector reduction with the specified intrinsic.
+     *
+     * @param intrinsic the name of the intrinsic that performs the reduction
+     */
+    VectorReduction(String intrinsic) {
+        this.intrinsic = intrinsic;
+    }
+
+    /**
+     * Retrieve the name of the intrinsic that performs the reduction.
+     *
+     * @return the name of the intrinsic
+     */
+    public String intrinsic() {
+        return intrinsic;
+    }
+}
@@ -0,0 +1,23 @@
+package org.voidlang.llvm.jit;
+
+/**
+ * Represents an enumeration of the priorities of the modules submitted to a {@link CompilationService}. Modules of
+ * a higher priority are compiled before the queued modules of a lower priority, modules of the same priority are
+ * compiled in the order of their submission.
+ */
+public enum CompilationPriority {
+    /**
+     * `HIGH` indicates, that a caller is waiting for the module, e.g. to answer a request.
+     */
+    HIGH,
+
+    /**
+     * `NORMAL` indicates, that the module is needed soon, but nobody is blocked on it.
+     */
+    NORMAL,
+
+    /**
+     * `LOW` indicates, that the module is compiled speculatively, e.g. to warm up a cache.
+     */
+    LOW
+}
@@ -0,0 +1,532 @@
+package org.voidlang.llvm.jit;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.behaviour.Scope;
+import org.voidlang.llvm.error.VerificationFailureAction;
+import org.voidlang.llvm.metrics.CompilationMetrics;
+import org.voidlang.llvm.metrics.CompilationPhase;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.module.OptimizationLevel;
+import org.voidlang.llvm.target.TargetMachine;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a service that compiles modules in the background, so that the threads that need new code are not
+ * blocked by the compiler.
+ * <br>
+ * Submitted modules are queued by {@link CompilationPriority}, and compiled by a bounded number of workers on the
+ * executor of the service, which may also create a virtual thread per task. Each module is verified, optimized and
+ * compiled by the {@link OrcJit} of the service, and the returned future is completed with the compiled module.
+ * <br>
+ * The queue is bounded: {@code submit} methods block while the queue is full, {@code trySubmit} methods return a
+ * future that is already failed with a {@link RejectedExecutionException} instead.
+ */
+public class CompilationService implements Disposable {
+    /**
+     * The JIT that holds the compiled code.
+     */
+    private final OrcJit jit;
+
+    /**
+     * The options of the code generator, used for the target machine of the optimizer.
+     */
+    private final JitCompilerOptions options;
+
+    /**
+     * The options created by the service, which are disposed with it, or {@code null} if the options were provided.
+     */
+    private final JitCompilerOptions ownedOptions;
+
+    /**
+     * The optimization pipeline that is run on each module, before it is compiled.
+     */
+    private final OptimizationLevel level;
+
+    /**
+     * The executor that runs the workers of the service.
+     */
+    private final Executor executor;
+
+    /**
+     * The executor created by the service, which is shut down with it, or {@code null} if the executor was provided.
+     */
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * The maximum number of modules that are compiled at the same time.
+     */
+    private final int parallelism;
+
+    /**
+     * The free slots of the queue.
+     */
+    private final Semaphore capacity;
+
+    /**
+     * The modules that wait to be compiled.
+     */
+    private final PriorityBlockingQueue<Task> queue = new PriorityBlockingQueue<>();
+
+    /**
+     * The counter that orders the tasks of the same priority by their submission.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The number of running workers.
+     */
+    private final AtomicInteger workers = new AtomicInteger();
+
+    /**
+     * The indication, whether the service has been disposed.
+     */
+    private volatile boolean disposed;
+
+    /**
+     * Initialize the compilation service.
+     *
+     * @param jit the JIT that holds the compiled code
+     * @param options the options of the code generator
+     * @param ownedOptions the options to dispose with the service, or {@code null}
+     * @param level the optimization pipeline of each module
+     * @param executor the executor that runs the workers
+     * @param ownedExecutor the executor to shut down with the service, or {@code null}
+     * @param parallelism the maximum number of modules that are compiled at the same time
+     * @param capacity the maximum number of queued modules
+     */
+    private CompilationService(OrcJit jit, JitCompilerOptions options, JitCompilerOptions ownedOptions, OptimizationLevel level, Executor executor, ExecutorService ownedExecutor, int parallelism, int capacity) {
+        this.jit = jit;
+        this.options = options;
+        this.ownedOptions = ownedOptions;
+        this.level = level;
+        this.executor = executor;
+        this.ownedExecutor = ownedExecutor;
+        this.parallelism = parallelism;
+        this.capacity = new Semaphore(capacity);
+    }
+
+    public OrcJit jit() {
+        return this.jit;
+    }
+
+    /**
+     * Retrieve the number of modules that wait to be compiled.
+     *
+     * @return the number of queued modules
+     */
+    public int queued() {
+        return queue.size();
+    }
+
+    /**
+     * Submit the specified module to be compiled, waiting for room in the queue if it is full.
+     * <br>
+     * The module must have been created in the LLVM context of the specified thread-safe context, which must not be
+     * used by other threads until the module is compiled. The ownership of the module is transferred to the
+     * service, therefore the module must not be used or disposed after this call.
+     *
+     * @param module the module to compile
+     * @param context the thread-safe context in which the module was created
+     * @param priority the priority of the module
+     * @return the future of the compiled module
+     * @throws InterruptedException if the thread was interrupted while waiting for room in the queue
+     * @throws RejectedExecutionException if the service has been disposed
+     */
+    public CompletableFuture<CompiledModule> submit(IRModule module, ThreadSafeContext context, CompilationPriority priority) throws InterruptedException {
+        Task task = moduleTask(module, context, priority);
+        capacity.acquire();
+        return enqueue(task);
+    }
+
+    /**
+     * Submit the specified module to be compiled, if there is room in the queue.
+     * <br>
+     * The ownership of the module is transferred to the service, even if the submission is rejected.
+     *
+     * @param module the module to compile
+     * @param context the thread-safe context in which the module was created
+     * @param priority the priority of the module
+     * @return the future of the compiled module, which is failed with a {@link RejectedExecutionException}, if the
+     *         queue is full or the service has been disposed
+     */
+    public CompletableFuture<CompiledModule> trySubmit(IRModule module, ThreadSafeContext context, CompilationPriority priority) {
+        Task task = moduleTask(module, context, priority);
+        return capacity.tryAcquire() ? enqueue(task) : reject(task, "compilation queue is full");
+    }
+
+    /**
+     * Submit the specified builder callback, which creates the module to be compiled on a worker of the service,
+     * waiting for room in the queue if it is full. The module is created in a new context, that is owned by the
+     * service.
+     *
+     * @param name the name of the module, used for the compilation metrics
+     * @param builder the callback that builds the module in the specified context
+     * @param priority the priority of the module
+     * @return the future of the compiled module
+     * @throws InterruptedException if the thread was interrupted while waiting for room in the queue
+     * @throws RejectedExecutionException if the service has been disposed
+     */
+    public CompletableFuture<CompiledModule> submit(String name, Function<IRContext, IRModule> builder, CompilationPriority priority) throws InterruptedException {
+        Task task = new Task(checkNotNull(name, "name"), null, null, checkNotNull(builder, "builder"), checkNotNull(priority, "priority"), sequence.getAndIncrement());
+        capacity.acquire();
+        return enqueue(task);
+    }
+
+    /**
+     * Submit the specified builder callback, which creates the module to be compiled on a worker of the service, if
+     * there is room in the queue.
+     *
+     * @param name the name of the module, used for the compilation metrics
+     * @param builder the callback that builds the module in the specified context
+     * @param priority the priority of the module
+     * @return the future of the compiled module, which is failed with a {@link RejectedExecutionException}, if the
+     *         queue is full or the service has been disposed
+     */
+    public CompletableFuture<CompiledModule> trySubmit(String name, Function<IRContext, IRModule> builder, CompilationPriority priority) {
+        Task task = new Task(checkNotNull(name, "name"), null, null, checkNotNull(builder, "builder"), checkNotNull(priority, "priority"), sequence.getAndIncrement());
+        return capacity.tryAcquire() ? enqueue(task) : reject(task, "compilation queue is full");
+    }
+
+    /**
+     * Create the task of a submitted module, and take the ownership of the module.
+     *
+     * @param module the module to compile
+     * @param context the thread-safe context in which the module was created
+     * @param priority the priority of the module
+     * @return the task of the module
+     */
+    private Task moduleTask(IRModule module, ThreadSafeContext context, CompilationPriority priority) {
+        checkNotNull(module, "module");
+        checkNotNull(context, "context");
+        checkNotNull(priority, "priority");
+        // the module outlives the scope of the submitting thread
+        Scope.untrack(module);
+        return new Task(module.name(), module, context, null, priority, sequence.getAndIncrement());
+    }
+
+    /**
+     * Add the specified task to the queue, after a slot of the queue has been acquired for it, and start a worker
+     * if there is room for one.
+     *
+     * @param task the task to queue
+     * @return the future of the task
+     */
+    private CompletableFuture<CompiledModule> enqueue(Task task) {
+        // the queue is drained by dispose under the same lock, so no task can be queued after it has been drained
+        synchronized (this) {
+            if (disposed) {
+                capacity.release();
+                task.discard();
+                throw new RejectedExecutionException("compilation service has been disposed");
+            }
+            queue.add(task);
+        }
+        dispatch();
+        return task.future;
+    }
+
+    /**
+     * Fail the specified task, that could not be queued.
+     *
+     * @param task the rejected task
+     * @param message the reason of the rejection
+     * @return the failed future of the task
+     */
+    private CompletableFuture<CompiledModule> reject(Task task, String message) {
+        task.discard();
+        task.future.completeExceptionally(new RejectedExecutionException(message));
+        return task.future;
+    }
+
+    /**
+     * Start workers for the queued tasks, as long as the parallelism of the service allows it.
+     */
+    private void dispatch() {
+        while (!queue.isEmpty()) {
+            int active = workers.get();
+            if (active >= parallelism)
+                return;
+            if (!workers.compareAndSet(active, active + 1))
+                continue;
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // the queued tasks are failed, as no worker can be started for them
+                finishWorker();
+                Task task;
+                while ((task = queue.poll()) != null) {
+                    capacity.release();
+                    reject(task, "compilation executor rejected the worker");
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compile queued tasks, in the order of their priority, until the queue is empty.
+     */
+    private void drain() {
+        try {
+            Task task;
+            while ((task = queue.poll()) != null) {
+                capacity.release();
+                run(task);
+            }
+        } finally {
+            finishWorker();
+            // a task may have been queued after the last poll, while this worker was still counted
+            if (!queue.isEmpty() && !disposed)
+                dispatch();
+        }
+    }
+
+    /**
+     * Unregister a worker, and wake up a pending disposal when the last worker finishes.
+     */
+    private void finishWorker() {
+        if (workers.decrementAndGet() == 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Compile the module of the specified task, and complete the future of the task.
+     *
+     * @param task the task to run
+     */
+    private void run(Task task) {
+        if (task.future.isDone()) {
+            // the future has been cancelled while the task was queued
+            task.discard();
+            return;
+        }
+        try {
+            task.future.complete(compile(task));
+        } catch (Throwable e) {
+            task.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Build, verify, optimize and compile the module of the specified task.
+     *
+     * @param task the task to compile
+     * @return the compiled module
+     */
+    private CompiledModule compile(Task task) {
+        ThreadSafeContext context = task.context != null ? task.context : ThreadSafeContext.create();
+        try {
+            IRModule module = task.module;
+            if (module == null) {
+                module = CompilationMetrics.measure(task.name, CompilationPhase.IR_BUILD, "",
+                    () -> checkNotNull(task.builder.apply(context.context()), "builder returned null"));
+            }
+            try {
+                verify(module);
+                TargetMachine machine = TargetMachine.host(options);
+                try {
+                    machine.configure(module);
+                    module.optimize(level, machine);
+                } finally {
+                    machine.dispose();
+                }
+            } catch (RuntimeException e) {
+                module.dispose();
+                throw e;
+            }
+            return jit.compile(module, context);
+        } finally {
+            // the JIT keeps the context alive for the module
+            if (task.context == null)
+                context.dispose();
+        }
+    }
+
+    /**
+     * Verify the specified module.
+     *
+     * @param module the module to verify
+     * @throws IllegalArgumentException if the module is invalid
+     */
+    private static void verify(IRModule module) {
+        BytePointer error = new BytePointer();
+        try {
+            if (!module.verify(VerificationFailureAction.RETURN_STATUS, error))
+                throw new IllegalArgumentException("Module " + module.name() + " is invalid: " + error.getString());
+        } finally {
+            LLVMDisposeMessage(error);
+        }
+    }
+
+    /**
+     * Dispose of the value handle held by this object. Queued modules are discarded and their futures are
+     * cancelled, the modules that are being compiled are completed first, then the JIT is disposed, which frees the
+     * code of every compiled module, together with the compiler options that the service created itself.
+     */
+    @Override
+    public void dispose() {
+        synchronized (this) {
+            disposed = true;
+            Task task;
+            while ((task = queue.poll()) != null) {
+                capacity.release();
+                task.discard();
+                task.future.completeExceptionally(new CancellationException("compilation service has been disposed"));
+            }
+        }
+        try {
+            synchronized (this) {
+                while (workers.get() > 0)
+                    wait();
+            }
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+                while (!ownedExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // keep waiting for the workers that are still shutting down
+                }
+            }
+        } catch (InterruptedException e) {
+            // the JIT may still be in use, so it is leaked rather than disposed under running compilations
+            Thread.currentThread().interrupt();
+            return;
+        }
+        jit.dispose();
+        if (ownedOptions != null)
+            ownedOptions.dispose();
+    }
+
+    /**
+     * Create a new compilation service, that runs its workers on the specified executor.
+     *
+     * @param options the options of the code generator of the JIT
+     * @param level the optimization pipeline that is run on each module
+     * @param executor the executor that runs the workers, e.g. a virtual thread per task executor
+     * @param parallelism the maximum number of modules that are compiled at the same time
+     * @param capacity the maximum number of queued modules
+     * @return a new compilation service
+     * @throws org.voidlang.llvm.error.LLVMException if the JIT could not be created
+     */
+    public static CompilationService create(JitCompilerOptions options, OptimizationLevel level, Executor executor, int parallelism, int capacity) {
+        checkNotNull(options, "options");
+        checkNotNull(level, "level");
+        checkNotNull(executor, "executor");
+        checkArgument(parallelism > 0, "parallelism must be positive");
+        checkArgument(capacity > 0, "capacity must be positive");
+        return new CompilationService(OrcJit.create(options), options, null, level, executor, null, parallelism, capacity);
+    }
+
+    /**
+     * Create a new compilation service, that runs its workers on a pool of daemon threads of its own.
+     *
+     * @param level the optimization pipeline that is run on each module
+     * @param parallelism the number of compiler threads
+     * @param capacity the maximum number of queued modules
+     * @return a new compilation service
+     * @throws org.voidlang.llvm.error.LLVMException if the JIT could not be created
+     */
+    public static CompilationService create(OptimizationLevel level, int parallelism, int capacity) {
+        checkNotNull(level, "level");
+        checkArgument(parallelism > 0, "parallelism must be positive");
+        checkArgument(capacity > 0, "capacity must be positive");
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "llvm-compilation-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        JitCompilerOptions options = JitCompilerOptions.create();
+        OrcJit jit;
+        try {
+            jit = OrcJit.create(options);
+        } catch (RuntimeException e) {
+            options.dispose();
+            executor.shutdown();
+            throw e;
+        }
+        return new CompilationService(jit, options, options, level, executor, executor, parallelism, capacity);
+    }
+
+    /**
+     * Represents a module that waits to be compiled.
+     */
+    private static final class Task implements Comparable<Task> {
+        /**
+         * The name of the module.
+         */
+        private final String name;
+
+        /**
+         * The submitted module, or {@code null} if the module is created by the builder.
+         */
+        private final IRModule module;
+
+        /**
+         * The thread-safe context of the submitted module, or {@code null} if the module is created by the builder.
+         */
+        private final ThreadSafeContext context;
+
+        /**
+         * The callback that creates the module, or {@code null} if the module was submitted.
+         */
+        private final Function<IRContext, IRModule> builder;
+
+        /**
+         * The priority of the module.
+         */
+        private final CompilationPriority priority;
+
+        /**
+         * The submission order of the module.
+         */
+        private final long sequence;
+
+        /**
+         * The future of the compiled module.
+         */
+        private final CompletableFuture<CompiledModule> future = new CompletableFuture<>();
+
+        private Task(String name, IRModule module, ThreadSafeContext context, Function<IRContext, IRModule> builder, CompilationPriority priority, long sequence) {
+            this.name = name;
+            this.module = module;
+            this.context = context;
+            this.builder = builder;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Dispose of the submitted module of the task, which is not going to be compiled.
+         */
+        private void discard() {
+            if (module != null)
+                module.dispose();
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int order = priority.compareTo(other.priority);
+            return order != 0 ? order : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.voidlang.llvm.jit;
+
+import org.voidlang.llvm.metrics.ModuleMetrics;
+
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a module that has been compiled to native code by the {@link OrcJit}.
+ *
+ * @param name the name of the module
+ * @param functions the compiled functions of the module that are visible outside the module, mapped by name
+ * @param metrics the timings of the compilation phases of the module, when it was compiled
+ */
+public record CompiledModule(String name, Map<String, NativeFunction> functions, ModuleMetrics metrics) {
+    /**
+     * Initialize the compiled module with the specified name, functions and metrics.
+     *
+     * @param name the name of the module
+     * @param functions the compiled functions of the module, mapped by name
+     * @param metrics the timings of the compilation phases of the module
+     */
+    public CompiledModule {
+        checkNotNull(name, "name");
+        functions = Map.copyOf(checkNotNull(functions, "functions"));
+        checkNotNull(metrics, "metrics");
+    }
+
+    /**
+     * Retrieve the compiled function with the specified name.
+     *
+     * @param name the name of the function
+     * @return the compiled function
+     * @throws IllegalArgumentException if the module does not define an externally visible function with that name
+     */
+    public NativeFunction function(String name) {
+        NativeFunction function = functions.get(checkNotNull(name, "name"));
+        checkArgument(function != null, "Module %s does not define function %s", this.name, name);
+        return function;
+    }
+}
@@ -0,0 +1,231 @@
+package org.voidlang.llvm.jit;
+
+import org.voidlang.llvm.jit.Invocable.PointerLongToDoubleFunction;
+import org.voidlang.llvm.jit.Invocable.PointerLongToLongFunction;
+import org.voidlang.llvm.jit.Invocable.PointerPointerLongConsumer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a utility class that creates the typed invokers of {@link Invocable}, whose downcall handle is a
+ * constant to the JIT compiler of the JVM.
+ * <br>
+ * Each invoker is an instance of its own hidden class, which is defined from one of the templates of this class,
+ * with the downcall handle as its class data. The template stores the handle in a {@code static final} field, so
+ * the JVM can inline the handle into every call of the invoker, like a handle that the caller stores in a
+ * {@code static final} field itself, even if the invoker is kept in an ordinary field. The hidden classes are
+ * unloaded, when their invokers are no longer reachable.
+ */
+final class ConstantInvokers {
+    /**
+     * The templates of the invokers, mapped by the functional interface they implement.
+     */
+    private static final Map<Class<?>, Class<?>> templates = Map.of(
+        LongUnaryOperator.class, LongUnary.class,
+        LongBinaryOperator.class, LongBinary.class,
+        DoubleUnaryOperator.class, DoubleUnary.class,
+        DoubleBinaryOperator.class, DoubleBinary.class,
+        PointerLongToLongFunction.class, PointerLongToLong.class,
+        PointerLongToDoubleFunction.class, PointerLongToDouble.class,
+        PointerPointerLongConsumer.class, PointerPointerLong.class
+    );
+
+    /**
+     * The class files of the templates, that have been read already.
+     */
+    private static final Map<Class<?>, byte[]> classFiles = new ConcurrentHashMap<>();
+
+    /**
+     * Create an invoker of the specified functional interface, that calls the specified downcall handle.
+     *
+     * @param shape the functional interface of the invoker
+     * @param handle the downcall handle, whose type matches the method of the interface
+     * @param <T> the type of the invoker
+     * @return a new invoker
+     */
+    static <T> T bind(Class<T> shape, MethodHandle handle) {
+        Class<?> template = templates.get(checkNotNull(shape, "shape"));
+        checkArgument(template != null, "No invoker template for %s", shape.getName());
+        checkNotNull(handle, "handle");
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClassWithClassData(
+                classFiles.computeIfAbsent(template, ConstantInvokers::read), handle, true
+            );
+            return shape.cast(lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke());
+        } catch (Throwable throwable) {
+            throw rethrow(throwable);
+        }
+    }
+
+    /**
+     * Retrieve the downcall handle of an invoker class, which is the class data of the hidden class.
+     *
+     * @param lookup the lookup of the invoker class
+     * @return the downcall handle, or {@code null} if the class is a template, that is not bound to a handle
+     */
+    static MethodHandle handle(MethodHandles.Lookup lookup) {
+        try {
+            return MethodHandles.classData(lookup, ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Convert a throwable raised by a downcall handle to an unchecked exception.
+     *
+     * @param throwable the throwable to convert
+     * @return the unchecked exception to throw
+     */
+    static RuntimeException rethrow(Throwable throwable) {
+        if (throwable instanceof RuntimeException exception)
+            return exception;
+        if (throwable instanceof Error error)
+            throw error;
+        return new IllegalStateException(throwable);
+    }
+
+    /**
+     * Read the class file of the specified template.
+     *
+     * @param template the template class
+     * @return the bytes of the class file
+     */
+    private static byte[] read(Class<?> template) {
+        String name = template.getName();
+        try (InputStream stream = template.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+            if (stream == null)
+                throw new IllegalStateException("Class file not found: " + name);
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Represents the template of the invokers of type {@code (i64) -> i64}.
+     */
+    static final class LongUnary implements LongUnaryOperator {
+        private static final MethodHandle HANDLE = handle(MethodHandles.lookup());
+
+        @Override
+        public long applyAsLong(long value) {
+            try {
+                return (long) HANDLE.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw rethrow(throwable);
+            }
+        }
+    }
+
+    /**
+     * Represents the template of the invokers of type {@code (i64, i64) -> i64}.
+     */
+    static final class LongBinary implements LongBinaryOperator {
+        private static final MethodHandle HANDLE = handle(MethodHandles.lookup());
+
+        @Override
+        public long applyAsLong(long left, long right) {
+            try {
+                return (long) HANDLE.invokeExact(left, right);
+            } catch (Throwable throwable) {
+                throw rethrow(throwable);
+            }
+        }
+    }
+
+    /**
+     * Represents the template of the invokers of type {@code (double) -> double}.
+     */
+    static final class DoubleUnary implements DoubleUnaryOperator {
+        private static final MethodHandle HANDLE = handle(MethodHandles.lookup());
+
+        @Override
+        public double applyAsDouble(double value) {
+            try {
+                return (double) HANDLE.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw rethrow(throwable);
+            }
+        }
+    }
+
+    /**
+     * Represents the template of the invokers of type {@code (double, double) -> double}.
+     */
+    static final class DoubleBinary implements DoubleBinaryOperator {
+        private static final MethodHandle HANDLE = handle(MethodHandles.lookup());
+
+        @Override
+        public double applyAsDouble(double left, double right) {
+            try {
+                return (double) HANDLE.invokeExact(left, right);
+            } catch (Throwable throwable) {
+                throw rethrow(throwable);
+            }
+        }
+    }
+
+    /**
+     * Represents the template of the invokers of type {@code (ptr, i64) -> i64}.
+     */
+    static final class PointerLongToLong implements PointerLongToLongFunction {
+        private static final MethodHandle HANDLE = handle(MethodHandles.lookup());
+
+        @Override
+        public long applyAsLong(long pointer, long value) {
+            try {
+                return (long) HANDLE.invokeExact(pointer, value);
+            } catch (Throwable throwable) {
+                throw rethrow(throwable);
+            }
+        }
+    }
+
+    /**
+     * Represents the template of the invokers of type {@code (ptr, i64) -> double}.
+     */
+    static final class PointerLongToDouble implements PointerLongToDoubleFunction {
+        private static final MethodHandle HANDLE = handle(MethodHandles.lookup());
+
+        @Override
+        public double applyAsDouble(long pointer, long value) {
+            try {
+                return (double) HANDLE.invokeExact(pointer, value);
+            } catch (Throwable throwable) {
+                throw rethrow(throwable);
+            }
+        }
+    }
+
+    /**
+     * Represents the template of the invokers of type {@code (ptr, ptr, i64) -> void}.
+     */
+    static final class PointerPointerLong implements PointerPointerLongConsumer {
+        private static final MethodHandle HANDLE = handle(MethodHandles.lookup());
+
+        @Override
+        public void accept(long first, long second, long value) {
+            try {
+                HANDLE.invokeExact(first, second, value);
+            } catch (Throwable throwable) {
+                throw rethrow(throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.voidlang.llvm.jit;
+
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a pool of worker threads, each of which owns its own {@link ThreadSafeContext}.
+ * <br>
+ * LLVM contexts are not thread-safe, so IR generation for a single context is inherently serial. The pool gives
+ * every worker a context that no other thread uses, so independent modules can be built, optimized and compiled
+ * on all cores at the same time, and then handed to a shared {@link OrcJit}.
+ * <br>
+ * Modules compiled through the pool are compiled eagerly on their worker thread, so the JIT never compiles code of a
+ * worker context on another thread while the worker is building new IR in it.
+ */
+public class ContextPool implements Disposable {
+    /**
+     * The worker threads of the pool.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The context owned by the current worker thread.
+     */
+    private final ThreadLocal<ThreadSafeContext> context;
+
+    /**
+     * The contexts of every worker thread, which are disposed with the pool.
+     */
+    private final Queue<ThreadSafeContext> contexts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Initialize the context pool with the specified number of worker threads.
+     *
+     * @param threads the number of worker threads
+     */
+    private ContextPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "llvm-context-pool-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.context = ThreadLocal.withInitial(() -> {
+            ThreadSafeContext context = ThreadSafeContext.create();
+            contexts.add(context);
+            return context;
+        });
+    }
+
+    /**
+     * Run the specified task on a worker thread, with the context owned by that worker.
+     * <br>
+     * The task must not let any value of the context escape to another thread, unless the value is no longer used
+     * by the task.
+     *
+     * @param task the task to run
+     * @param <T> the type of the task result
+     * @return a future that completes with the result of the task
+     */
+    public <T> CompletableFuture<T> submit(Function<ThreadSafeContext, T> task) {
+        checkNotNull(task, "task");
+        return CompletableFuture.supplyAsync(() -> task.apply(context.get()), executor);
+    }
+
+    /**
+     * Build a module with the specified builder on a worker thread, and compile it with the specified JIT on the
+     * same thread.
+     * <br>
+     * The builder receives the context owned by the worker, and is responsible for generating and, optionally,
+     * optimizing the module.
+     *
+     * @param jit the JIT that compiles the module
+     * @param builder the function that builds the module in the specified context
+     * @return a future that completes with the compiled module
+     */
+    public CompletableFuture<CompiledModule> compile(OrcJit jit, Function<IRContext, IRModule> builder) {
+        checkNotNull(jit, "jit");
+        checkNotNull(builder, "builder");
+        return submit(context -> jit.compile(checkNotNull(builder.apply(context.context()), "module"), context));
+    }
+
+    /**
+     * Build and compile the modules of the specified builders in parallel, and wait for all of them to complete.
+     *
+     * @param jit the JIT that compiles the modules
+     * @param builders the functions that build the modules
+     * @return the compiled modules, in the order of the builders
+     * @throws java.util.concurrent.CompletionException if any of the modules could not be built or compiled
+     */
+    public List<CompiledModule> compileAll(OrcJit jit, List<Function<IRContext, IRModule>> builders) {
+        List<CompletableFuture<CompiledModule>> futures = checkNotNull(builders, "builders").stream()
+            .map(builder -> compile(jit, builder))
+            .toList();
+        return futures.stream()
+            .map(CompletableFuture::join)
+            .toList();
+    }
+
+    /**
+     * Dispose of the value handle held by this object. Pending tasks are completed first, then the contexts of the
+     * worker threads are disposed.
+     */
+    @Override
+    public void dispose() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for the tasks that are still running on the contexts
+            }
+        } catch (InterruptedException e) {
+            // the contexts may still be in use, so they are leaked rather than disposed under running tasks
+            Thread.currentThread().interrupt();
+            return;
+        }
+        ThreadSafeContext context;
+        while ((context = contexts.poll()) != null)
+            context.dispose();
+    }
+
+    /**
+     * Create a new context pool with the specified number of worker threads.
+     *
+     * @param threads the number of worker threads
+     * @return a new context pool
+     */
+    public static ContextPool create(int threads) {
+        checkArgument(threads > 0, "threads must be positive");
+        return new ContextPool(threads);
+    }
+
+    /**
+     * Create a new context pool with a worker thread for each available processor.
+     *
+     * @return a new context pool
+     */
+    public static ContextPool create() {
+        return create(Runtime.getRuntime().availableProcessors());
+    }
+}
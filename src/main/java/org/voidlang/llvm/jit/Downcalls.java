@@ -0,0 +1,102 @@
+package org.voidlang.llvm.jit;
+
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.type.IRType;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a utility class that creates foreign function downcall handles for JIT compiled functions, based on
+ * their {@link IRFunctionType}.
+ * <br>
+ * LLVM types are mapped to the Java carriers as follows: {@code i1} to {@code boolean}, {@code i8} to {@code byte},
+ * {@code i16} to {@code short}, {@code i32} to {@code int}, {@code i64} to {@code long}, {@code float} and
+ * {@code double} to their Java counterparts, and pointers to {@code long}, holding the raw address of the pointer.
+ * <br>
+ * Creating a downcall handle requires the linker to spin a specialized stub, therefore the address-independent
+ * handles are cached per function descriptor, and only bound to the address of each function.
+ */
+public class Downcalls {
+    /**
+     * The cache of the downcall handles, that take the address of the called function as their first argument.
+     */
+    private static final Map<FunctionDescriptor, MethodHandle> handles = new ConcurrentHashMap<>();
+
+    /**
+     * Create a function descriptor that describes the native calling signature of the specified function type.
+     *
+     * @param type the type signature of the function
+     * @return a new function descriptor
+     * @throws IllegalArgumentException if the function type is variadic, or it has a parameter or return type
+     * that cannot be passed by value between Java and native code
+     */
+    public static FunctionDescriptor descriptorOf(IRFunctionType type) {
+        checkArgument(!checkNotNull(type, "type").variadic(), "Variadic functions are not supported");
+        List<IRType> parameterTypes = type.parameterTypes();
+        MemoryLayout[] parameterLayouts = new MemoryLayout[parameterTypes.size()];
+        for (int i = 0; i < parameterLayouts.length; i++)
+            parameterLayouts[i] = layoutOf(parameterTypes.get(i));
+        // void functions have no return layout
+        if (LLVMGetTypeKind(type.returnType().handle()) == LLVMVoidTypeKind)
+            return FunctionDescriptor.ofVoid(parameterLayouts);
+        return FunctionDescriptor.of(layoutOf(type.returnType()), parameterLayouts);
+    }
+
+    /**
+     * Retrieve a downcall handle that calls the function at the specified address. The type of the returned handle
+     * is derived from {@link #descriptorOf(IRFunctionType)}, so it can be invoked with
+     * {@link MethodHandle#invokeExact(Object...)}.
+     *
+     * @param address the address of the compiled function
+     * @param type the type signature of the function
+     * @return a downcall handle bound to the function
+     * @throws IllegalArgumentException if the function type cannot be described by a function descriptor
+     */
+    public static MethodHandle downcall(long address, IRFunctionType type) {
+        checkArgument(address != 0, "address must not be 0");
+        MethodHandle handle = handles.computeIfAbsent(
+            descriptorOf(type), descriptor -> Linker.nativeLinker().downcallHandle(descriptor)
+        );
+        return MethodHandles.insertArguments(handle, 0, MemorySegment.ofAddress(address));
+    }
+
+    /**
+     * Retrieve the value layout that passes a value of the specified LLVM type.
+     *
+     * @param type the LLVM type of the value
+     * @return the value layout of the type
+     * @throws IllegalArgumentException if the type cannot be passed by value
+     */
+    private static MemoryLayout layoutOf(IRType type) {
+        int kind = LLVMGetTypeKind(type.handle());
+        if (kind == LLVMPointerTypeKind)
+            return JAVA_LONG;
+        if (kind == LLVMDoubleTypeKind)
+            return JAVA_DOUBLE;
+        if (kind == LLVMFloatTypeKind)
+            return JAVA_FLOAT;
+        checkArgument(kind == LLVMIntegerTypeKind, "Unsupported type kind: %s", kind);
+        int width = LLVMGetIntTypeWidth(type.handle());
+        return switch (width) {
+            case 1 -> JAVA_BOOLEAN;
+            case 8 -> JAVA_BYTE;
+            case 16 -> JAVA_SHORT;
+            case 32 -> JAVA_INT;
+            case 64 -> JAVA_LONG;
+            default -> throw new IllegalArgumentException("Unsupported integer width: " + width);
+        };
+    }
+}
@@ -4,7 +4,10 @@ import org.bytedeco.javacpp.BytePointer;
 import org.bytedeco.javacpp.PointerPointer;
 import org.bytedeco.llvm.LLVM.LLVMExecutionEngineRef;
 import org.bytedeco.llvm.LLVM.LLVMGenericValueRef;
+import org.bytedeco.llvm.LLVM.LLVMModuleRef;
 import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.behaviour.Scope;
+import org.voidlang.llvm.error.LLVMException;
 import org.voidlang.llvm.module.IRModule;
 import org.voidlang.llvm.value.IRFunction;
 
@@ -33,11 +36,39 @@ public record ExecutionEngine(LLVMExecutionEngineRef handle) implements Disposab
         for (int i = 0; i < argsLength; i++)
             args.put(i, checkNotNull(arguments.get(i), "arguments.get(" + i + ")").handle());
         // run the function and return the result
-        return new IRGenericValue(LLVMRunFunction(handle, function.handle(), argsLength, args));
+        return Scope.track(new IRGenericValue(LLVMRunFunction(handle, function.handle(), argsLength, args)));
+    }
+
+    /**
+     * Retrieve the address of the compiled code of the specified function. The module of the function is
+     * finalized, if it has not been finalized yet.
+     *
+     * @param function the function to resolve
+     * @return the address of the function, or {@code 0} if the function was not found
+     */
+    public long functionAddress(IRFunction function) {
+        return LLVMGetFunctionAddress(handle, checkNotNull(function, "function").name());
+    }
+
+    /**
+     * Resolve the compiled code of the specified function, which can be called directly through the invokers of
+     * the returned native function, instead of {@link #runFunction(IRFunction, List)}.
+     *
+     * @param function the function to resolve
+     * @return the native function
+     * @throws IllegalArgumentException if the function was not found
+     */
+    public NativeFunction nativeFunction(IRFunction function) {
+        long address = functionAddress(function);
+        return new NativeFunction(function.name(), address, function.type());
     }
 
     /**
      * Create a new LLVM Just-In-Time (JIT) compiler for the specified module with the specified options.
+     * <br>
+     * MCJIT does not pass a CPU to its target machine, so the functions of the module are tuned for the CPU of the
+     * options by their {@code target-cpu} and {@code target-features} attributes instead. Functions that specify
+     * either attribute already keep their own CPU.
      *
      * @param module the module to compile
      * @param options the options to use for the compiler
@@ -45,7 +76,52 @@ public record ExecutionEngine(LLVMExecutionEngineRef handle) implements Disposab
      * @return {@code true} if the compiler was created successfully, otherwise {@code false}
      */
     public boolean createMCJITCompilerForModule(IRModule module, JitCompilerOptions options, BytePointer error) {
-        return LLVMCreateMCJITCompilerForModule(handle, checkNotNull(module, "module").handle(), checkNotNull(options, "options").handle(), options.handle().sizeof(), error) == 0;
+        checkNotNull(options, "options").cpu().apply(checkNotNull(module, "module"));
+        boolean created = LLVMCreateMCJITCompilerForModule(handle, checkNotNull(module, "module").handle(), checkNotNull(options, "options").handle(), options.handle().sizeof(), error) == 0;
+        // the engine takes the ownership of the module, which is disposed with the engine, and the engine is only
+        // owned by the current scope once it has been created
+        if (created) {
+            Scope.untrack(module);
+            Scope.track(this);
+        }
+        return created;
+    }
+
+    /**
+     * Add the specified module to the execution engine. The ownership of the module is transferred to the engine,
+     * therefore the module must not be used or disposed after this call, unless it is removed again.
+     *
+     * @param module the module to add
+     */
+    public void addModule(IRModule module) {
+        LLVMAddModule(handle, checkNotNull(module, "module").handle());
+        Scope.untrack(module);
+    }
+
+    /**
+     * Remove the specified module from the execution engine, and return its ownership to the caller, who must
+     * dispose it. The functions of the module can no longer be resolved afterward.
+     * <br>
+     * MCJIT keeps the code and data of the module in its memory manager until the engine is disposed, so removing
+     * a module does not reclaim its executable memory. Use an {@link OrcJit} with a {@link ResourceTracker} for
+     * short-lived code instead.
+     *
+     * @param module the module to remove
+     * @return the removed module
+     * @throws LLVMException if the module could not be removed
+     */
+    public IRModule removeModule(IRModule module) {
+        checkNotNull(module, "module");
+        LLVMModuleRef removed = new LLVMModuleRef();
+        BytePointer error = new BytePointer();
+        try {
+            if (LLVMRemoveModule(handle, module.handle(), removed, error) != 0)
+                throw new LLVMException("Could not remove module " + module.name() + ": " + error.getString());
+        } finally {
+            if (!error.isNull())
+                LLVMDisposeMessage(error);
+        }
+        return Scope.track(new IRModule(removed, module.context(), module.name()));
     }
 
     /**
@@ -53,11 +129,13 @@ public record ExecutionEngine(LLVMExecutionEngineRef handle) implements Disposab
      */
     @Override
     public void dispose() {
+        Scope.untrack(this);
         LLVMDisposeExecutionEngine(handle);
     }
 
     /**
-     * Create a new LLVM execution engine.
+     * Create a new LLVM execution engine. The engine is registered with the current {@link Scope}, once a compiler
+     * has been created for it by {@link #createMCJITCompilerForModule(IRModule, JitCompilerOptions, BytePointer)}.
      *
      * @return the new LLVM execution engine
      */
@@ -3,6 +3,7 @@ package org.voidlang.llvm.jit;
 import org.bytedeco.javacpp.Pointer;
 import org.bytedeco.llvm.LLVM.LLVMGenericValueRef;
 import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.behaviour.Scope;
 import org.voidlang.llvm.type.IRType;
 
 import static org.bytedeco.llvm.global.LLVM.*;
@@ -57,6 +58,7 @@ public record IRGenericValue(LLVMGenericValueRef handle) implements Disposable {
      */
     @Override
     public void dispose() {
+        Scope.untrack(this);
         LLVMDisposeGenericValue(handle);
     }
 
@@ -69,7 +71,7 @@ public record IRGenericValue(LLVMGenericValueRef handle) implements Disposable {
      * @return the generic value
      */
     public static IRGenericValue ofInt(IRType type, int value, boolean signed) {
-        return new IRGenericValue(LLVMCreateGenericValueOfInt(checkNotNull(type, "type").handle(), value, signed ? 1 : 0));
+        return Scope.track(new IRGenericValue(LLVMCreateGenericValueOfInt(checkNotNull(type, "type").handle(), value, signed ? 1 : 0)));
     }
 
     /**
@@ -80,7 +82,7 @@ public record IRGenericValue(LLVMGenericValueRef handle) implements Disposable {
      * @return the generic value
      */
     public static IRGenericValue ofFloat(IRType type, double value) {
-        return new IRGenericValue(LLVMCreateGenericValueOfFloat(checkNotNull(type, "type").handle(), value));
+        return Scope.track(new IRGenericValue(LLVMCreateGenericValueOfFloat(checkNotNull(type, "type").handle(), value)));
     }
 
     /**
@@ -90,6 +92,6 @@ public record IRGenericValue(LLVMGenericValueRef handle) implements Disposable {
      * @return the generic value
      */
     public static IRGenericValue ofPointer(Pointer value) {
-        return new IRGenericValue(LLVMCreateGenericValueOfPointer(checkNotNull(value, "value")));
+        return Scope.track(new IRGenericValue(LLVMCreateGenericValueOfPointer(checkNotNull(value, "value"))));
     }
 }
@@ -0,0 +1,214 @@
+package org.voidlang.llvm.jit;
+
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.type.IRType;
+
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Represents a JIT compiled function that can be called from Java through a downcall handle.
+ * <br>
+ * The typed invokers returned by this interface are meant to be created once and reused. They call the native code
+ * with primitive arguments, so a call does not allocate any memory. Each invoker holds its downcall handle in a
+ * {@code static final} field of its own hidden class, so the JIT compiler of the JVM treats the handle as a constant
+ * and can inline the native call.
+ * <br>
+ * Code that calls the {@link #handle() handle} directly should follow the same pattern, and keep the handle in a
+ * {@code static final} field:
+ * <pre>{@code
+ * private static final MethodHandle ADD = jit.nativeFunction(add).handle();
+ *
+ * long sum = (long) ADD.invokeExact(1L, 2L);
+ * }</pre>
+ * A handle kept in an instance field or a local variable is not a constant, and its calls cannot be inlined. Pointer parameters are passed as raw addresses,
+ * such as the ones returned by {@link org.bytedeco.javacpp.Pointer#address()}, which requires the host to have
+ * 64-bit pointers.
+ */
+public interface Invocable {
+    /**
+     * Retrieve the name of the function.
+     *
+     * @return the name of the function
+     */
+    String name();
+
+    /**
+     * Retrieve the type signature of the function.
+     *
+     * @return the type signature of the function
+     */
+    IRFunctionType type();
+
+    /**
+     * Retrieve a downcall handle that calls the function, whose type is derived from the signature of the function
+     * by {@link Downcalls#descriptorOf(IRFunctionType)}.
+     *
+     * @return a downcall handle that calls the function
+     * @throws IllegalArgumentException if the signature of the function cannot be called from Java
+     */
+    MethodHandle handle();
+
+    /**
+     * Create an invoker for a function of type {@code (i64) -> i64}.
+     *
+     * @return a new invoker for the function
+     * @throws IllegalArgumentException if the function does not have the requested type
+     */
+    default LongUnaryOperator asLongUnaryOperator() {
+        return ConstantInvokers.bind(LongUnaryOperator.class, downcall(JAVA_LONG, JAVA_LONG));
+    }
+
+    /**
+     * Create an invoker for a function of type {@code (i64, i64) -> i64}.
+     *
+     * @return a new invoker for the function
+     * @throws IllegalArgumentException if the function does not have the requested type
+     */
+    default LongBinaryOperator asLongBinaryOperator() {
+        return ConstantInvokers.bind(LongBinaryOperator.class, downcall(JAVA_LONG, JAVA_LONG, JAVA_LONG));
+    }
+
+    /**
+     * Create an invoker for a function of type {@code (double) -> double}.
+     *
+     * @return a new invoker for the function
+     * @throws IllegalArgumentException if the function does not have the requested type
+     */
+    default DoubleUnaryOperator asDoubleUnaryOperator() {
+        return ConstantInvokers.bind(DoubleUnaryOperator.class, downcall(JAVA_DOUBLE, JAVA_DOUBLE));
+    }
+
+    /**
+     * Create an invoker for a function of type {@code (double, double) -> double}.
+     *
+     * @return a new invoker for the function
+     * @throws IllegalArgumentException if the function does not have the requested type
+     */
+    default DoubleBinaryOperator asDoubleBinaryOperator() {
+        return ConstantInvokers.bind(DoubleBinaryOperator.class, downcall(JAVA_DOUBLE, JAVA_DOUBLE, JAVA_DOUBLE));
+    }
+
+    /**
+     * Create an invoker for a function of type {@code (ptr, i64) -> i64}.
+     *
+     * @return a new invoker for the function
+     * @throws IllegalArgumentException if the function does not have the requested type
+     */
+    default PointerLongToLongFunction asPointerLongToLongFunction() {
+        return ConstantInvokers.bind(PointerLongToLongFunction.class, downcall(JAVA_LONG, ADDRESS, JAVA_LONG));
+    }
+
+    /**
+     * Create an invoker for a function of type {@code (ptr, i64) -> double}.
+     *
+     * @return a new invoker for the function
+     * @throws IllegalArgumentException if the function does not have the requested type
+     */
+    default PointerLongToDoubleFunction asPointerLongToDoubleFunction() {
+        return ConstantInvokers.bind(PointerLongToDoubleFunction.class, downcall(JAVA_DOUBLE, ADDRESS, JAVA_LONG));
+    }
+
+    /**
+     * Create an invoker for a function of type {@code (ptr, ptr, i64) -> void}.
+     *
+     * @return a new invoker for the function
+     * @throws IllegalArgumentException if the function does not have the requested type
+     */
+    default PointerPointerLongConsumer asPointerPointerLongConsumer() {
+        return ConstantInvokers.bind(PointerPointerLongConsumer.class, downcall(null, ADDRESS, ADDRESS, JAVA_LONG));
+    }
+
+    /**
+     * Retrieve a downcall handle for the function, after checking that its type matches the specified layouts.
+     * <br>
+     * The {@link ValueLayout#ADDRESS} layout denotes a pointer parameter, which is passed as a raw address.
+     *
+     * @param returnLayout the layout of the return value, or {@code null} for {@code void}
+     * @param parameterLayouts the layouts of the parameters
+     * @return a new downcall handle
+     */
+    private MethodHandle downcall(ValueLayout returnLayout, ValueLayout... parameterLayouts) {
+        // check that the shape of the invoker matches the signature of the function
+        IRFunctionType type = type();
+        List<IRType> parameterTypes = type.parameterTypes();
+        boolean matches = !type.variadic() && parameterTypes.size() == parameterLayouts.length
+            && matches(type.returnType(), returnLayout);
+        for (int i = 0; matches && i < parameterLayouts.length; i++)
+            matches = matches(parameterTypes.get(i), parameterLayouts[i]);
+        checkArgument(matches, "Function %s does not match the requested invoker type", name());
+        return handle();
+    }
+
+    /**
+     * Check whether the specified LLVM type corresponds to the specified value layout.
+     *
+     * @param type the LLVM type to check
+     * @param layout the value layout, or {@code null} for {@code void}
+     * @return {@code true} if the type matches the layout, {@code false} otherwise
+     */
+    private static boolean matches(IRType type, ValueLayout layout) {
+        int kind = LLVMGetTypeKind(type.handle());
+        if (layout == null)
+            return kind == LLVMVoidTypeKind;
+        if (layout == ADDRESS)
+            return kind == LLVMPointerTypeKind;
+        if (layout == JAVA_DOUBLE)
+            return kind == LLVMDoubleTypeKind;
+        return layout == JAVA_LONG && kind == LLVMIntegerTypeKind && LLVMGetIntTypeWidth(type.handle()) == 64;
+    }
+
+    /**
+     * Represents an invoker for a native function of type {@code (ptr, i64) -> i64}.
+     */
+    @FunctionalInterface
+    interface PointerLongToLongFunction {
+        /**
+         * Call the native function with the specified arguments.
+         *
+         * @param pointer the address passed as the first argument
+         * @param value the value passed as the second argument
+         * @return the result of the function
+         */
+        long applyAsLong(long pointer, long value);
+    }
+
+    /**
+     * Represents an invoker for a native function of type {@code (ptr, i64) -> double}.
+     */
+    @FunctionalInterface
+    interface PointerLongToDoubleFunction {
+        /**
+         * Call the native function with the specified arguments.
+         *
+         * @param pointer the address passed as the first argument
+         * @param value the value passed as the second argument
+         * @return the result of the function
+         */
+        double applyAsDouble(long pointer, long value);
+    }
+
+    /**
+     * Represents an invoker for a native function of type {@code (ptr, ptr, i64) -> void}.
+     */
+    @FunctionalInterface
+    interface PointerPointerLongConsumer {
+        /**
+         * Call the native function with the specified arguments.
+         *
+         * @param first the address passed as the first argument
+         * @param second the address passed as the second argument
+         * @param value the value passed as the third argument
+         */
+        void accept(long first, long second, long value);
+    }
+}
@@ -1,13 +1,42 @@
 package org.voidlang.llvm.jit;
 
 import org.bytedeco.llvm.LLVM.LLVMMCJITCompilerOptions;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.target.TargetCpu;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Represents a wrapper for the options of an LLVM Just-In-Time (JIT) compiler.
+ * <br>
+ * Code is generated for the {@link TargetCpu#host() host} CPU by default. The CPU should be overridden with a
+ * {@link TargetCpu#generic() generic} or an explicitly named CPU, when the compiled code is stored in an
+ * {@link ObjectCache} that is shared between machines.
  *
  * @param handle the handle to the LLVM JIT compiler options
+ * @param cpu the CPU that the JIT compiler generates code for
  */
-public record JitCompilerOptions(LLVMMCJITCompilerOptions handle) {
+public record JitCompilerOptions(LLVMMCJITCompilerOptions handle, TargetCpu cpu) implements Disposable {
+    /**
+     * Initialize the options with the specified handle and target CPU.
+     *
+     * @param handle the handle to the LLVM JIT compiler options
+     * @param cpu the CPU that the JIT compiler generates code for
+     */
+    public JitCompilerOptions {
+        checkNotNull(handle, "handle");
+        checkNotNull(cpu, "cpu");
+    }
+
+    /**
+     * Initialize the options with the specified handle, that generate code for the host CPU.
+     *
+     * @param handle the handle to the LLVM JIT compiler options
+     */
+    public JitCompilerOptions(LLVMMCJITCompilerOptions handle) {
+        this(handle, TargetCpu.host());
+    }
+
     /**
      * Update the optimization level of the JIT compiler.
      *
@@ -81,11 +110,30 @@ public record JitCompilerOptions(LLVMMCJITCompilerOptions handle) {
     }
 
     /**
-     * Create a new instance of the JIT compiler options.
+     * Dispose of the native memory of the options. Compilers and target machines that were created with the
+     * options keep their own copies of them.
+     */
+    @Override
+    public void dispose() {
+        handle.close();
+    }
+
+    /**
+     * Create a new instance of the JIT compiler options, that generates code for the host CPU.
      *
      * @return the new JIT compiler options
      */
     public static JitCompilerOptions create() {
-        return new JitCompilerOptions(new LLVMMCJITCompilerOptions());
+        return create(TargetCpu.host());
+    }
+
+    /**
+     * Create a new instance of the JIT compiler options, that generates code for the specified CPU.
+     *
+     * @param cpu the CPU that the JIT compiler generates code for
+     * @return the new JIT compiler options
+     */
+    public static JitCompilerOptions create(TargetCpu cpu) {
+        return new JitCompilerOptions(new LLVMMCJITCompilerOptions(), cpu);
     }
 }
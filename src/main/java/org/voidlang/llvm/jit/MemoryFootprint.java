@@ -0,0 +1,87 @@
+package org.voidlang.llvm.jit;
+
+import org.bytedeco.javacpp.BytePointer;
+
+import java.util.List;
+
+/**
+ * Represents the amount of memory that the JIT allocates for compiled code, e.g. for the objects that are currently
+ * linked into an {@link OrcJit}.
+ * <br>
+ * The sizes are the sizes of the sections of the object files, that the runtime linker loads into memory. Sections
+ * are classified by their names, for the ELF, Mach-O and COFF object formats. The pages allocated by the memory
+ * manager of the JIT are rounded up from these sizes, and metadata such as relocations and symbol tables are not
+ * included.
+ *
+ * @param codeBytes the number of bytes of executable code
+ * @param dataBytes the number of bytes of constants, variables and unwind information
+ */
+public record MemoryFootprint(long codeBytes, long dataBytes) {
+    /**
+     * The name prefixes of the sections that hold executable code.
+     */
+    private static final List<String> CODE_SECTIONS = List.of(".text", "__text", "__stubs");
+
+    /**
+     * The name prefixes of the sections that hold data, which is loaded by the runtime linker.
+     */
+    private static final List<String> DATA_SECTIONS = List.of(
+        ".data", ".rodata", ".bss", ".tdata", ".tbss", ".eh_frame", ".init_array", ".fini_array", ".rdata",
+        ".pdata", ".xdata", "__data", "__const", "__bss", "__cstring", "__literal", "__eh_frame", "__compact_unwind",
+        "__mod_init_func"
+    );
+
+    /**
+     * The footprint of no code at all.
+     */
+    public static final MemoryFootprint EMPTY = new MemoryFootprint(0, 0);
+
+    /**
+     * Retrieve the number of bytes of code and data.
+     *
+     * @return the total number of bytes
+     */
+    public long totalBytes() {
+        return codeBytes + dataBytes;
+    }
+
+    /**
+     * Add the specified footprint to this footprint.
+     *
+     * @param other the footprint to add
+     * @return a new footprint, that holds the sums of the sizes
+     */
+    public MemoryFootprint plus(MemoryFootprint other) {
+        return new MemoryFootprint(codeBytes + other.codeBytes, dataBytes + other.dataBytes);
+    }
+
+    /**
+     * Retrieve the indication, whether the section with the specified name holds executable code.
+     *
+     * @param section the name of the section
+     * @return {@code true} if the section holds code, {@code false} otherwise
+     */
+    static boolean isCode(String section) {
+        return CODE_SECTIONS.stream().anyMatch(section::startsWith);
+    }
+
+    /**
+     * Retrieve the indication, whether the section with the specified name holds data, that is loaded into memory.
+     *
+     * @param section the name of the section
+     * @return {@code true} if the section holds loaded data, {@code false} otherwise
+     */
+    static boolean isData(String section) {
+        return DATA_SECTIONS.stream().anyMatch(section::startsWith);
+    }
+
+    /**
+     * Read the specified name of a section or symbol of an object file, which is {@code null} for unnamed entries.
+     *
+     * @param name the native name
+     * @return the name, or an empty string
+     */
+    static String nameOf(BytePointer name) {
+        return name == null || name.isNull() ? "" : name.getString();
+    }
+}
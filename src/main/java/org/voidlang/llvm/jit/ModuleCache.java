@@ -0,0 +1,516 @@
+package org.voidlang.llvm.jit;
+
+import com.google.common.hash.Hashing;
+import org.bytedeco.llvm.LLVM.LLVMBasicBlockRef;
+import org.bytedeco.llvm.LLVM.LLVMMemoryBufferRef;
+import org.bytedeco.llvm.LLVM.LLVMModuleRef;
+import org.bytedeco.llvm.LLVM.LLVMValueRef;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.error.LLVMException;
+import org.voidlang.llvm.metrics.CompilationMetrics;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.module.MemoryBuffers;
+import org.voidlang.llvm.type.IRFunctionType;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Represents an in-memory cache of compiled modules, that compiles each distinct module only once, even if it is
+ * generated again and again under different names.
+ * <br>
+ * Modules are keyed by a {@link #key(IRModule) structural hash}, that ignores the names of the module, its defined
+ * functions and global variables, and their arguments, blocks and instructions. Two modules with the same key
+ * define the same code, so a module that hits the cache is disposed, and its exported functions are resolved to the
+ * code of the cached module, matched by their position in the module. The exported functions and global variables
+ * of cached modules are renamed to names derived from their key, so structurally different modules may export
+ * definitions with the same names.
+ * <br>
+ * The cache holds at most the specified number of modules, and evicts the least recently used module, when a new
+ * module is added to a full cache. The code of each module is tracked by its own {@link ResourceTracker}, so the
+ * memory of an evicted module is returned to the JIT, as soon as the last {@link Lease} of the module is disposed.
+ * Modules that are being compiled are never evicted.
+ */
+public class ModuleCache implements Disposable {
+    /**
+     * The prefix of the names of the exported functions of cached modules.
+     */
+    private static final String NAME_PREFIX = "cached$";
+
+    /**
+     * The JIT that holds the code of the cached modules.
+     */
+    private final OrcJit jit;
+
+    /**
+     * The maximum number of cached modules.
+     */
+    private final int capacity;
+
+    /**
+     * The cached modules, keyed by their structural hash, in the order of their last access.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The number of modules that were found in the cache.
+     */
+    private long hits;
+
+    /**
+     * The number of modules that were compiled, because they were not found in the cache.
+     */
+    private long misses;
+
+    /**
+     * The number of modules that were evicted from the cache.
+     */
+    private long evictions;
+
+    /**
+     * The indication, whether the cache has been disposed.
+     */
+    private boolean disposed;
+
+    /**
+     * Initialize the module cache.
+     *
+     * @param jit the JIT that holds the code of the cached modules
+     * @param capacity the maximum number of cached modules
+     */
+    private ModuleCache(OrcJit jit, int capacity) {
+        this.jit = jit;
+        this.capacity = capacity;
+    }
+
+    public OrcJit jit() {
+        return this.jit;
+    }
+
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Retrieve the compiled code of the specified module from the cache, or compile it, if no structurally equal
+     * module is cached. The ownership of the module is transferred to the cache, therefore the module must not be
+     * used or disposed after this call.
+     * <br>
+     * The functions of the returned lease are named after the exported functions of the specified module. The code
+     * of the functions stays valid until the lease is disposed, even if the module is evicted in the meantime.
+     * Multiple threads that request the same module at the same time wait for a single compilation.
+     *
+     * @param module the module to compile
+     * @param context the thread-safe context in which the module was created
+     * @return a new lease of the compiled module, which must be disposed when its functions are no longer called
+     * @throws LLVMException if the module could not be compiled
+     * @throws IllegalStateException if the cache has been disposed
+     */
+    public Lease compile(IRModule module, ThreadSafeContext context) {
+        checkNotNull(module, "module");
+        checkNotNull(context, "context");
+        Map<String, IRFunctionType> functions = Partitions.exportedFunctions(module);
+        List<String> names = new ArrayList<>(functions.keySet());
+        // the cache owns the module, so its names are stripped in place, rather than in a copy of the module
+        String key = hash(module.handle());
+
+        Entry entry;
+        boolean compiling = false;
+        synchronized (this) {
+            checkState(!disposed, "module cache has been disposed");
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(key);
+                entries.put(key, entry);
+                compiling = true;
+                misses++;
+            } else {
+                hits++;
+            }
+            entry.references++;
+        }
+
+        if (compiling) {
+            compile(entry, module, context, names);
+            evict();
+        } else {
+            module.dispose();
+        }
+
+        List<NativeFunction> compiled;
+        try {
+            compiled = entry.functions.join();
+        } catch (CompletionException e) {
+            release(entry);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        // resolve the functions of the module to the code of the cached module, by their position
+        checkState(compiled.size() == names.size(), "cached module %s exports %s functions", key, compiled.size());
+        Map<String, NativeFunction> resolved = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            NativeFunction function = compiled.get(i);
+            resolved.put(names.get(i), new NativeFunction(names.get(i), function.address(), function.type()));
+        }
+        return new Lease(entry, new CompiledModule(module.name(), resolved, CompilationMetrics.module(module.name())));
+    }
+
+    /**
+     * Compile the specified module into the specified entry, and complete the functions of the entry.
+     *
+     * @param entry the entry of the module
+     * @param module the module to compile
+     * @param context the thread-safe context in which the module was created
+     * @param names the names of the exported functions of the module
+     */
+    private void compile(Entry entry, IRModule module, ThreadSafeContext context, List<String> names) {
+        List<String> canonicalNames = canonicalize(module.handle(), entry.key);
+        checkState(canonicalNames.size() == names.size(), "module %s exports %s functions", entry.key, canonicalNames.size());
+        ResourceTracker tracker = jit.createResourceTracker();
+        try {
+            CompiledModule compiled = jit.compile(module, context, tracker);
+            List<NativeFunction> functions = new ArrayList<>(canonicalNames.size());
+            for (String name : canonicalNames)
+                functions.add(compiled.function(name));
+            entry.tracker = tracker;
+            entry.functions.complete(functions);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                entries.remove(entry.key, entry);
+            }
+            unload(tracker);
+            entry.functions.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Give the definitions of the specified module, that are visible outside the module, names derived from the
+     * key of the module, that cannot clash with the definitions of other cached modules. The names of the module
+     * have been stripped by {@link #hash(LLVMModuleRef)} already.
+     *
+     * @param module the module to update
+     * @param key the structural key of the module
+     * @return the names of the exported functions, in module order
+     */
+    private static List<String> canonicalize(LLVMModuleRef module, String key) {
+        List<String> functions = new ArrayList<>();
+        for (LLVMValueRef function = LLVMGetFirstFunction(module); function != null; function = LLVMGetNextFunction(function)) {
+            if (isExported(function)) {
+                String name = NAME_PREFIX + key + "$" + functions.size();
+                LLVMSetValueName2(function, name, name.length());
+                functions.add(name);
+            }
+        }
+        int globals = 0;
+        for (LLVMValueRef global = LLVMGetFirstGlobal(module); global != null; global = LLVMGetNextGlobal(global)) {
+            if (isExported(global)) {
+                String name = NAME_PREFIX + key + "$global" + globals++;
+                LLVMSetValueName2(global, name, name.length());
+            }
+        }
+        return functions;
+    }
+
+    /**
+     * Check whether the specified global value is defined by its module, and is visible outside the module.
+     *
+     * @param value the global value to check
+     * @return {@code true} if the value is an exported definition, {@code false} otherwise
+     */
+    private static boolean isExported(LLVMValueRef value) {
+        int linkage = LLVMGetLinkage(value);
+        return LLVMIsDeclaration(value) == 0 && linkage != LLVMInternalLinkage && linkage != LLVMPrivateLinkage;
+    }
+
+    /**
+     * Evict the least recently used modules, until the cache holds at most its capacity.
+     */
+    private void evict() {
+        List<Entry> unused = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > capacity && iterator.hasNext()) {
+                Entry entry = iterator.next();
+                // modules that are being compiled are not evicted
+                if (!entry.functions.isDone())
+                    continue;
+                iterator.remove();
+                entry.evicted = true;
+                evictions++;
+                if (entry.references == 0)
+                    unused.add(entry);
+            }
+        }
+        unused.forEach(entry -> unload(entry.tracker));
+    }
+
+    /**
+     * Release a reference to the specified entry, and free its code, if it has been evicted and it is no longer
+     * referenced.
+     *
+     * @param entry the entry to release
+     */
+    private void release(Entry entry) {
+        boolean unused;
+        synchronized (this) {
+            unused = --entry.references == 0 && entry.evicted;
+        }
+        if (unused)
+            unload(entry.tracker);
+    }
+
+    /**
+     * Free the code that is tracked by the specified resource tracker.
+     *
+     * @param tracker the resource tracker, or {@code null} if the module has not been compiled
+     */
+    private void unload(ResourceTracker tracker) {
+        if (tracker == null)
+            return;
+        try {
+            jit.remove(tracker);
+        } finally {
+            tracker.dispose();
+        }
+    }
+
+    /**
+     * Retrieve the number of modules that are currently cached.
+     *
+     * @return the number of cached modules
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retrieve the number of modules that were found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Retrieve the number of modules that were compiled, because they were not found in the cache.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Retrieve the number of modules that were evicted from the cache.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Dispose of the value handle held by this object. Every module is evicted, and the code of the modules without
+     * leases is freed right away. The JIT of the cache is not disposed.
+     */
+    @Override
+    public void dispose() {
+        List<Entry> unused = new ArrayList<>();
+        synchronized (this) {
+            disposed = true;
+            for (Entry entry : entries.values()) {
+                entry.evicted = true;
+                if (entry.references == 0)
+                    unused.add(entry);
+            }
+            entries.clear();
+        }
+        unused.forEach(entry -> unload(entry.tracker));
+    }
+
+    /**
+     * Compute the structural key of the specified module, which is equal for modules that differ only in the names
+     * of the module, its defined functions and global variables, and their arguments, blocks and instructions. The
+     * names of declarations are part of the key, as they refer to different external symbols.
+     * <br>
+     * The key is computed from a copy of the module, which is written as bitcode, so computing it costs about as
+     * much as cloning and serializing the module. {@link #compile(IRModule, ThreadSafeContext)} does not call this
+     * method, it hashes the module that it owns in place instead, which saves the copy.
+     *
+     * @param module the module to compute the key of
+     * @return the hexadecimal structural key
+     */
+    public static String key(IRModule module) {
+        LLVMModuleRef copy = LLVMCloneModule(checkNotNull(module, "module").handle());
+        try {
+            return hash(copy);
+        } finally {
+            LLVMDisposeModule(copy);
+        }
+    }
+
+    /**
+     * Strip the names of the specified module, and compute its structural key.
+     *
+     * @param module the module to hash, whose names are removed
+     * @return the hexadecimal structural key
+     */
+    private static String hash(LLVMModuleRef module) {
+        stripNames(module);
+        LLVMMemoryBufferRef bitcode = LLVMWriteBitcodeToMemoryBuffer(module);
+        try {
+            return Hashing.sha256().hashBytes(MemoryBuffers.view(bitcode)).toString();
+        } finally {
+            LLVMDisposeMemoryBuffer(bitcode);
+        }
+    }
+
+    /**
+     * Remove the names of the definitions of the specified module, and of their arguments, blocks and instructions.
+     *
+     * @param module the module to update
+     */
+    private static void stripNames(LLVMModuleRef module) {
+        LLVMSetSourceFileName(module, "", 0);
+        LLVMSetModuleIdentifier(module, "", 0);
+        for (LLVMValueRef global = LLVMGetFirstGlobal(module); global != null; global = LLVMGetNextGlobal(global)) {
+            if (LLVMIsDeclaration(global) == 0)
+                LLVMSetValueName2(global, "", 0);
+        }
+        for (LLVMValueRef function = LLVMGetFirstFunction(module); function != null; function = LLVMGetNextFunction(function)) {
+            if (LLVMIsDeclaration(function) != 0)
+                continue;
+            LLVMSetValueName2(function, "", 0);
+            for (LLVMValueRef parameter = LLVMGetFirstParam(function); parameter != null; parameter = LLVMGetNextParam(parameter))
+                LLVMSetValueName2(parameter, "", 0);
+            for (LLVMBasicBlockRef block = LLVMGetFirstBasicBlock(function); block != null; block = LLVMGetNextBasicBlock(block)) {
+                LLVMSetValueName2(LLVMBasicBlockAsValue(block), "", 0);
+                for (LLVMValueRef instruction = LLVMGetFirstInstruction(block); instruction != null; instruction = LLVMGetNextInstruction(instruction))
+                    LLVMSetValueName2(instruction, "", 0);
+            }
+        }
+    }
+
+    /**
+     * Create a new module cache, that compiles modules with the specified JIT. The JIT is not owned by the cache,
+     * and must outlive it.
+     *
+     * @param jit the JIT that holds the code of the cached modules
+     * @param capacity the maximum number of cached modules
+     * @return a new module cache
+     */
+    public static ModuleCache create(OrcJit jit, int capacity) {
+        checkNotNull(jit, "jit");
+        checkArgument(capacity > 0, "capacity must be positive");
+        return new ModuleCache(jit, capacity);
+    }
+
+    /**
+     * Represents a cached module.
+     */
+    private static final class Entry {
+        /**
+         * The structural key of the module.
+         */
+        private final String key;
+
+        /**
+         * The exported functions of the module, in the order of the module, which are completed when the module
+         * has been compiled.
+         */
+        private final CompletableFuture<List<NativeFunction>> functions = new CompletableFuture<>();
+
+        /**
+         * The resource tracker of the code of the module, which is set before the functions are completed.
+         */
+        private volatile ResourceTracker tracker;
+
+        /**
+         * The number of leases of the module, and of the callers that wait for its compilation, guarded by the
+         * cache.
+         */
+        private int references;
+
+        /**
+         * The indication, whether the module has been evicted, guarded by the cache.
+         */
+        private boolean evicted;
+
+        /**
+         * Initialize the entry of the module with the specified key.
+         *
+         * @param key the structural key of the module
+         */
+        private Entry(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Represents a reference to a cached module, that keeps the code of the module alive, until it is disposed.
+     */
+    public final class Lease implements Disposable {
+        /**
+         * The entry of the leased module.
+         */
+        private final Entry entry;
+
+        /**
+         * The compiled module, whose functions are named after the module of the caller.
+         */
+        private final CompiledModule module;
+
+        /**
+         * The indication, whether the lease has been disposed.
+         */
+        private boolean disposed;
+
+        /**
+         * Initialize the lease of the specified entry.
+         *
+         * @param entry the entry of the leased module
+         * @param module the compiled module
+         */
+        private Lease(Entry entry, CompiledModule module) {
+            this.entry = entry;
+            this.module = module;
+        }
+
+        public CompiledModule module() {
+            return this.module;
+        }
+
+        /**
+         * Retrieve the compiled function with the specified name.
+         *
+         * @param name the name of the function in the module of the caller
+         * @return the compiled function
+         * @throws IllegalArgumentException if the module does not export a function with that name
+         */
+        public NativeFunction function(String name) {
+            return module.function(name);
+        }
+
+        /**
+         * Dispose of the value handle held by this object. The functions of the lease must not be called
+         * afterward, as the code of the module is freed, if the module has been evicted.
+         */
+        @Override
+        public synchronized void dispose() {
+            if (disposed)
+                return;
+            disposed = true;
+            release(entry);
+        }
+    }
+}
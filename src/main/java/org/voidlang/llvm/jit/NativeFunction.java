@@ -0,0 +1,104 @@
+package org.voidlang.llvm.jit;
+
+import org.voidlang.llvm.type.IRFunctionType;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a function that has been compiled to native code by a JIT, that can be called directly, without
+ * going through {@link ExecutionEngine#runFunction(org.voidlang.llvm.value.IRFunction, List)}.
+ * <br>
+ * Two native functions are equal, if they have the same name, address and type.
+ */
+public final class NativeFunction implements Invocable {
+    /**
+     * The name of the function.
+     */
+    private final String name;
+
+    /**
+     * The address of the compiled code of the function.
+     */
+    private final long address;
+
+    /**
+     * The type signature of the function.
+     */
+    private final IRFunctionType type;
+
+    /**
+     * The downcall handle bound to the function, or {@code null} if it has not been created yet.
+     */
+    private volatile MethodHandle handle;
+
+    /**
+     * Initialize the native function with the specified name, address and type.
+     *
+     * @param name the name of the function
+     * @param address the address of the compiled code of the function
+     * @param type the type signature of the function
+     */
+    public NativeFunction(String name, long address, IRFunctionType type) {
+        checkNotNull(name, "name");
+        checkArgument(address != 0, "Function %s has not been compiled", name);
+        checkNotNull(type, "type");
+        this.name = name;
+        this.address = address;
+        this.type = type;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    public long address() {
+        return address;
+    }
+
+    @Override
+    public IRFunctionType type() {
+        return type;
+    }
+
+    /**
+     * Retrieve a downcall handle that calls the function, whose type is derived from the signature of the function
+     * by {@link Downcalls#descriptorOf(IRFunctionType)}.
+     * <br>
+     * The handle is bound to the function once, and the same handle is returned by later calls. It should be
+     * stored in a {@code static final} field or another constant, so that the JIT compiler of the JVM can inline
+     * the call and specialize it to the function.
+     *
+     * @return a downcall handle bound to the function
+     * @throws IllegalArgumentException if the signature of the function cannot be called from Java
+     */
+    @Override
+    public MethodHandle handle() {
+        // binding the same handle twice in a race is harmless, as both handles call the same function
+        MethodHandle handle = this.handle;
+        if (handle == null)
+            this.handle = handle = Downcalls.downcall(address, type);
+        return handle;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof NativeFunction other && name.equals(other.name) && address == other.address
+            && type.equals(other.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, address, type);
+    }
+
+    @Override
+    public String toString() {
+        return "NativeFunction[name=" + name + ", address=" + address + ", type=" + type + "]";
+    }
+}
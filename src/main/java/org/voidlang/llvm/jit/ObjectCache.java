@@ -0,0 +1,172 @@
+package org.voidlang.llvm.jit;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.llvm.LLVM.LLVMMemoryBufferRef;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.module.MemoryBuffers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a content-addressed cache of object files on the local file system, which lets the {@link OrcJit}
+ * skip the compilation of modules that were compiled by an earlier process.
+ * <br>
+ * An object file is keyed by a hash of the bitcode of its module, the target triple, the target CPU and the code
+ * generation options, so the cache never returns an object that was compiled from different IR or with different settings.
+ * Cached object files are loaded by LLVM, which memory-maps them instead of reading them into the heap.
+ */
+public class ObjectCache {
+    /**
+     * The directory in which the object files are stored.
+     */
+    private final Path directory;
+
+    /**
+     * Initialize the object cache with the specified directory.
+     *
+     * @param directory the directory in which the object files are stored
+     */
+    private ObjectCache(Path directory) {
+        this.directory = checkNotNull(directory, "directory");
+    }
+
+    public Path directory() {
+        return this.directory;
+    }
+
+    /**
+     * Compute the cache key of the specified module, when it is compiled for the specified target.
+     *
+     * @param module the module to be compiled
+     * @param triple the target triple of the compiled code
+     * @param options the options of the code generator
+     * @return the hexadecimal cache key
+     */
+    public String key(IRModule module, String triple, JitCompilerOptions options) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        LLVMMemoryBufferRef bitcode = LLVMWriteBitcodeToMemoryBuffer(checkNotNull(module, "module").handle());
+        try {
+            hasher.putBytes(MemoryBuffers.view(bitcode));
+        } finally {
+            LLVMDisposeMemoryBuffer(bitcode);
+        }
+        return hasher.putString(checkNotNull(triple, "triple"), StandardCharsets.UTF_8)
+            .putInt(checkNotNull(options, "options").optimizationLevel())
+            .putInt(options.codeModel())
+            .putBoolean(options.noFramePointerElimination())
+            .putInt(options.enableFastISel())
+            // the features of a CPU never contain a colon, so the name and features are separated unambiguously
+            .putString(options.cpu().name() + ':' + options.cpu().features(), StandardCharsets.UTF_8)
+            .hash()
+            .toString();
+    }
+
+    /**
+     * Load the object file with the specified key from the cache.
+     *
+     * @param key the cache key of the object file
+     * @return a new memory buffer that maps the object file, or {@code null} if the object file is not cached
+     */
+    public LLVMMemoryBufferRef load(String key) {
+        Path path = pathOf(key);
+        if (!Files.isRegularFile(path))
+            return null;
+        LLVMMemoryBufferRef buffer = new LLVMMemoryBufferRef();
+        BytePointer error = new BytePointer();
+        try (BytePointer name = new BytePointer(path.toString())) {
+            if (LLVMCreateMemoryBufferWithContentsOfFile(name, buffer, error) != 0) {
+                // treat an unreadable entry as a cache miss, it will be overwritten by the next store
+                LLVMDisposeMessage(error);
+                return null;
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Store the specified object file in the cache. The entry is written to a temporary file first and then
+     * moved in place, so concurrent readers never observe a partially written object file.
+     *
+     * @param key the cache key of the object file
+     * @param object the memory buffer that holds the object file
+     * @throws UncheckedIOException if the object file could not be written
+     */
+    public void store(String key, LLVMMemoryBufferRef object) {
+        ByteBuffer contents = MemoryBuffers.view(checkNotNull(object, "object"));
+        Path temporary;
+        try {
+            temporary = Files.createTempFile(directory, key, ".tmp");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store object " + key, e);
+        }
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, WRITE)) {
+                while (contents.hasRemaining())
+                    channel.write(contents);
+            }
+            Files.move(temporary, pathOf(key), ATOMIC_MOVE, REPLACE_EXISTING);
+            moved = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store object " + key, e);
+        } finally {
+            // do not leave a partially written entry behind
+            if (!moved)
+                deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * Delete the specified temporary file, ignoring any failure, as the file is never read by the cache.
+     *
+     * @param temporary the path of the temporary file
+     */
+    private static void deleteQuietly(Path temporary) {
+        try {
+            Files.deleteIfExists(temporary);
+        } catch (IOException ignored) {
+            // a leftover temporary file only wastes disk space
+        }
+    }
+
+    /**
+     * Retrieve the path of the object file with the specified key.
+     *
+     * @param key the cache key of the object file
+     * @return the path of the object file
+     */
+    private Path pathOf(String key) {
+        return directory.resolve(checkNotNull(key, "key") + ".o");
+    }
+
+    /**
+     * Create a new object cache that stores object files in the specified directory. The directory is created, if
+     * it does not exist.
+     *
+     * @param directory the directory in which the object files are stored
+     * @return a new object cache
+     * @throws UncheckedIOException if the directory could not be created
+     */
+    public static ObjectCache create(Path directory) {
+        try {
+            Files.createDirectories(checkNotNull(directory, "directory"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create cache directory " + directory, e);
+        }
+        return new ObjectCache(directory);
+    }
+}
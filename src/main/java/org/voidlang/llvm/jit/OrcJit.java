@@ -0,0 +1,836 @@
+package org.voidlang.llvm.jit;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.LongPointer;
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacpp.SizeTPointer;
+import org.bytedeco.llvm.LLVM.*;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.behaviour.Scope;
+import org.voidlang.llvm.error.LLVMException;
+import org.voidlang.llvm.metrics.CompilationMetrics;
+import org.voidlang.llvm.metrics.CompilationPhase;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.target.NativeTarget;
+import org.voidlang.llvm.target.TargetMachine;
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.value.IRFunction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a wrapper for an LLVM ORC LLJIT instance, a Just-In-Time (JIT) compiler that accepts any number of
+ * modules over its lifetime.
+ * <br>
+ * Unlike the MCJIT based {@link ExecutionEngine}, a single JIT instance is shared by all modules. Every module is
+ * added to the same main library, so the symbols of one module can be referenced from the others, and symbols that
+ * are not defined by any module are resolved from the current process.
+ * <br>
+ * Modules are not compiled when they are added, but when one of their symbols is looked up for the first time, on
+ * the thread that performs the lookup. Modules that were created in different {@link ThreadSafeContext}s are
+ * therefore compiled concurrently, when they are looked up from different threads.
+ * <br>
+ * Modules added with {@link #addLazyModule(IRModule, ThreadSafeContext)} are compiled at function granularity: each
+ * function is compiled only when it is called for the first time.
+ * <br>
+ * The JIT measures every object file that it links, so the {@link #residentMemory() memory} of the compiled code can
+ * be monitored, and modules that are added with a {@link ResourceTracker} can be {@link #remove(ResourceTracker)
+ * removed} to return their memory to the process.
+ */
+public class OrcJit implements Disposable {
+    /**
+     * The suffix of the symbols that hold the implementations of lazily compiled functions.
+     */
+    private static final String IMPLEMENTATION_SUFFIX = "$impl";
+
+    /**
+     * The handle to the LLVM LLJIT instance.
+     */
+    private final LLVMOrcLLJITRef handle;
+
+    /**
+     * The main library of the JIT, which holds the definitions of every added module.
+     */
+    private final LLVMOrcJITDylibRef mainDylib;
+
+    /**
+     * The options that the JIT generates code with, or {@code null} if the JIT detected the host settings.
+     */
+    private final JitCompilerOptions options;
+
+    /**
+     * The cache of the compiled modules, or {@code null} if caching is disabled.
+     */
+    private final ObjectCache objectCache;
+
+    /**
+     * The mangled names of the symbols, whose defining modules have been handed to the compiler.
+     */
+    private final Set<String> materialized = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The object files that are linked into the JIT, keyed by the mangled names of the symbols they define.
+     */
+    private final Map<String, LinkedObject> linkedObjects = new ConcurrentHashMap<>();
+
+    /**
+     * The mangled names of the symbols defined by the modules and object files of each resource tracker, which
+     * identify the linked object files of the tracker when it is removed.
+     */
+    private final Map<ResourceTracker, Set<String>> trackedSymbols = new ConcurrentHashMap<>();
+
+    /**
+     * The number of bytes of code of the object files that are linked into the JIT.
+     */
+    private final AtomicLong codeBytes = new AtomicLong();
+
+    /**
+     * The number of bytes of data of the object files that are linked into the JIT.
+     */
+    private final AtomicLong dataBytes = new AtomicLong();
+
+    /**
+     * The counter used to give the local symbols of lazily compiled modules unique names.
+     */
+    private final AtomicLong lazyModules = new AtomicLong();
+
+    /**
+     * The callback that is invoked by the IR transform layer, before a module is compiled.
+     */
+    private final LLVMOrcIRTransformLayerTransformFunction transform = new LLVMOrcIRTransformLayerTransformFunction() {
+        @Override
+        public LLVMErrorRef call(Pointer context, LLVMOrcThreadSafeModuleRef module, LLVMOrcMaterializationResponsibilityRef responsibility) {
+            try {
+                onMaterialize(responsibility);
+                return null;
+            } catch (RuntimeException e) {
+                return LLVMCreateStringError(String.valueOf(e.getMessage()));
+            }
+        }
+    };
+
+    /**
+     * The callback that is invoked by the object transform layer, before an object file is linked.
+     */
+    private final LLVMOrcObjectTransformLayerTransformFunction objectTransform = new LLVMOrcObjectTransformLayerTransformFunction() {
+        @Override
+        public LLVMErrorRef call(Pointer context, LLVMMemoryBufferRef object) {
+            try {
+                onLink(object);
+                return null;
+            } catch (RuntimeException e) {
+                return LLVMCreateStringError(String.valueOf(e.getMessage()));
+            }
+        }
+    };
+
+    /**
+     * The manager of the trampolines that compile lazily compiled functions, created on first use.
+     */
+    private LLVMOrcLazyCallThroughManagerRef callThroughManager;
+
+    /**
+     * The manager of the stubs that redirect calls to lazily compiled functions, created on first use.
+     */
+    private LLVMOrcIndirectStubsManagerRef stubsManager;
+
+    /**
+     * Initialize the JIT with the specified handle.
+     *
+     * @param handle the handle to the LLVM LLJIT instance
+     * @param options the options that the JIT generates code with, or {@code null} if unknown
+     * @param objectCache the cache of the compiled modules, or {@code null} to disable caching
+     */
+    private OrcJit(LLVMOrcLLJITRef handle, JitCompilerOptions options, ObjectCache objectCache) {
+        checkArgument(objectCache == null || options != null, "An object cache requires explicit compiler options");
+        this.handle = checkNotNull(handle, "handle");
+        this.options = options;
+        this.objectCache = objectCache;
+        this.mainDylib = LLVMOrcLLJITGetMainJITDylib(handle);
+        LLVMOrcIRTransformLayerSetTransform(LLVMOrcLLJITGetIRTransformLayer(handle), transform, null);
+        LLVMOrcObjectTransformLayerSetTransform(LLVMOrcLLJITGetObjTransformLayer(handle), objectTransform, null);
+    }
+
+    public LLVMOrcLLJITRef handle() {
+        return this.handle;
+    }
+
+    public LLVMOrcJITDylibRef mainDylib() {
+        return this.mainDylib;
+    }
+
+    /**
+     * Retrieve the target triple of the code generated by the JIT.
+     *
+     * @return the target triple
+     */
+    public String triple() {
+        return LLVMOrcLLJITGetTripleString(handle).getString();
+    }
+
+    /**
+     * Retrieve the data layout of the code generated by the JIT.
+     *
+     * @return the data layout string
+     */
+    public String dataLayout() {
+        return LLVMOrcLLJITGetDataLayoutStr(handle).getString();
+    }
+
+    /**
+     * Create a new resource tracker for the main library of the JIT. The code of the modules that are added with
+     * the tracker can be freed by {@link ResourceTracker#remove()}, while the other modules stay in the JIT.
+     *
+     * @return a new resource tracker
+     */
+    public ResourceTracker createResourceTracker() {
+        return new ResourceTracker(LLVMOrcJITDylibCreateResourceTracker(mainDylib));
+    }
+
+    /**
+     * Add the specified module to the main library of the JIT. The module is compiled when one of its symbols is
+     * looked up for the first time.
+     * <br>
+     * If the JIT has an {@link ObjectCache}, the module is compiled right away instead, unless its object file is
+     * found in the cache already, and the object file is added to the JIT.
+     * <br>
+     * The module must have been created in the LLVM context of the specified thread-safe context. The ownership of
+     * the module is transferred to the JIT, therefore the module must not be used or disposed after this call.
+     *
+     * @param module the module to add to the JIT
+     * @param context the thread-safe context in which the module was created
+     * @throws LLVMException if the module could not be added, e.g. because it redefines an existing symbol
+     */
+    public void addModule(IRModule module, ThreadSafeContext context) {
+        addModule(module, context, null);
+    }
+
+    /**
+     * Add the specified module to the main library of the JIT, and track its code with the specified resource
+     * tracker, so that it can be freed by {@link ResourceTracker#remove()}.
+     * <br>
+     * The ownership of the module is transferred to the JIT, therefore the module must not be used or disposed
+     * after this call.
+     *
+     * @param module the module to add to the JIT
+     * @param context the thread-safe context in which the module was created
+     * @param tracker the resource tracker of the module, or {@code null} to track it with the main library
+     * @throws LLVMException if the module could not be added, e.g. because it redefines an existing symbol
+     */
+    public void addModule(IRModule module, ThreadSafeContext context, ResourceTracker tracker) {
+        // the JIT takes the ownership of the module
+        Scope.untrack(checkNotNull(module, "module"));
+        if (objectCache != null)
+            addCompiledModule(module, tracker);
+        else
+            addIRModule(module, context, tracker);
+    }
+
+    /**
+     * Add the specified module to the main library of the JIT, to be compiled by the JIT on first lookup.
+     *
+     * @param module the module to add to the JIT
+     * @param context the thread-safe context in which the module was created
+     * @param tracker the resource tracker of the module, or {@code null} to track it with the main library
+     */
+    private void addIRModule(IRModule module, ThreadSafeContext context, ResourceTracker tracker) {
+        // collect the symbols of the module, before the ownership of the module is transferred
+        checkNotNull(module, "module");
+        Set<String> symbols = tracker != null ? definedSymbols(module.handle()) : null;
+        LLVMOrcThreadSafeModuleRef threadSafeModule = LLVMOrcCreateNewThreadSafeModule(
+            module.handle(), checkNotNull(context, "context").handle()
+        );
+        // the JIT takes the ownership of the thread-safe module, even if the operation fails
+        if (tracker != null) {
+            LLVMException.check(LLVMOrcLLJITAddLLVMIRModuleWithRT(handle, tracker.handle(), threadSafeModule));
+            track(tracker, symbols);
+        } else
+            LLVMException.check(LLVMOrcLLJITAddLLVMIRModule(handle, mainDylib, threadSafeModule));
+    }
+
+    /**
+     * Add the specified module to the main library of the JIT and compile it right away, on the calling thread.
+     * <br>
+     * The module is compiled to an object file by a target machine of its own, and every function of the module
+     * that is visible outside the module is looked up, which makes the JIT link the object file before this method
+     * returns. Calling this method from multiple threads, with modules of different thread-safe contexts, compiles
+     * the modules in parallel. This is unlike the modules added by {@link #addModule(IRModule, ThreadSafeContext)},
+     * which are compiled by the single target machine of the JIT, so their first lookups must not run concurrently.
+     * <br>
+     * The ownership of the module is transferred to the JIT, therefore the module must not be used or disposed
+     * after this call.
+     *
+     * @param module the module to compile
+     * @param context the thread-safe context in which the module was created
+     * @return the compiled module
+     * @throws LLVMException if the module could not be added or compiled
+     */
+    public CompiledModule compile(IRModule module, ThreadSafeContext context) {
+        return compile(module, context, null);
+    }
+
+    /**
+     * Add the specified module to the main library of the JIT and compile it right away, on the calling thread,
+     * and track its code with the specified resource tracker, so that it can be freed by
+     * {@link ResourceTracker#remove()}.
+     * <br>
+     * The ownership of the module is transferred to the JIT, therefore the module must not be used or disposed
+     * after this call.
+     *
+     * @param module the module to compile
+     * @param context the thread-safe context in which the module was created
+     * @param tracker the resource tracker of the module, or {@code null} to track it with the main library
+     * @return the compiled module
+     * @throws LLVMException if the module could not be added or compiled
+     */
+    public CompiledModule compile(IRModule module, ThreadSafeContext context, ResourceTracker tracker) {
+        // collect the exported functions, before the ownership of the module is transferred
+        Map<String, IRFunctionType> functions = Partitions.exportedFunctions(checkNotNull(module, "module"));
+        String name = module.name();
+        checkNotNull(context, "context");
+        // the JIT takes the ownership of the module
+        Scope.untrack(module);
+        boolean cached = addCompiledModule(module, tracker);
+        // looking up the functions makes the JIT link the object file of the module, which is accounted to the
+        // code generation of the module, unless the object file was loaded from the cache
+        Map<String, NativeFunction> compiled = new LinkedHashMap<>();
+        CompilationPhase phase = cached ? CompilationPhase.OBJECT_LOAD : CompilationPhase.CODEGEN;
+        CompilationMetrics.measure(name, phase, () -> {
+            functions.forEach((function, type) -> compiled.put(function, new NativeFunction(function, lookup(function), type)));
+        });
+        return new CompiledModule(name, compiled, CompilationMetrics.module(name));
+    }
+
+    /**
+     * Compile the specified module to an object file on the calling thread, or load the object file from the object
+     * cache, if the JIT has one, and add it to the main library of the JIT.
+     *
+     * @param module the module to add to the JIT
+     * @param tracker the resource tracker of the module, or {@code null} to track it with the main library
+     * @return {@code true} if the object file was loaded from the object cache, {@code false} if it was compiled
+     */
+    private boolean addCompiledModule(IRModule module, ResourceTracker tracker) {
+        checkNotNull(module, "module");
+        LLVMMemoryBufferRef object = null;
+        boolean cached;
+        // the JIT owns the module, but only its object file is added to the JIT
+        try {
+            // a separate target machine is used for each module, as target machines are not thread-safe
+            TargetMachine machine = options != null ? TargetMachine.host(options) : TargetMachine.host();
+            try {
+                // the module must describe the target of the JIT before it is hashed
+                machine.configure(module);
+                String key = objectCache != null ? objectCache.key(module, machine.triple(), options) : null;
+                if (key != null)
+                    object = objectCache.load(key);
+                cached = object != null;
+                if (!cached) {
+                    // the code generation is measured by the target machine
+                    object = machine.emitObject(module);
+                }
+                if (!cached && key != null) {
+                    try {
+                        objectCache.store(key, object);
+                    } catch (RuntimeException e) {
+                        LLVMDisposeMemoryBuffer(object);
+                        throw e;
+                    }
+                }
+            } finally {
+                machine.dispose();
+            }
+        } finally {
+            module.dispose();
+        }
+        addObjectFile(object, tracker);
+        return cached;
+    }
+
+    /**
+     * Add the specified object file to the main library of the JIT. The object file is linked when one of its
+     * symbols is looked up for the first time.
+     * <br>
+     * The ownership of the memory buffer is transferred to the JIT, therefore the buffer must not be used or
+     * disposed after this call.
+     *
+     * @param object the memory buffer that holds the object file
+     * @throws LLVMException if the object file could not be added, e.g. because it redefines an existing symbol
+     */
+    public void addObjectFile(LLVMMemoryBufferRef object) {
+        addObjectFile(object, null);
+    }
+
+    /**
+     * Add the specified object file to the main library of the JIT, and track its code with the specified resource
+     * tracker, so that it can be freed by {@link ResourceTracker#remove()}.
+     * <br>
+     * The ownership of the memory buffer is transferred to the JIT, therefore the buffer must not be used or
+     * disposed after this call.
+     *
+     * @param object the memory buffer that holds the object file
+     * @param tracker the resource tracker of the object file, or {@code null} to track it with the main library
+     * @throws LLVMException if the object file could not be added, e.g. because it redefines an existing symbol
+     */
+    public void addObjectFile(LLVMMemoryBufferRef object, ResourceTracker tracker) {
+        checkNotNull(object, "object");
+        if (tracker != null) {
+            // read the symbols of the object file, before the ownership of the buffer is transferred
+            List<String> symbols;
+            try {
+                symbols = read(object).symbols();
+            } catch (RuntimeException e) {
+                LLVMDisposeMemoryBuffer(object);
+                throw e;
+            }
+            LLVMException.check(LLVMOrcLLJITAddObjectFileWithRT(handle, tracker.handle(), object));
+            track(tracker, symbols);
+        } else
+            LLVMException.check(LLVMOrcLLJITAddObjectFile(handle, mainDylib, object));
+    }
+
+    /**
+     * Add the specified module to the main library of the JIT, so that each of its functions is compiled only
+     * when it is called, or looked up, for the first time.
+     * <br>
+     * Every function defined by the module is split into its own partition module, and the main library receives a
+     * lazy re-export for it: a stub that compiles the partition on the first call and then jumps to the compiled
+     * code. The other functions of the module are kept as {@code available_externally} definitions in each
+     * partition, so they can still be inlined, while calls that are not inlined go through their stubs. Global
+     * variables are emitted by a separate partition. Local symbols are renamed and given external linkage, so that
+     * the partitions can reference each other. Lazily added modules are never stored in the {@link ObjectCache}.
+     * <br>
+     * The module must have been created in the LLVM context of the specified thread-safe context. The ownership of
+     * the module is transferred to the JIT, therefore the module must not be used or disposed after this call.
+     *
+     * @param module the module to add to the JIT
+     * @param context the thread-safe context in which the module was created
+     * @throws LLVMException if the module could not be added, e.g. because it redefines an existing symbol
+     */
+    public void addLazyModule(IRModule module, ThreadSafeContext context) {
+        LLVMModuleRef source = checkNotNull(module, "module").handle();
+        checkNotNull(context, "context");
+        Scope.untrack(module);
+        // give the local symbols unique, external names, so that the partitions can reference each other
+        boolean hasGlobals = Partitions.externalize(source, "." + lazyModules.incrementAndGet());
+        List<String> functions = new ArrayList<>();
+        for (LLVMValueRef function = LLVMGetFirstFunction(source); function != null; function = LLVMGetNextFunction(function)) {
+            if (LLVMIsDeclaration(function) == 0)
+                functions.add(LLVMGetValueName(function).getString());
+        }
+        // create a partition for each function, which defines only the implementation of that function
+        for (String name : functions) {
+            LLVMModuleRef partition = LLVMCloneModule(source);
+            Partitions.retain(partition, name, name + IMPLEMENTATION_SUFFIX);
+            addIRModule(new IRModule(partition, module.context(), module.name() + "." + name), context, null);
+        }
+        // the source module itself becomes the partition of the global variables
+        Partitions.retainGlobals(source);
+        if (hasGlobals)
+            addIRModule(module, context, null);
+        else
+            module.dispose();
+        defineLazyReexports(functions);
+    }
+
+    /**
+     * Retrieve the indication, whether the code of the specified function has been materialized, i.e. handed to
+     * the compiler. Functions of lazily added modules are materialized when they are called for the first time,
+     * functions of other modules are materialized with the rest of their module, when any symbol of the module is
+     * looked up. Functions of modules that are added as object files, e.g. through the {@link ObjectCache}, are
+     * materialized when their object file is linked.
+     *
+     * @param name the unmangled name of the function
+     * @return {@code true} if the function has been materialized, {@code false} otherwise
+     */
+    public boolean isMaterialized(String name) {
+        checkNotNull(name, "name");
+        return materialized.contains(mangle(name)) || materialized.contains(mangle(name + IMPLEMENTATION_SUFFIX));
+    }
+
+    /**
+     * Retrieve the indication, whether the code of the specified function has been materialized.
+     *
+     * @param function the function of a module that was added to the JIT
+     * @return {@code true} if the function has been materialized, {@code false} otherwise
+     * @see #isMaterialized(String)
+     */
+    public boolean isMaterialized(IRFunction function) {
+        return isMaterialized(checkNotNull(function, "function").name());
+    }
+
+    /**
+     * Remove every module and object file that was added with the specified resource tracker from the JIT, and
+     * free their code and data, so they are no longer included in the {@link #residentMemory() resident memory}.
+     * The functions of the removed modules must not be called afterward, and the tracker must still be disposed.
+     *
+     * @param tracker the resource tracker to remove
+     * @throws LLVMException if the resources of the tracker could not be removed
+     */
+    public void remove(ResourceTracker tracker) {
+        checkNotNull(tracker, "tracker").remove();
+        Set<String> symbols = trackedSymbols.remove(tracker);
+        if (symbols == null)
+            return;
+        // the object files of the tracker are found by the symbols they define
+        Set<LinkedObject> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String symbol : symbols) {
+            LinkedObject object = linkedObjects.get(symbol);
+            if (object != null && removed.add(object))
+                unlink(object);
+        }
+        // modules that failed to compile are materialized without being linked
+        materialized.removeAll(symbols);
+    }
+
+    /**
+     * Retrieve the memory of the code and data of the object files, that are currently linked into the JIT.
+     * <br>
+     * The sizes are derived from the sections of the object files, as the memory manager of the JIT does not
+     * report its allocations. Modules that are added but not compiled yet are not included, and the code of removed
+     * modules is no longer included.
+     *
+     * @return the resident memory of the compiled code
+     */
+    public MemoryFootprint residentMemory() {
+        return new MemoryFootprint(codeBytes.get(), dataBytes.get());
+    }
+
+    /**
+     * Look up the address of the symbol with the specified name. The module that defines the symbol is compiled,
+     * if it has not been compiled yet.
+     *
+     * @param name the unmangled name of the symbol
+     * @return the address of the symbol
+     * @throws LLVMException if the symbol could not be found or its module could not be compiled
+     */
+    public long lookup(String name) {
+        try (LongPointer address = new LongPointer(1)) {
+            LLVMException.check(LLVMOrcLLJITLookup(handle, address, checkNotNull(name, "name")));
+            return address.get();
+        }
+    }
+
+    /**
+     * Look up the address of the specified function. The module that defines the function is compiled, if it has
+     * not been compiled yet.
+     *
+     * @param function the function to look up
+     * @return the address of the function
+     * @throws LLVMException if the function could not be found or its module could not be compiled
+     */
+    public long lookup(IRFunction function) {
+        return lookup(checkNotNull(function, "function").name());
+    }
+
+    /**
+     * Resolve the compiled code of the specified function, which can be called directly through the invokers of
+     * the returned native function. The module that defines the function is compiled, if it has not been compiled
+     * yet.
+     *
+     * @param function the function to resolve
+     * @return the native function
+     * @throws LLVMException if the function could not be found or its module could not be compiled
+     */
+    public NativeFunction nativeFunction(IRFunction function) {
+        long address = lookup(function);
+        return new NativeFunction(function.name(), address, function.type());
+    }
+
+    /**
+     * Dispose of the value handle held by this object.
+     */
+    @Override
+    public void dispose() {
+        LLVMErrorRef error = LLVMOrcDisposeLLJIT(handle);
+        // the stubs may only be released after the JIT, as they are referenced by its lazy re-exports
+        synchronized (this) {
+            if (stubsManager != null)
+                LLVMOrcDisposeIndirectStubsManager(stubsManager);
+            if (callThroughManager != null)
+                LLVMOrcDisposeLazyCallThroughManager(callThroughManager);
+        }
+        // the native thunks of the callbacks are a limited resource, so they are not left to the garbage collector
+        transform.deallocate();
+        objectTransform.deallocate();
+        LLVMException.check(error);
+    }
+
+    /**
+     * Define a lazy re-export in the main library for each of the specified functions, that redirects to the
+     * implementation symbol of the function.
+     *
+     * @param functions the unmangled names of the functions
+     */
+    private synchronized void defineLazyReexports(List<String> functions) {
+        if (functions.isEmpty())
+            return;
+        // create the managers of the lazy compilation stubs on first use
+        if (callThroughManager == null) {
+            LLVMOrcLazyCallThroughManagerRef manager = new LLVMOrcLazyCallThroughManagerRef();
+            try (BytePointer triple = new BytePointer(triple())) {
+                LLVMException.check(LLVMOrcCreateLocalLazyCallThroughManager(
+                    triple, LLVMOrcLLJITGetExecutionSession(handle), 0, manager
+                ));
+            }
+            callThroughManager = manager;
+            stubsManager = LLVMOrcCreateLocalIndirectStubsManager(triple());
+        }
+        // map each function name to its implementation symbol, the re-exports take the ownership of the names
+        try (LLVMOrcCSymbolAliasMapPair aliases = new LLVMOrcCSymbolAliasMapPair(functions.size())) {
+            for (int i = 0; i < functions.size(); i++) {
+                LLVMOrcCSymbolAliasMapPair alias = aliases.getPointer(i);
+                alias.Name(LLVMOrcLLJITMangleAndIntern(handle, functions.get(i)));
+                alias.Entry().Name(LLVMOrcLLJITMangleAndIntern(handle, functions.get(i) + IMPLEMENTATION_SUFFIX));
+                alias.Entry().Flags().GenericFlags((byte) (LLVMJITSymbolGenericFlagsExported | LLVMJITSymbolGenericFlagsCallable));
+            }
+            LLVMOrcMaterializationUnitRef unit = LLVMOrcLazyReexports(
+                callThroughManager, stubsManager, mainDylib, aliases, functions.size()
+            );
+            // the materialization unit remains owned by the caller, if it could not be defined
+            LLVMErrorRef error = LLVMOrcJITDylibDefine(mainDylib, unit);
+            if (error != null) {
+                LLVMOrcDisposeMaterializationUnit(unit);
+                throw LLVMException.of(error);
+            }
+        }
+    }
+
+    /**
+     * Record the symbols of a module that is about to be compiled.
+     *
+     * @param responsibility the materialization responsibility of the module
+     */
+    private void onMaterialize(LLVMOrcMaterializationResponsibilityRef responsibility) {
+        try (SizeTPointer count = new SizeTPointer(1)) {
+            LLVMOrcCSymbolFlagsMapPair symbols = LLVMOrcMaterializationResponsibilityGetSymbols(responsibility, count);
+            for (long i = 0; i < count.get(); i++) {
+                LLVMOrcCSymbolFlagsMapPair symbol = symbols.getPointer(i);
+                materialized.add(LLVMOrcSymbolStringPoolEntryStr(symbol.Name()).getString());
+            }
+            LLVMOrcDisposeCSymbolFlagsMap(symbols);
+        }
+    }
+
+    /**
+     * Measure the sections of an object file that is about to be linked, and record the symbols it defines.
+     *
+     * @param object the memory buffer that holds the object file, which remains owned by the JIT
+     * @throws LLVMException if the object file could not be read
+     */
+    private void onLink(LLVMMemoryBufferRef object) {
+        LinkedObject linked = read(object);
+        linked.symbols().forEach(name -> linkedObjects.put(name, linked));
+        // object files that bypass the IR transform layer are materialized when they are linked
+        materialized.addAll(linked.symbols());
+        codeBytes.addAndGet(linked.footprint().codeBytes());
+        dataBytes.addAndGet(linked.footprint().dataBytes());
+    }
+
+    /**
+     * Measure the sections of the specified object file, and collect the symbols it defines.
+     *
+     * @param object the memory buffer that holds the object file, which remains owned by the caller
+     * @return the footprint and the symbols of the object file
+     * @throws LLVMException if the object file could not be read
+     */
+    private LinkedObject read(LLVMMemoryBufferRef object) {
+        BytePointer error = new BytePointer();
+        LLVMBinaryRef binary = LLVMCreateBinary(object, null, error);
+        if (binary == null) {
+            try {
+                throw new LLVMException("Could not read object file: " + error.getString());
+            } finally {
+                LLVMDisposeMessage(error);
+            }
+        }
+        try {
+            long code = 0;
+            long data = 0;
+            LLVMSectionIteratorRef sections = LLVMObjectFileCopySectionIterator(binary);
+            for (; LLVMObjectFileIsSectionIteratorAtEnd(binary, sections) == 0; LLVMMoveToNextSection(sections)) {
+                String section = MemoryFootprint.nameOf(LLVMGetSectionName(sections));
+                if (MemoryFootprint.isCode(section))
+                    code += LLVMGetSectionSize(sections);
+                else if (MemoryFootprint.isData(section))
+                    data += LLVMGetSectionSize(sections);
+            }
+            // only the symbols that are contained in a section are defined by the object file
+            List<String> symbols = new ArrayList<>();
+            LLVMSymbolIteratorRef symbol = LLVMObjectFileCopySymbolIterator(binary);
+            for (; LLVMObjectFileIsSymbolIteratorAtEnd(binary, symbol) == 0; LLVMMoveToNextSymbol(symbol)) {
+                LLVMMoveToContainingSection(sections, symbol);
+                String name = MemoryFootprint.nameOf(LLVMGetSymbolName(symbol));
+                if (!name.isEmpty() && LLVMObjectFileIsSectionIteratorAtEnd(binary, sections) == 0)
+                    symbols.add(name);
+            }
+            LLVMDisposeSymbolIterator(symbol);
+            LLVMDisposeSectionIterator(sections);
+            return new LinkedObject(new MemoryFootprint(code, data), symbols);
+        } finally {
+            LLVMDisposeBinary(binary);
+        }
+    }
+
+    /**
+     * Forget the specified object file, whose code has been freed by the JIT.
+     *
+     * @param object the removed object file
+     */
+    private void unlink(LinkedObject object) {
+        for (String symbol : object.symbols()) {
+            linkedObjects.remove(symbol, object);
+            materialized.remove(symbol);
+        }
+        codeBytes.addAndGet(-object.footprint().codeBytes());
+        dataBytes.addAndGet(-object.footprint().dataBytes());
+    }
+
+    /**
+     * Record the specified symbols as defined by a module or object file of the specified resource tracker.
+     *
+     * @param tracker the resource tracker of the module or object file
+     * @param symbols the mangled names of the defined symbols
+     */
+    private void track(ResourceTracker tracker, Collection<String> symbols) {
+        trackedSymbols.computeIfAbsent(tracker, key -> ConcurrentHashMap.newKeySet()).addAll(symbols);
+    }
+
+    /**
+     * Collect the mangled names of the functions and global variables, that the specified module defines and
+     * exports to the other modules of the JIT.
+     *
+     * @param module the module to collect the symbols of
+     * @return the mangled names of the defined symbols
+     */
+    private Set<String> definedSymbols(LLVMModuleRef module) {
+        Set<String> symbols = new HashSet<>();
+        for (LLVMValueRef function = LLVMGetFirstFunction(module); function != null; function = LLVMGetNextFunction(function)) {
+            if (isExported(function))
+                symbols.add(mangle(LLVMGetValueName(function).getString()));
+        }
+        for (LLVMValueRef global = LLVMGetFirstGlobal(module); global != null; global = LLVMGetNextGlobal(global)) {
+            if (isExported(global))
+                symbols.add(mangle(LLVMGetValueName(global).getString()));
+        }
+        return symbols;
+    }
+
+    /**
+     * Retrieve the indication, whether the specified global value is defined and visible outside its module.
+     *
+     * @param value the function or global variable
+     * @return {@code true} if the value is an exported definition, {@code false} otherwise
+     */
+    private static boolean isExported(LLVMValueRef value) {
+        int linkage = LLVMGetLinkage(value);
+        return LLVMIsDeclaration(value) == 0 && linkage != LLVMInternalLinkage && linkage != LLVMPrivateLinkage;
+    }
+
+    /**
+     * Mangle the specified symbol name, the way the JIT does it for the target platform.
+     *
+     * @param name the unmangled name of the symbol
+     * @return the mangled name of the symbol
+     */
+    private String mangle(String name) {
+        LLVMOrcSymbolStringPoolEntryRef entry = LLVMOrcLLJITMangleAndIntern(handle, name);
+        try {
+            return LLVMOrcSymbolStringPoolEntryStr(entry).getString();
+        } finally {
+            LLVMOrcReleaseSymbolStringPoolEntry(entry);
+        }
+    }
+
+    /**
+     * Create a new JIT that generates code for the host machine, with the default code generation settings.
+     *
+     * @return a new ORC JIT
+     * @throws LLVMException if the JIT could not be created
+     */
+    public static OrcJit create() {
+        NativeTarget.initialize();
+        // detect the target triple and features of the host
+        LLVMOrcJITTargetMachineBuilderRef machineBuilder = new LLVMOrcJITTargetMachineBuilderRef();
+        LLVMException.check(LLVMOrcJITTargetMachineBuilderDetectHost(machineBuilder));
+        return create(machineBuilder, null, null);
+    }
+
+    /**
+     * Create a new JIT that generates code for the host machine, using the optimization level and the code model
+     * of the specified compiler options.
+     *
+     * @param options the options to use for the compiler
+     * @return a new ORC JIT
+     * @throws LLVMException if the JIT could not be created
+     */
+    public static OrcJit create(JitCompilerOptions options) {
+        return create(options, null);
+    }
+
+    /**
+     * Create a new JIT that generates code for the host machine, using the optimization level and the code model
+     * of the specified compiler options, and that stores the compiled modules in the specified object cache.
+     *
+     * @param options the options to use for the compiler
+     * @param objectCache the cache of the compiled modules, or {@code null} to disable caching
+     * @return a new ORC JIT
+     * @throws LLVMException if the JIT could not be created
+     */
+    public static OrcJit create(JitCompilerOptions options, ObjectCache objectCache) {
+        checkNotNull(options, "options");
+        // the target machine builder takes the ownership of the target machine
+        TargetMachine machine = TargetMachine.host(options);
+        return create(LLVMOrcJITTargetMachineBuilderCreateFromTargetMachine(machine.handle()), options, objectCache);
+    }
+
+    /**
+     * Create a new JIT that generates code with the specified target machine builder.
+     *
+     * @param machineBuilder the target machine builder, whose ownership is transferred to the JIT
+     * @param options the options that the target machine was created with, or {@code null} if unknown
+     * @param objectCache the cache of the compiled modules, or {@code null} to disable caching
+     * @return a new ORC JIT
+     */
+    private static OrcJit create(LLVMOrcJITTargetMachineBuilderRef machineBuilder, JitCompilerOptions options, ObjectCache objectCache) {
+        LLVMOrcLLJITBuilderRef builder = LLVMOrcCreateLLJITBuilder();
+        LLVMOrcLLJITBuilderSetJITTargetMachineBuilder(builder, machineBuilder);
+        // the JIT takes the ownership of the builder, even if the creation fails
+        LLVMOrcLLJITRef handle = new LLVMOrcLLJITRef();
+        LLVMException.check(LLVMOrcCreateLLJIT(handle, builder));
+        OrcJit jit = new OrcJit(handle, options, objectCache);
+        // resolve symbols that are not defined by any module from the current process
+        LLVMOrcDefinitionGeneratorRef generator = new LLVMOrcDefinitionGeneratorRef();
+        LLVMErrorRef error = LLVMOrcCreateDynamicLibrarySearchGeneratorForProcess(
+            generator, LLVMOrcLLJITGetGlobalPrefix(handle), null, null
+        );
+        if (error != null) {
+            jit.dispose();
+            throw LLVMException.of(error);
+        }
+        LLVMOrcJITDylibAddGenerator(jit.mainDylib, generator);
+        return jit;
+    }
+
+    /**
+     * Represents an object file that is linked into the JIT.
+     *
+     * @param footprint the memory of the code and data of the object file
+     * @param symbols the mangled names of the symbols defined by the object file
+     */
+    private record LinkedObject(MemoryFootprint footprint, List<String> symbols) {
+    }
+}
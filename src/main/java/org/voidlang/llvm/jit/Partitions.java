@@ -0,0 +1,121 @@
+package org.voidlang.llvm.jit;
+
+import org.bytedeco.llvm.LLVM.LLVMModuleRef;
+import org.bytedeco.llvm.LLVM.LLVMValueRef;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.type.IRFunctionType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents a utility class that rewrites the linkage of modules, so that they can be split into partitions that
+ * are compiled separately, but reference each other through the symbols of the JIT.
+ */
+class Partitions {
+    /**
+     * Collect the functions defined by the specified module, that are visible outside the module.
+     *
+     * @param module the module to inspect
+     * @return the type signatures of the exported functions, keyed by their names, in module order
+     */
+    static Map<String, IRFunctionType> exportedFunctions(IRModule module) {
+        Map<String, IRFunctionType> functions = new LinkedHashMap<>();
+        for (LLVMValueRef function = LLVMGetFirstFunction(module.handle()); function != null; function = LLVMGetNextFunction(function)) {
+            int linkage = LLVMGetLinkage(function);
+            if (LLVMIsDeclaration(function) != 0 || linkage == LLVMInternalLinkage || linkage == LLVMPrivateLinkage)
+                continue;
+            IRFunctionType type = IRFunctionType.of(LLVMGlobalGetValueType(function), module.context());
+            functions.put(LLVMGetValueName(function).getString(), type);
+        }
+        return functions;
+    }
+
+    /**
+     * Give the local definitions of the specified module unique names and external linkage, so that the other
+     * partitions can reference them.
+     *
+     * @param module the module to update
+     * @param suffix the suffix that makes the names of the local definitions unique within the JIT
+     * @return {@code true} if the module defines any global variables, {@code false} otherwise
+     */
+    static boolean externalize(LLVMModuleRef module, String suffix) {
+        for (LLVMValueRef function = LLVMGetFirstFunction(module); function != null; function = LLVMGetNextFunction(function)) {
+            if (LLVMIsDeclaration(function) == 0)
+                externalize(function, suffix);
+        }
+        boolean hasGlobals = false;
+        for (LLVMValueRef global = LLVMGetFirstGlobal(module); global != null; global = LLVMGetNextGlobal(global)) {
+            if (LLVMIsDeclaration(global) != 0)
+                continue;
+            externalize(global, suffix);
+            hasGlobals = true;
+        }
+        return hasGlobals;
+    }
+
+    /**
+     * Turn every definition of the specified module into an {@code available_externally} definition, except for
+     * the function with the specified name, which is renamed to the specified implementation name.
+     *
+     * @param module the module to update
+     * @param name the name of the function to keep, or {@code null} to keep no function
+     * @param implementation the new name of the kept function
+     */
+    static void retain(LLVMModuleRef module, String name, String implementation) {
+        for (LLVMValueRef function = LLVMGetFirstFunction(module); function != null; function = LLVMGetNextFunction(function)) {
+            if (LLVMIsDeclaration(function) != 0)
+                continue;
+            if (LLVMGetValueName(function).getString().equals(name))
+                LLVMSetValueName(function, implementation);
+            else
+                makeAvailableExternally(function);
+        }
+        for (LLVMValueRef global = LLVMGetFirstGlobal(module); global != null; global = LLVMGetNextGlobal(global)) {
+            if (LLVMIsDeclaration(global) == 0)
+                makeAvailableExternally(global);
+        }
+    }
+
+    /**
+     * Turn every function definition of the specified module into an {@code available_externally} definition,
+     * keeping only the global variable definitions.
+     *
+     * @param module the module to update
+     */
+    static void retainGlobals(LLVMModuleRef module) {
+        for (LLVMValueRef function = LLVMGetFirstFunction(module); function != null; function = LLVMGetNextFunction(function)) {
+            if (LLVMIsDeclaration(function) == 0)
+                makeAvailableExternally(function);
+        }
+    }
+
+    /**
+     * Give the specified global value a unique name and external linkage, if it is local to its module.
+     *
+     * @param value the global value to externalize
+     * @param suffix the suffix that makes the name of the value unique within the JIT
+     */
+    private static void externalize(LLVMValueRef value, String suffix) {
+        int linkage = LLVMGetLinkage(value);
+        if (linkage != LLVMInternalLinkage && linkage != LLVMPrivateLinkage)
+            return;
+        String name = LLVMGetValueName(value).getString();
+        LLVMSetValueName(value, (name.isEmpty() ? "__partition" : name) + suffix);
+        LLVMSetLinkage(value, LLVMExternalLinkage);
+        LLVMSetVisibility(value, LLVMDefaultVisibility);
+    }
+
+    /**
+     * Turn the specified definition into an {@code available_externally} definition, which may be used by the
+     * optimizer, but is not emitted by the code generator.
+     *
+     * @param value the global value to update
+     */
+    private static void makeAvailableExternally(LLVMValueRef value) {
+        LLVMSetLinkage(value, LLVMAvailableExternallyLinkage);
+        LLVMSetComdat(value, null);
+    }
+}
@@ -0,0 +1,39 @@
+package org.voidlang.llvm.jit;
+
+import org.bytedeco.llvm.LLVM.LLVMOrcResourceTrackerRef;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.error.LLVMException;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents a wrapper for an LLVM ORC resource tracker, which tracks the code and data that the {@link OrcJit}
+ * allocates for the modules and object files that are added with the tracker.
+ * <br>
+ * Removing a tracker removes the symbols of its modules from the JIT, and frees their code and data, so that the
+ * memory of short-lived code can be reclaimed without disposing the whole JIT. The compiled functions of the
+ * modules must not be called after the tracker has been removed. Prefer {@link OrcJit#remove(ResourceTracker)}, which also
+ * updates the {@link OrcJit#residentMemory() resident memory} of the JIT.
+ *
+ * @param handle the handle to the LLVM ORC resource tracker
+ */
+public record ResourceTracker(LLVMOrcResourceTrackerRef handle) implements Disposable {
+    /**
+     * Remove the symbols of the modules of the tracker from the JIT, and free their code and data. The tracker
+     * must not be used to add modules afterward, but it must still be disposed.
+     *
+     * @throws LLVMException if the resources could not be removed
+     */
+    public void remove() {
+        LLVMException.check(LLVMOrcResourceTrackerRemove(handle));
+    }
+
+    /**
+     * Dispose of the value handle held by this object. The resources of the tracker are kept by the JIT, unless
+     * the tracker has been {@link #remove() removed}, and are freed with the JIT.
+     */
+    @Override
+    public void dispose() {
+        LLVMOrcReleaseResourceTracker(handle);
+    }
+}
@@ -0,0 +1,41 @@
+package org.voidlang.llvm.jit;
+
+import org.bytedeco.llvm.LLVM.LLVMOrcThreadSafeContextRef;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.type.TypeTable;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents a wrapper for an LLVM ORC thread-safe context. It pairs an LLVM context with a lock, so that the
+ * {@link OrcJit} can compile the modules of the context on any thread.
+ * <br>
+ * The LLVM context is owned by the thread-safe context, therefore {@link IRContext#dispose()} must not be called
+ * on {@link #context()}. Modules that are added to the JIT keep the context alive, so this wrapper may be disposed
+ * as soon as no more modules are going to be created in it.
+ *
+ * @param handle the handle to the LLVM thread-safe context
+ * @param context the LLVM context that is guarded by the thread-safe context
+ */
+public record ThreadSafeContext(LLVMOrcThreadSafeContextRef handle, IRContext context) implements Disposable {
+    /**
+     * Dispose of the value handle held by this object.
+     */
+    @Override
+    public void dispose() {
+        // no more types are created in the context, even if the JIT keeps it alive for its modules
+        TypeTable.release(context);
+        LLVMOrcDisposeThreadSafeContext(handle);
+    }
+
+    /**
+     * Create a new thread-safe context with a new underlying LLVM context.
+     *
+     * @return a new thread-safe context
+     */
+    public static ThreadSafeContext create() {
+        LLVMOrcThreadSafeContextRef handle = LLVMOrcCreateNewThreadSafeContext();
+        return new ThreadSafeContext(handle, new IRContext(LLVMOrcThreadSafeContextGetContext(handle)));
+    }
+}
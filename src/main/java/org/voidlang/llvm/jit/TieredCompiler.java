@@ -0,0 +1,261 @@
+package org.voidlang.llvm.jit;
+
+import org.bytedeco.llvm.LLVM.LLVMMemoryBufferRef;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.module.OptimizationLevel;
+import org.voidlang.llvm.target.TargetMachine;
+import org.voidlang.llvm.type.IRFunctionType;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a JIT compiler that compiles functions in two tiers, to get both a short startup latency and a high
+ * steady-state throughput.
+ * <br>
+ * Modules are first compiled by an {@link OrcJit} without optimizations, which lets LLVM select instructions with
+ * FastISel. Calls through the returned {@link TieredFunction}s are counted, and when a function reaches the call
+ * threshold, it is recompiled at {@code O3} on a background thread, and its entry point is swapped to the optimized
+ * code.
+ * <br>
+ * A function is recompiled from a copy of its whole module, in which every other definition is kept as an
+ * {@code available_externally} definition, so the optimizer can inline the other functions, while the optimized
+ * object only defines the hot function. Only calls that go through the tiered function are redirected, native
+ * callers of the function keep calling the unoptimized code.
+ */
+public class TieredCompiler implements Disposable {
+    /**
+     * The suffix of the symbols that hold the optimized code of hot functions.
+     */
+    private static final String OPTIMIZED_SUFFIX = "$tier1";
+
+    /**
+     * The JIT that holds the code of both tiers.
+     */
+    private final OrcJit jit;
+
+    /**
+     * The number of calls after which a function is recompiled with optimizations.
+     */
+    private final long threshold;
+
+    /**
+     * The executor that recompiles the hot functions.
+     */
+    private final Executor executor;
+
+    /**
+     * The executor created by the compiler, which is shut down with it, or {@code null} if the executor was provided.
+     */
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * The options of the code generator of the unoptimized tier, which the JIT refers to until it is disposed.
+     */
+    private final JitCompilerOptions options;
+
+    /**
+     * The options of the code generator of the optimized tier.
+     */
+    private final JitCompilerOptions optimizedOptions;
+
+    /**
+     * The number of modules added to the compiler, used to give the local symbols of each module unique names.
+     */
+    private final AtomicLong modules = new AtomicLong();
+
+    /**
+     * Initialize the tiered compiler.
+     *
+     * @param jit the JIT that holds the code of both tiers
+     * @param options the options of the unoptimized tier, that the JIT was created with
+     * @param threshold the number of calls after which a function is recompiled
+     * @param executor the executor that recompiles the hot functions
+     * @param ownedExecutor the executor to shut down with the compiler, or {@code null}
+     */
+    private TieredCompiler(OrcJit jit, JitCompilerOptions options, long threshold, Executor executor, ExecutorService ownedExecutor) {
+        this.jit = jit;
+        this.options = options;
+        this.threshold = threshold;
+        this.executor = executor;
+        this.ownedExecutor = ownedExecutor;
+        this.optimizedOptions = JitCompilerOptions.create();
+        optimizedOptions.optimizationLevel(3);
+    }
+
+    public OrcJit jit() {
+        return this.jit;
+    }
+
+    public long threshold() {
+        return this.threshold;
+    }
+
+    /**
+     * Add the specified module to the compiler, and compile it right away without optimizations.
+     * <br>
+     * The module must have been created in the LLVM context of the specified thread-safe context. The ownership of
+     * the module is transferred to the compiler, therefore the module must not be used or disposed after this call.
+     *
+     * @param module the module to compile
+     * @param context the thread-safe context in which the module was created
+     * @return the tiered functions of the functions exported by the module, keyed by their names
+     * @throws org.voidlang.llvm.error.LLVMException if the module could not be added or compiled
+     */
+    public Map<String, TieredFunction> add(IRModule module, ThreadSafeContext context) {
+        Map<String, IRFunctionType> functions = Partitions.exportedFunctions(checkNotNull(module, "module"));
+        // the optimized code must reference the local symbols of the unoptimized module, so they are made external
+        Partitions.externalize(module.handle(), ".tier" + modules.incrementAndGet());
+        byte[] bitcode = module.bitcode();
+        jit.addModule(module, context);
+        Map<String, TieredFunction> tiered = new LinkedHashMap<>();
+        functions.forEach((name, type) -> tiered.put(
+            name, new TieredFunction(this, name, type, bitcode, Downcalls.downcall(jit.lookup(name), type))
+        ));
+        return Collections.unmodifiableMap(tiered);
+    }
+
+    /**
+     * Schedule the recompilation of the specified hot function on the executor of the compiler.
+     *
+     * @param function the function to recompile
+     */
+    void schedule(TieredFunction function) {
+        try {
+            CompletableFuture.supplyAsync(() -> recompile(function), executor).whenComplete(function::promote);
+        } catch (RejectedExecutionException e) {
+            // the compiler has been disposed, the function keeps its unoptimized code
+            function.promote(null, e);
+        }
+    }
+
+    /**
+     * Recompile the specified function with optimizations, and add the optimized code to the JIT.
+     *
+     * @param function the function to recompile
+     * @return the downcall handle of the optimized code
+     */
+    private MethodHandle recompile(TieredFunction function) {
+        // the bitcode is parsed in a fresh context, so the recompilation never touches the context of the module
+        IRContext context = IRContext.create();
+        try {
+            IRModule module = IRModule.parseBitcode(context, function.bitcode(), function.name());
+            try {
+                String implementation = function.name() + OPTIMIZED_SUFFIX;
+                Partitions.retain(module.handle(), function.name(), implementation);
+                IRFunctionType type = IRFunctionType.of(
+                    LLVMGlobalGetValueType(LLVMGetNamedFunction(module.handle(), implementation)), context
+                );
+                TargetMachine machine = TargetMachine.host(optimizedOptions);
+                LLVMMemoryBufferRef object;
+                try {
+                    machine.configure(module);
+                    module.optimize(OptimizationLevel.O3, machine);
+                    object = machine.emitObject(module);
+                } finally {
+                    machine.dispose();
+                }
+                jit.addObjectFile(object);
+                return Downcalls.downcall(jit.lookup(implementation), type);
+            } finally {
+                module.dispose();
+            }
+        } finally {
+            context.dispose();
+        }
+    }
+
+    /**
+     * Dispose of the value handle held by this object. Pending recompilations are completed first, if the executor
+     * was created by the compiler, then the JIT and the options of both tiers are disposed, which frees the code of
+     * every tiered function.
+     */
+    @Override
+    public void dispose() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            try {
+                while (!ownedExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // keep waiting for the recompilations that still use the JIT
+                }
+            } catch (InterruptedException e) {
+                // the JIT may still be in use, so it is leaked rather than disposed under running recompilations
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        jit.dispose();
+        options.dispose();
+        optimizedOptions.dispose();
+    }
+
+    /**
+     * Create a new tiered compiler, that recompiles hot functions on the specified executor.
+     *
+     * @param threshold the number of calls after which a function is recompiled with optimizations
+     * @param executor the executor that recompiles the hot functions
+     * @return a new tiered compiler
+     * @throws org.voidlang.llvm.error.LLVMException if the JIT could not be created
+     */
+    public static TieredCompiler create(long threshold, Executor executor) {
+        checkArgument(threshold > 0, "threshold must be positive");
+        checkNotNull(executor, "executor");
+        return create(threshold, executor, null);
+    }
+
+    /**
+     * Create a new tiered compiler, that recompiles hot functions on a single background thread.
+     *
+     * @param threshold the number of calls after which a function is recompiled with optimizations
+     * @return a new tiered compiler
+     * @throws org.voidlang.llvm.error.LLVMException if the JIT could not be created
+     */
+    public static TieredCompiler create(long threshold) {
+        checkArgument(threshold > 0, "threshold must be positive");
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "llvm-tiered-compiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return create(threshold, executor, executor);
+    }
+
+    /**
+     * Create a new tiered compiler, with the JIT of the unoptimized tier.
+     *
+     * @param threshold the number of calls after which a function is recompiled with optimizations
+     * @param executor the executor that recompiles the hot functions
+     * @param ownedExecutor the executor to shut down with the compiler, or {@code null}
+     * @return a new tiered compiler
+     */
+    private static TieredCompiler create(long threshold, Executor executor, ExecutorService ownedExecutor) {
+        // the target machine of the JIT selects instructions with FastISel by default at O0
+        JitCompilerOptions options = JitCompilerOptions.create();
+        options.optimizationLevel(0);
+        OrcJit jit;
+        try {
+            jit = OrcJit.create(options);
+        } catch (RuntimeException e) {
+            options.dispose();
+            if (ownedExecutor != null)
+                ownedExecutor.shutdown();
+            throw e;
+        }
+        return new TieredCompiler(jit, options, threshold, executor, ownedExecutor);
+    }
+}
@@ -0,0 +1,186 @@
+package org.voidlang.llvm.jit;
+
+import org.voidlang.llvm.type.IRFunctionType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Represents a function compiled by a {@link TieredCompiler}, whose entry point is replaced by optimized code once
+ * the function has been called often enough.
+ * <br>
+ * Calls go through a mutable call site, which initially targets the unoptimized code and counts the calls. When the
+ * call count reaches the threshold of the compiler, the function is recompiled in the background, and the call site
+ * is switched to the optimized code, which is no longer counted. Invokers created before the switch pick up the
+ * optimized code as well.
+ */
+public class TieredFunction implements Invocable {
+    /**
+     * The handle of the method that counts the calls of a function.
+     */
+    private static final MethodHandle COUNT;
+
+    static {
+        try {
+            COUNT = MethodHandles.lookup().findVirtual(TieredFunction.class, "count", MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The compiler that recompiles the function, when it becomes hot.
+     */
+    private final TieredCompiler compiler;
+
+    /**
+     * The name of the function.
+     */
+    private final String name;
+
+    /**
+     * The type signature of the function.
+     */
+    private final IRFunctionType type;
+
+    /**
+     * The bitcode of the module that defines the function, which is recompiled with optimizations.
+     */
+    private final byte[] bitcode;
+
+    /**
+     * The call site that dispatches to the current code of the function.
+     */
+    private final MutableCallSite callSite;
+
+    /**
+     * The handle that calls the current target of the call site.
+     */
+    private final MethodHandle invoker;
+
+    /**
+     * The indication, whether the recompilation of the function has been scheduled.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * The future that completes, when the optimized code of the function has been installed.
+     */
+    private final CompletableFuture<Void> optimization = new CompletableFuture<>();
+
+    /**
+     * The number of calls of the unoptimized code. The counter is not synchronized, so concurrent calls may be lost,
+     * which only delays the recompilation.
+     */
+    private long calls;
+
+    /**
+     * Initialize the tiered function with the unoptimized code of the function.
+     *
+     * @param compiler the compiler that recompiles the function
+     * @param name the name of the function
+     * @param type the type signature of the function
+     * @param bitcode the bitcode of the module that defines the function
+     * @param unoptimized the downcall handle of the unoptimized code
+     */
+    TieredFunction(TieredCompiler compiler, String name, IRFunctionType type, byte[] bitcode, MethodHandle unoptimized) {
+        this.compiler = compiler;
+        this.name = name;
+        this.type = type;
+        this.bitcode = bitcode;
+        // count each call before dispatching to the unoptimized code
+        this.callSite = new MutableCallSite(MethodHandles.foldArguments(unoptimized, COUNT.bindTo(this)));
+        this.invoker = callSite.dynamicInvoker();
+    }
+
+    @Override
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public IRFunctionType type() {
+        return this.type;
+    }
+
+    /**
+     * Retrieve the bitcode of the module that defines the function.
+     *
+     * @return the bitcode of the module
+     */
+    byte[] bitcode() {
+        return this.bitcode;
+    }
+
+    /**
+     * Retrieve a handle that calls the current code of the function. The handle keeps following the call site of the
+     * function, so it calls the optimized code, once the function has been recompiled. The same handle is returned
+     * by every call of this method.
+     *
+     * @return a handle that calls the function
+     */
+    @Override
+    public MethodHandle handle() {
+        return this.invoker;
+    }
+
+    /**
+     * Retrieve the number of calls of the unoptimized code of the function. The count is approximate, if the function
+     * is called from multiple threads.
+     *
+     * @return the number of counted calls
+     */
+    public long calls() {
+        return this.calls;
+    }
+
+    /**
+     * Retrieve the indication, whether the optimized code of the function has been installed.
+     *
+     * @return {@code true} if the function calls optimized code, {@code false} otherwise
+     */
+    public boolean isOptimized() {
+        return optimization.isDone() && !optimization.isCompletedExceptionally();
+    }
+
+    /**
+     * Retrieve the future that completes, when the optimized code of the function has been installed, or
+     * completes exceptionally, if the function could not be recompiled. The function keeps calling the unoptimized
+     * code after a failed recompilation.
+     *
+     * @return the future of the recompilation
+     */
+    public CompletableFuture<Void> optimization() {
+        return this.optimization;
+    }
+
+    /**
+     * Count a call of the unoptimized code, and schedule the recompilation of the function, when the call count
+     * reaches the threshold of the compiler.
+     */
+    private void count() {
+        if (++calls >= compiler.threshold() && scheduled.compareAndSet(false, true))
+            compiler.schedule(this);
+    }
+
+    /**
+     * Switch the call site of the function to the optimized code, or record the failure of the recompilation.
+     *
+     * @param optimized the downcall handle of the optimized code, or {@code null} if the recompilation failed
+     * @param failure the reason of the failure, or {@code null} if the recompilation succeeded
+     */
+    void promote(MethodHandle optimized, Throwable failure) {
+        if (failure != null) {
+            optimization.completeExceptionally(failure);
+            return;
+        }
+        callSite.setTarget(optimized);
+        // make the new target visible to threads that have already linked the call site
+        MutableCallSite.syncAll(new MutableCallSite[] { callSite });
+        optimization.complete(null);
+    }
+}
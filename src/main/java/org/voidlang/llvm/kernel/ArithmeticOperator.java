@@ -0,0 +1,35 @@
+package org.voidlang.llvm.kernel;
+
+/**
+ * Represents an enumeration of the binary arithmetic operators of an {@link Expression}.
+ * <br>
+ * The operators follow the semantics of Java: integer operations wrap around on overflow, division rounds towards
+ * zero, and the remainder takes the sign of the dividend. As a kernel has no way to throw, an integer division or
+ * remainder by zero results in {@code 0}.
+ */
+public enum ArithmeticOperator {
+    /**
+     * `ADD` indicates, that the operands are added.
+     */
+    ADD,
+
+    /**
+     * `SUBTRACT` indicates, that the right operand is subtracted from the left one.
+     */
+    SUBTRACT,
+
+    /**
+     * `MULTIPLY` indicates, that the operands are multiplied.
+     */
+    MULTIPLY,
+
+    /**
+     * `DIVIDE` indicates, that the left operand is divided by the right one.
+     */
+    DIVIDE,
+
+    /**
+     * `REMAINDER` indicates, that the remainder of the division of the left operand by the right one is taken.
+     */
+    REMAINDER
+}
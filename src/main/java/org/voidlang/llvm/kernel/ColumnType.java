@@ -0,0 +1,101 @@
+package org.voidlang.llvm.kernel;
+
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.type.IRType;
+import org.voidlang.llvm.type.IRTypes;
+
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Represents an enumeration of the types of the values of a column, and of the results of an {@link Expression}.
+ * <br>
+ * The values of a column are stored contiguously off-heap, in the native byte order, with the layout of the
+ * corresponding Java primitive. Booleans are stored as one byte per value, which is {@code 0} for {@code false}
+ * and {@code 1} for {@code true}.
+ */
+public enum ColumnType {
+    /**
+     * `BOOLEAN` indicates, that the values are booleans, that are stored as bytes.
+     */
+    BOOLEAN(ValueLayout.JAVA_BYTE),
+
+    /**
+     * `INT` indicates, that the values are 32-bit signed integers.
+     */
+    INT(ValueLayout.JAVA_INT),
+
+    /**
+     * `LONG` indicates, that the values are 64-bit signed integers.
+     */
+    LONG(ValueLayout.JAVA_LONG),
+
+    /**
+     * `DOUBLE` indicates, that the values are 64-bit floating-point numbers.
+     */
+    DOUBLE(ValueLayout.JAVA_DOUBLE);
+
+    /**
+     * The layout of a stored value of the type.
+     */
+    private final ValueLayout layout;
+
+    ColumnType(ValueLayout layout) {
+        this.layout = layout;
+    }
+
+    public ValueLayout layout() {
+        return this.layout;
+    }
+
+    /**
+     * Retrieve the number of bytes of a stored value of the type.
+     *
+     * @return the size of a value, in bytes
+     */
+    public long byteSize() {
+        return layout.byteSize();
+    }
+
+    /**
+     * Retrieve the indication, whether the values of the type are integers.
+     *
+     * @return {@code true} if the type is {@link #INT} or {@link #LONG}, {@code false} otherwise
+     */
+    public boolean isInteger() {
+        return this == INT || this == LONG;
+    }
+
+    /**
+     * Retrieve the indication, whether arithmetic operations can be applied to the values of the type.
+     *
+     * @return {@code true} if the type is numeric, {@code false} for {@link #BOOLEAN}
+     */
+    public boolean isNumeric() {
+        return this != BOOLEAN;
+    }
+
+    /**
+     * Retrieve the LLVM type, that holds a value of the type in a register, e.g. {@code i1} for booleans.
+     *
+     * @param context the context of the type
+     * @return the LLVM type of a value
+     */
+    public IRType valueType(IRContext context) {
+        return switch (this) {
+            case BOOLEAN -> IRTypes.ofInt1(context);
+            case INT -> IRTypes.ofInt32(context);
+            case LONG -> IRTypes.ofInt64(context);
+            case DOUBLE -> IRTypes.ofDouble(context);
+        };
+    }
+
+    /**
+     * Retrieve the LLVM type, that holds a value of the type in memory, e.g. {@code i8} for booleans.
+     *
+     * @param context the context of the type
+     * @return the LLVM type of a stored value
+     */
+    public IRType storageType(IRContext context) {
+        return this == BOOLEAN ? IRTypes.ofInt8(context) : valueType(context);
+    }
+}
@@ -0,0 +1,74 @@
+package org.voidlang.llvm.kernel;
+
+import org.voidlang.llvm.instruction.FloatPredicate;
+import org.voidlang.llvm.instruction.IntPredicate;
+
+/**
+ * Represents an enumeration of the comparison operators of an {@link Expression}.
+ * <br>
+ * The operators follow the semantics of Java: every comparison with a NaN operand is {@code false}, except for
+ * {@link #NOT_EQUAL}, which is {@code true}.
+ */
+public enum ComparisonOperator {
+    /**
+     * `EQUAL` indicates, that the operands are equal.
+     */
+    EQUAL(IntPredicate.EQUAL, FloatPredicate.ORDERED_EQUAL),
+
+    /**
+     * `NOT_EQUAL` indicates, that the operands are not equal.
+     */
+    NOT_EQUAL(IntPredicate.NOT_EQUAL, FloatPredicate.UNORDERED_NOT_EQUAL),
+
+    /**
+     * `LESS` indicates, that the left operand is less than the right one.
+     */
+    LESS(IntPredicate.SIGNED_LESS, FloatPredicate.ORDERED_LESS),
+
+    /**
+     * `LESS_OR_EQUAL` indicates, that the left operand is less than or equal to the right one.
+     */
+    LESS_OR_EQUAL(IntPredicate.SIGNED_LESS_OR_EQUAL, FloatPredicate.ORDERED_LESS_OR_EQUAL),
+
+    /**
+     * `GREATER` indicates, that the left operand is greater than the right one.
+     */
+    GREATER(IntPredicate.SIGNED_GREATER, FloatPredicate.ORDERED_GREATER),
+
+    /**
+     * `GREATER_OR_EQUAL` indicates, that the left operand is greater than or equal to the right one.
+     */
+    GREATER_OR_EQUAL(IntPredicate.SIGNED_GREATER_OR_EQUAL, FloatPredicate.ORDERED_GREATER_OR_EQUAL);
+
+    /**
+     * The predicate that compares integer operands.
+     */
+    private final IntPredicate intPredicate;
+
+    /**
+     * The predicate that compares floating-point operands.
+     */
+    private final FloatPredicate floatPredicate;
+
+    ComparisonOperator(IntPredicate intPredicate, FloatPredicate floatPredicate) {
+        this.intPredicate = intPredicate;
+        this.floatPredicate = floatPredicate;
+    }
+
+    public IntPredicate intPredicate() {
+        return this.intPredicate;
+    }
+
+    public FloatPredicate floatPredicate() {
+        return this.floatPredicate;
+    }
+
+    /**
+     * Retrieve the indication, whether the operator tests for equality, which also applies to booleans.
+     *
+     * @return {@code true} for {@link #EQUAL} and {@link #NOT_EQUAL}, {@code false} otherwise
+     */
+    public boolean isEquality() {
+        return this == EQUAL || this == NOT_EQUAL;
+    }
+}
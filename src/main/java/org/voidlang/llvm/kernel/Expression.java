@@ -0,0 +1,369 @@
+package org.voidlang.llvm.kernel;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a typed expression over the values of a row of columns, that is compiled to a {@link Kernel} by the
+ * {@link KernelCompiler}.
+ * <br>
+ * Expressions are immutable trees, whose nodes check the types of their operands when they are created. Operands
+ * of binary operations must have the same type, values of different types are converted explicitly with
+ * {@link #cast(Expression, ColumnType)}. Expressions are compared structurally, so equal trees compile to equal
+ * kernels.
+ */
+public sealed interface Expression {
+    /**
+     * Retrieve the type of the result of the expression.
+     *
+     * @return the result type
+     */
+    ColumnType type();
+
+    /**
+     * Represents the value of a column in the current row.
+     *
+     * @param index the index of the column in the column array of the kernel
+     * @param type the type of the values of the column
+     */
+    record Column(int index, ColumnType type) implements Expression {
+        public Column {
+            checkArgument(index >= 0, "index must not be negative");
+            checkNotNull(type, "type");
+        }
+    }
+
+    /**
+     * Represents a constant value. The bits of {@link ColumnType#DOUBLE} constants are their raw IEEE 754
+     * representation, the bits of {@link ColumnType#BOOLEAN} constants are {@code 0} or {@code 1}.
+     *
+     * @param type the type of the constant
+     * @param bits the bits of the value of the constant
+     */
+    record Constant(ColumnType type, long bits) implements Expression {
+        public Constant {
+            checkNotNull(type, "type");
+            checkArgument(type != ColumnType.BOOLEAN || bits == 0 || bits == 1, "Boolean constant must be 0 or 1");
+            checkArgument(type != ColumnType.INT || bits == (int) bits, "Int constant out of range: %s", bits);
+        }
+
+        /**
+         * Retrieve the value of a {@link ColumnType#DOUBLE} constant.
+         *
+         * @return the floating-point value of the constant
+         */
+        public double doubleValue() {
+            return Double.longBitsToDouble(bits);
+        }
+    }
+
+    /**
+     * Represents a binary arithmetic operation on numeric operands of the same type.
+     *
+     * @param operator the arithmetic operator
+     * @param left the left operand
+     * @param right the right operand
+     */
+    record Arithmetic(ArithmeticOperator operator, Expression left, Expression right) implements Expression {
+        public Arithmetic {
+            checkNotNull(operator, "operator");
+            checkArgument(checkNotNull(left, "left").type().isNumeric(), "Operand of %s must be numeric", operator);
+            checkArgument(left.type() == checkNotNull(right, "right").type(), "Operands of %s must have the same type", operator);
+        }
+
+        @Override
+        public ColumnType type() {
+            return left.type();
+        }
+    }
+
+    /**
+     * Represents the negation of a numeric operand.
+     *
+     * @param operand the operand to negate
+     */
+    record Negate(Expression operand) implements Expression {
+        public Negate {
+            checkArgument(checkNotNull(operand, "operand").type().isNumeric(), "Operand of negation must be numeric");
+        }
+
+        @Override
+        public ColumnType type() {
+            return operand.type();
+        }
+    }
+
+    /**
+     * Represents a comparison of operands of the same type. Booleans may only be compared for equality.
+     *
+     * @param operator the comparison operator
+     * @param left the left operand
+     * @param right the right operand
+     */
+    record Comparison(ComparisonOperator operator, Expression left, Expression right) implements Expression {
+        public Comparison {
+            checkNotNull(operator, "operator");
+            checkArgument(checkNotNull(left, "left").type() == checkNotNull(right, "right").type(), "Operands of %s must have the same type", operator);
+            checkArgument(left.type().isNumeric() || operator.isEquality(), "Booleans cannot be compared with %s", operator);
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.BOOLEAN;
+        }
+    }
+
+    /**
+     * Represents a binary logical operation on boolean operands.
+     *
+     * @param operator the logical operator
+     * @param left the left operand
+     * @param right the right operand
+     */
+    record Logical(LogicalOperator operator, Expression left, Expression right) implements Expression {
+        public Logical {
+            checkNotNull(operator, "operator");
+            checkArgument(checkNotNull(left, "left").type() == ColumnType.BOOLEAN, "Operands of %s must be booleans", operator);
+            checkArgument(checkNotNull(right, "right").type() == ColumnType.BOOLEAN, "Operands of %s must be booleans", operator);
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.BOOLEAN;
+        }
+    }
+
+    /**
+     * Represents the logical negation of a boolean operand.
+     *
+     * @param operand the operand to negate
+     */
+    record Not(Expression operand) implements Expression {
+        public Not {
+            checkArgument(checkNotNull(operand, "operand").type() == ColumnType.BOOLEAN, "Operand of not must be a boolean");
+        }
+
+        @Override
+        public ColumnType type() {
+            return ColumnType.BOOLEAN;
+        }
+    }
+
+    /**
+     * Represents the conversion of an operand to another type, with the semantics of a Java cast. Floating-point
+     * values are rounded towards zero and saturate at the bounds of the integer type, NaN converts to {@code 0}.
+     * Numbers convert to {@code true}, if they are not zero, and booleans convert to {@code 0} or {@code 1}.
+     *
+     * @param operand the operand to convert
+     * @param type the type to convert the operand to
+     */
+    record Cast(Expression operand, ColumnType type) implements Expression {
+        public Cast {
+            checkNotNull(operand, "operand");
+            checkNotNull(type, "type");
+        }
+    }
+
+    /**
+     * Represents the selection of one of two values of the same type, depending on a boolean condition. Both values
+     * are evaluated, so the selection does not branch.
+     *
+     * @param condition the condition that selects the value
+     * @param thenValue the result, if the condition is {@code true}
+     * @param elseValue the result, if the condition is {@code false}
+     */
+    record Conditional(Expression condition, Expression thenValue, Expression elseValue) implements Expression {
+        public Conditional {
+            checkArgument(checkNotNull(condition, "condition").type() == ColumnType.BOOLEAN, "Condition must be a boolean");
+            checkArgument(checkNotNull(thenValue, "thenValue").type() == checkNotNull(elseValue, "elseValue").type(), "Values of a conditional must have the same type");
+        }
+
+        @Override
+        public ColumnType type() {
+            return thenValue.type();
+        }
+    }
+
+    /**
+     * Create a new expression that reads the column at the specified index.
+     *
+     * @param index the index of the column
+     * @param type the type of the values of the column
+     * @return a new column expression
+     */
+    static Expression column(int index, ColumnType type) {
+        return new Column(index, type);
+    }
+
+    /**
+     * Create a new boolean constant.
+     *
+     * @param value the value of the constant
+     * @return a new constant expression
+     */
+    static Expression constant(boolean value) {
+        return new Constant(ColumnType.BOOLEAN, value ? 1 : 0);
+    }
+
+    /**
+     * Create a new {@link ColumnType#INT} constant.
+     *
+     * @param value the value of the constant
+     * @return a new constant expression
+     */
+    static Expression constant(int value) {
+        return new Constant(ColumnType.INT, value);
+    }
+
+    /**
+     * Create a new {@link ColumnType#LONG} constant.
+     *
+     * @param value the value of the constant
+     * @return a new constant expression
+     */
+    static Expression constant(long value) {
+        return new Constant(ColumnType.LONG, value);
+    }
+
+    /**
+     * Create a new {@link ColumnType#DOUBLE} constant.
+     *
+     * @param value the value of the constant
+     * @return a new constant expression
+     */
+    static Expression constant(double value) {
+        return new Constant(ColumnType.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Create a new expression that adds the specified operands.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return a new arithmetic expression
+     */
+    static Expression add(Expression left, Expression right) {
+        return new Arithmetic(ArithmeticOperator.ADD, left, right);
+    }
+
+    /**
+     * Create a new expression that subtracts the right operand from the left one.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return a new arithmetic expression
+     */
+    static Expression subtract(Expression left, Expression right) {
+        return new Arithmetic(ArithmeticOperator.SUBTRACT, left, right);
+    }
+
+    /**
+     * Create a new expression that multiplies the specified operands.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return a new arithmetic expression
+     */
+    static Expression multiply(Expression left, Expression right) {
+        return new Arithmetic(ArithmeticOperator.MULTIPLY, left, right);
+    }
+
+    /**
+     * Create a new expression that divides the left operand by the right one.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return a new arithmetic expression
+     */
+    static Expression divide(Expression left, Expression right) {
+        return new Arithmetic(ArithmeticOperator.DIVIDE, left, right);
+    }
+
+    /**
+     * Create a new expression that computes the remainder of the division of the left operand by the right one.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return a new arithmetic expression
+     */
+    static Expression remainder(Expression left, Expression right) {
+        return new Arithmetic(ArithmeticOperator.REMAINDER, left, right);
+    }
+
+    /**
+     * Create a new expression that negates the specified numeric operand.
+     *
+     * @param operand the operand to negate
+     * @return a new negation expression
+     */
+    static Expression negate(Expression operand) {
+        return new Negate(operand);
+    }
+
+    /**
+     * Create a new expression that compares the specified operands.
+     *
+     * @param operator the comparison operator
+     * @param left the left operand
+     * @param right the right operand
+     * @return a new comparison expression
+     */
+    static Expression compare(ComparisonOperator operator, Expression left, Expression right) {
+        return new Comparison(operator, left, right);
+    }
+
+    /**
+     * Create a new expression that is {@code true}, if both operands are {@code true}.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return a new logical expression
+     */
+    static Expression and(Expression left, Expression right) {
+        return new Logical(LogicalOperator.AND, left, right);
+    }
+
+    /**
+     * Create a new expression that is {@code true}, if any of the operands is {@code true}.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return a new logical expression
+     */
+    static Expression or(Expression left, Expression right) {
+        return new Logical(LogicalOperator.OR, left, right);
+    }
+
+    /**
+     * Create a new expression that is {@code true}, if the specified operand is {@code false}.
+     *
+     * @param operand the operand to negate
+     * @return a new logical expression
+     */
+    static Expression not(Expression operand) {
+        return new Not(operand);
+    }
+
+    /**
+     * Create a new expression that converts the specified operand to the specified type.
+     *
+     * @param operand the operand to convert
+     * @param type the type to convert the operand to
+     * @return the operand, if it has the type already, otherwise a new cast expression
+     */
+    static Expression cast(Expression operand, ColumnType type) {
+        return checkNotNull(operand, "operand").type() == type ? operand : new Cast(operand, type);
+    }
+
+    /**
+     * Create a new expression that selects one of two values, depending on the specified condition.
+     *
+     * @param condition the condition that selects the value
+     * @param thenValue the result, if the condition is {@code true}
+     * @param elseValue the result, if the condition is {@code false}
+     * @return a new conditional expression
+     */
+    static Expression conditional(Expression condition, Expression thenValue, Expression elseValue) {
+        return new Conditional(condition, thenValue, elseValue);
+    }
+}
@@ -0,0 +1,113 @@
+package org.voidlang.llvm.kernel;
+
+import org.voidlang.llvm.jit.Invocable.PointerPointerLongConsumer;
+import org.voidlang.llvm.jit.NativeFunction;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents an {@link Expression} that has been compiled to a native loop by the {@link KernelCompiler}, which
+ * evaluates the expression for a batch of rows of off-heap columns, and writes the results to an output buffer.
+ * <br>
+ * The columns and the output buffer hold the values of their rows contiguously, with the layout of their
+ * {@link ColumnType}. The output buffer must not overlap any of the columns, as the generated loop assumes that
+ * writing a result never changes a column, so in-place projections need a separate output buffer. A kernel may be
+ * evaluated by multiple threads at the same time, as long as they write to different output buffers.
+ *
+ * @param name the name of the compiled function
+ * @param expression the expression evaluated by the kernel
+ * @param columnTypes the types of the columns, indexed by the column index, with {@code null} for unreferenced
+ *                    columns
+ * @param function the compiled function of the kernel
+ * @param invoker the invoker of the compiled function
+ */
+public record Kernel(String name, Expression expression, List<ColumnType> columnTypes, NativeFunction function, PointerPointerLongConsumer invoker) {
+    /**
+     * Initialize the kernel with the specified function and invoker.
+     *
+     * @param name the name of the compiled function
+     * @param expression the expression evaluated by the kernel
+     * @param columnTypes the types of the columns
+     * @param function the compiled function of the kernel
+     * @param invoker the invoker of the compiled function
+     */
+    public Kernel {
+        checkNotNull(name, "name");
+        checkNotNull(expression, "expression");
+        checkNotNull(columnTypes, "columnTypes");
+        checkNotNull(function, "function");
+        checkNotNull(invoker, "invoker");
+    }
+
+    /**
+     * Retrieve the type of the values that the kernel writes to the output buffer.
+     *
+     * @return the result type
+     */
+    public ColumnType resultType() {
+        return expression.type();
+    }
+
+    /**
+     * Evaluate the expression for the specified number of rows, without checking the arguments. This does not
+     * allocate any memory, so it is meant for callers that keep the column array of a batch around. The behavior is
+     * undefined, if the output buffer overlaps a column.
+     *
+     * @param columns the address of an array of the 64-bit addresses of the columns
+     * @param output the address of the output buffer
+     * @param rows the number of rows to evaluate
+     */
+    public void evaluate(long columns, long output, long rows) {
+        invoker.accept(columns, output, rows);
+    }
+
+    /**
+     * Evaluate the expression for the specified number of rows of the specified columns.
+     *
+     * @param columns the native segments of the columns, indexed by the column index, which may contain
+     *                {@code null} for the columns that are not referenced by the expression
+     * @param output the native segment of the output buffer
+     * @param rows the number of rows to evaluate
+     * @throws IllegalArgumentException if a segment is not native or too small for the number of rows, or if the
+     *                                  output overlaps a column
+     */
+    public void evaluate(MemorySegment[] columns, MemorySegment output, long rows) {
+        checkNotNull(columns, "columns");
+        checkArgument(columns.length >= columnTypes.size(), "Kernel %s requires %s columns", name, columnTypes.size());
+        checkArgument(rows >= 0, "rows must not be negative");
+        checkSegment(checkNotNull(output, "output"), resultType(), rows, "output");
+        MemorySegment written = output.asSlice(0, resultType().byteSize() * rows);
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment addresses = arena.allocate(JAVA_LONG.byteSize() * columns.length, JAVA_LONG.byteAlignment());
+            for (int i = 0; i < columns.length; i++) {
+                ColumnType type = i < columnTypes.size() ? columnTypes.get(i) : null;
+                if (type != null) {
+                    checkSegment(checkNotNull(columns[i], "columns[" + i + "]"), type, rows, "columns[" + i + "]");
+                    MemorySegment read = columns[i].asSlice(0, type.byteSize() * rows);
+                    checkArgument(written.asOverlappingSlice(read).isEmpty(), "output overlaps columns[%s]", i);
+                }
+                addresses.setAtIndex(JAVA_LONG, i, columns[i] != null ? columns[i].address() : 0);
+            }
+            invoker.accept(addresses.address(), output.address(), rows);
+        }
+    }
+
+    /**
+     * Check that the specified segment is native and holds the specified number of values of the specified type.
+     *
+     * @param segment the segment to check
+     * @param type the type of the values of the segment
+     * @param rows the number of values
+     * @param name the name of the segment in the error message
+     */
+    private static void checkSegment(MemorySegment segment, ColumnType type, long rows, String name) {
+        checkArgument(segment.isNative(), "%s must be a native segment", name);
+        checkArgument(segment.byteSize() / type.byteSize() >= rows, "%s holds fewer than %s values", name, rows);
+    }
+}
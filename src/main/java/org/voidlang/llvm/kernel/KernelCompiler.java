@@ -0,0 +1,203 @@
+package org.voidlang.llvm.kernel;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.error.LLVMException;
+import org.voidlang.llvm.error.VerificationFailureAction;
+import org.voidlang.llvm.jit.CompiledModule;
+import org.voidlang.llvm.jit.JitCompilerOptions;
+import org.voidlang.llvm.jit.NativeFunction;
+import org.voidlang.llvm.jit.OrcJit;
+import org.voidlang.llvm.jit.ThreadSafeContext;
+import org.voidlang.llvm.metrics.CompilationMetrics;
+import org.voidlang.llvm.metrics.CompilationPhase;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.module.OptimizationLevel;
+import org.voidlang.llvm.target.TargetMachine;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a compiler that turns {@link Expression}s into {@link Kernel}s, native loops that evaluate an
+ * expression for a whole batch of rows, instead of interpreting it row by row in Java.
+ * <br>
+ * Each kernel is generated into its own module, optimized for the CPU of the {@link JitCompilerOptions}, so the
+ * loop vectorizer emits the widest vector instructions that the CPU supports, and compiled by an {@link OrcJit}
+ * that is owned by the compiler. Kernels are called through foreign function downcalls, and stay valid until the
+ * compiler is disposed.
+ * <br>
+ * Kernels may be compiled by multiple threads at the same time, as each kernel is generated in a separate
+ * {@link ThreadSafeContext}.
+ */
+public class KernelCompiler implements Disposable {
+    /**
+     * The prefix of the names of the kernels, that are named by the compiler.
+     */
+    private static final String NAME_PREFIX = "kernel$";
+
+    /**
+     * The JIT that holds the code of the kernels.
+     */
+    private final OrcJit jit;
+
+    /**
+     * The options that the kernels are compiled with.
+     */
+    private final JitCompilerOptions options;
+
+    /**
+     * The options created by the compiler, which are disposed with it, or {@code null} if the options were provided.
+     */
+    private final JitCompilerOptions ownedOptions;
+
+    /**
+     * The optimization pipeline that is run on the kernels.
+     */
+    private final OptimizationLevel level;
+
+    /**
+     * The sequence number of the next kernel, that is named by the compiler.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Initialize the kernel compiler.
+     *
+     * @param jit the JIT that holds the code of the kernels
+     * @param options the options that the kernels are compiled with
+     * @param ownedOptions the options to dispose with the compiler, or {@code null}
+     * @param level the optimization pipeline that is run on the kernels
+     */
+    private KernelCompiler(OrcJit jit, JitCompilerOptions options, JitCompilerOptions ownedOptions, OptimizationLevel level) {
+        this.jit = jit;
+        this.options = options;
+        this.ownedOptions = ownedOptions;
+        this.level = level;
+    }
+
+    public OrcJit jit() {
+        return this.jit;
+    }
+
+    public OptimizationLevel level() {
+        return this.level;
+    }
+
+    /**
+     * Compile the specified expression to a kernel, with a name that is chosen by the compiler.
+     *
+     * @param expression the expression to compile
+     * @return the compiled kernel
+     * @throws IllegalArgumentException if a column is referenced with different types
+     * @throws LLVMException if the kernel could not be compiled
+     */
+    public Kernel compile(Expression expression) {
+        return compile(NAME_PREFIX + sequence.getAndIncrement(), expression);
+    }
+
+    /**
+     * Compile the specified expression to a kernel with the specified name, which must not be used by any other
+     * kernel of this compiler.
+     *
+     * @param name the name of the kernel function
+     * @param expression the expression to compile
+     * @return the compiled kernel
+     * @throws IllegalArgumentException if a column is referenced with different types
+     * @throws LLVMException if the kernel could not be compiled, e.g. because the name is used already
+     */
+    public Kernel compile(String name, Expression expression) {
+        checkNotNull(name, "name");
+        List<ColumnType> columnTypes = KernelEmitter.columnTypes(expression);
+        ThreadSafeContext context = ThreadSafeContext.create();
+        try {
+            IRModule module = IRModule.create(context.context(), name);
+            try {
+                CompilationMetrics.measure(name, CompilationPhase.IR_BUILD, () -> {
+                    KernelEmitter.emit(module, name, expression, columnTypes.size());
+                });
+                verify(module);
+                TargetMachine machine = TargetMachine.host(options);
+                try {
+                    machine.configure(module);
+                    module.optimize(level, machine);
+                } finally {
+                    machine.dispose();
+                }
+            } catch (RuntimeException e) {
+                module.dispose();
+                throw e;
+            }
+            CompiledModule compiled = jit.compile(module, context);
+            NativeFunction function = compiled.function(name);
+            return new Kernel(name, expression, columnTypes, function, function.asPointerPointerLongConsumer());
+        } finally {
+            // the JIT keeps the context alive for the module
+            context.dispose();
+        }
+    }
+
+    /**
+     * Verify the specified module.
+     *
+     * @param module the module to verify
+     * @throws IllegalStateException if the generated module is invalid
+     */
+    private static void verify(IRModule module) {
+        BytePointer error = new BytePointer();
+        try {
+            if (!module.verify(VerificationFailureAction.RETURN_STATUS, error))
+                throw new IllegalStateException("Kernel " + module.name() + " is invalid: " + error.getString());
+        } finally {
+            LLVMDisposeMessage(error);
+        }
+    }
+
+    /**
+     * Dispose of the value handle held by this object. The code of every kernel of the compiler is freed, so the
+     * kernels must not be evaluated afterward. The compiler options are disposed too, if the compiler created them.
+     */
+    @Override
+    public void dispose() {
+        jit.dispose();
+        if (ownedOptions != null)
+            ownedOptions.dispose();
+    }
+
+    /**
+     * Create a new kernel compiler, that compiles kernels with the specified options and optimization pipeline.
+     *
+     * @param options the options that the kernels are compiled with
+     * @param level the optimization pipeline that is run on the kernels
+     * @return a new kernel compiler
+     * @throws LLVMException if the JIT could not be created
+     */
+    public static KernelCompiler create(JitCompilerOptions options, OptimizationLevel level) {
+        checkNotNull(options, "options");
+        checkNotNull(level, "level");
+        return new KernelCompiler(OrcJit.create(options), options, null, level);
+    }
+
+    /**
+     * Create a new kernel compiler, that compiles kernels for the host CPU, with the {@code O3} pipeline, which
+     * runs the loop vectorizer.
+     *
+     * @return a new kernel compiler
+     * @throws LLVMException if the JIT could not be created
+     */
+    public static KernelCompiler create() {
+        JitCompilerOptions options = JitCompilerOptions.create();
+        options.optimizationLevel(3);
+        OrcJit jit;
+        try {
+            jit = OrcJit.create(options);
+        } catch (RuntimeException e) {
+            options.dispose();
+            throw e;
+        }
+        return new KernelCompiler(jit, options, options, OptimizationLevel.O3);
+    }
+}
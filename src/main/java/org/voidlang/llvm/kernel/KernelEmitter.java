@@ -0,0 +1,373 @@
+package org.voidlang.llvm.kernel;
+
+import org.bytedeco.llvm.LLVM.LLVMAttributeRef;
+import org.voidlang.llvm.instruction.FloatPredicate;
+import org.voidlang.llvm.instruction.IRBlock;
+import org.voidlang.llvm.instruction.IRBuilder;
+import org.voidlang.llvm.instruction.IRPhi;
+import org.voidlang.llvm.instruction.IntPredicate;
+import org.voidlang.llvm.kernel.Expression.*;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.type.IRType;
+import org.voidlang.llvm.type.IRTypes;
+import org.voidlang.llvm.value.IRFunction;
+import org.voidlang.llvm.value.IRValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents the generator of the LLVM IR of a {@link Kernel}, which evaluates an {@link Expression} for every row
+ * of a batch of columns.
+ * <br>
+ * The generated function has the signature {@code void (ptr columns, ptr output, i64 rows)}, where
+ * {@code columns} points to an array of the addresses of the columns. The addresses of the columns are loaded once,
+ * before the loop over the rows, and the expression is evaluated without branches, so that the loop vectorizer can
+ * process multiple rows per iteration. The output buffer is declared {@code noalias}, which spares the vectorizer
+ * the runtime checks for overlapping columns and output, so the {@link Kernel} rejects an output buffer that
+ * overlaps a column.
+ */
+final class KernelEmitter {
+    /**
+     * The context in which the kernel is generated.
+     */
+    private final IRContext context;
+
+    /**
+     * The builder that emits the instructions of the loop body.
+     */
+    private final IRBuilder builder;
+
+    /**
+     * The base addresses of the columns, indexed by the column index, or {@code null} for unused columns.
+     */
+    private final IRValue[] columns;
+
+    /**
+     * The index of the current row.
+     */
+    private final IRValue row;
+
+    /**
+     * The values of the columns in the current row, that have been loaded already.
+     */
+    private final Map<Integer, IRValue> values = new HashMap<>();
+
+    /**
+     * Initialize the emitter of a loop body.
+     *
+     * @param context the context in which the kernel is generated
+     * @param builder the builder that emits the instructions of the loop body
+     * @param columns the base addresses of the columns
+     * @param row the index of the current row
+     */
+    private KernelEmitter(IRContext context, IRBuilder builder, IRValue[] columns, IRValue row) {
+        this.context = context;
+        this.builder = builder;
+        this.columns = columns;
+        this.row = row;
+    }
+
+    /**
+     * Emit the instructions that evaluate the specified expression for the current row.
+     *
+     * @param expression the expression to evaluate
+     * @return the value of the expression
+     */
+    private IRValue evaluate(Expression expression) {
+        return switch (expression) {
+            case Column column -> values.computeIfAbsent(column.index(), ignored -> load(column));
+            case Constant constant -> constant(constant);
+            case Arithmetic arithmetic -> arithmetic(arithmetic);
+            case Negate negate -> negate.type() == ColumnType.DOUBLE
+                ? builder.negateFloat(evaluate(negate.operand()))
+                : builder.negate(evaluate(negate.operand()));
+            case Comparison comparison -> comparison(comparison);
+            case Logical logical -> switch (logical.operator()) {
+                case AND -> builder.and(evaluate(logical.left()), evaluate(logical.right()));
+                case OR -> builder.or(evaluate(logical.left()), evaluate(logical.right()));
+            };
+            case Not not -> builder.not(evaluate(not.operand()));
+            case Cast cast -> cast(evaluate(cast.operand()), cast.operand().type(), cast.type());
+            case Conditional conditional -> builder.select(
+                evaluate(conditional.condition()), evaluate(conditional.thenValue()), evaluate(conditional.elseValue())
+            );
+        };
+    }
+
+    /**
+     * Emit the instructions that load the value of the specified column in the current row.
+     *
+     * @param column the column to load
+     * @return the value of the column
+     */
+    private IRValue load(Column column) {
+        IRType storageType = column.type().storageType(context);
+        IRValue address = builder.inBoundsGEP(storageType, columns[column.index()], row);
+        IRValue value = builder.load(storageType, address);
+        // booleans are stored as bytes, any non-zero byte is true
+        if (column.type() == ColumnType.BOOLEAN)
+            return builder.compare(IntPredicate.NOT_EQUAL, value, storageType.constInt(0));
+        return value;
+    }
+
+    /**
+     * Create the LLVM constant of the specified constant expression.
+     *
+     * @param constant the constant expression
+     * @return the value of the constant
+     */
+    private IRValue constant(Constant constant) {
+        IRType type = constant.type().valueType(context);
+        if (constant.type() == ColumnType.DOUBLE)
+            return type.constFloat(constant.doubleValue());
+        return type.constInt(constant.bits(), true);
+    }
+
+    /**
+     * Emit the instructions of the specified arithmetic operation.
+     *
+     * @param arithmetic the arithmetic operation
+     * @return the result of the operation
+     */
+    private IRValue arithmetic(Arithmetic arithmetic) {
+        IRValue left = evaluate(arithmetic.left());
+        IRValue right = evaluate(arithmetic.right());
+        if (arithmetic.type() == ColumnType.DOUBLE) {
+            return switch (arithmetic.operator()) {
+                case ADD -> builder.addFloat(left, right);
+                case SUBTRACT -> builder.subtractFloat(left, right);
+                case MULTIPLY -> builder.multiplyFloat(left, right);
+                case DIVIDE -> builder.divideFloat(left, right);
+                case REMAINDER -> builder.remainderFloat(left, right);
+            };
+        }
+        return switch (arithmetic.operator()) {
+            case ADD -> builder.add(left, right);
+            case SUBTRACT -> builder.subtract(left, right);
+            case MULTIPLY -> builder.multiply(left, right);
+            case DIVIDE, REMAINDER -> divide(arithmetic.operator(), arithmetic.type(), left, right);
+        };
+    }
+
+    /**
+     * Emit the instructions of an integer division or remainder, that are defined for every pair of operands.
+     * <br>
+     * Both operands of a conditional are evaluated, so a division by zero or of the minimum value by {@code -1},
+     * which are undefined in LLVM and trap on common targets, cannot be avoided by the expression itself. The
+     * divisor is replaced by {@code 1} in these cases, which yields the Java result for the overflowing division,
+     * and the result of a division by zero is replaced by {@code 0}.
+     *
+     * @param operator the {@link ArithmeticOperator#DIVIDE} or {@link ArithmeticOperator#REMAINDER} operator
+     * @param type the type of the operands
+     * @param left the dividend
+     * @param right the divisor
+     * @return the result of the operation
+     */
+    private IRValue divide(ArithmeticOperator operator, ColumnType type, IRValue left, IRValue right) {
+        IRType valueType = type.valueType(context);
+        long minimum = type == ColumnType.INT ? Integer.MIN_VALUE : Long.MIN_VALUE;
+        IRValue zero = valueType.constInt(0);
+        IRValue one = valueType.constInt(1);
+        IRValue byZero = builder.compare(IntPredicate.EQUAL, right, zero);
+        IRValue overflow = builder.and(
+            builder.compare(IntPredicate.EQUAL, left, valueType.constInt(minimum, true)),
+            builder.compare(IntPredicate.EQUAL, right, valueType.constInt(-1, true))
+        );
+        IRValue divisor = builder.select(builder.or(byZero, overflow), one, right);
+        IRValue result = operator == ArithmeticOperator.DIVIDE
+            ? builder.divideSigned(left, divisor)
+            : builder.remainderSigned(left, divisor);
+        return builder.select(byZero, zero, result);
+    }
+
+    /**
+     * Emit the instructions of the specified comparison.
+     *
+     * @param comparison the comparison
+     * @return the {@code i1} result of the comparison
+     */
+    private IRValue comparison(Comparison comparison) {
+        IRValue left = evaluate(comparison.left());
+        IRValue right = evaluate(comparison.right());
+        if (comparison.left().type() == ColumnType.DOUBLE)
+            return builder.compareFloat(comparison.operator().floatPredicate(), left, right);
+        return builder.compare(comparison.operator().intPredicate(), left, right);
+    }
+
+    /**
+     * Emit the instructions that convert the specified value with the semantics of a Java cast.
+     *
+     * @param value the value to convert
+     * @param from the type of the value
+     * @param to the type to convert the value to
+     * @return the converted value
+     */
+    private IRValue cast(IRValue value, ColumnType from, ColumnType to) {
+        IRType type = to.valueType(context);
+        if (from == to)
+            return value;
+        if (to == ColumnType.BOOLEAN) {
+            // numbers are true, if they are not zero, NaN is not equal to zero
+            IRType fromType = from.valueType(context);
+            return from == ColumnType.DOUBLE
+                ? builder.compareFloat(FloatPredicate.UNORDERED_NOT_EQUAL, value, fromType.constFloat(0))
+                : builder.compare(IntPredicate.NOT_EQUAL, value, fromType.constInt(0));
+        }
+        return switch (from) {
+            case BOOLEAN -> to == ColumnType.DOUBLE ? builder.unsignedToFloat(value, type) : builder.zeroExtend(value, type);
+            case INT -> to == ColumnType.DOUBLE ? builder.signedToFloat(value, type) : builder.signExtend(value, type);
+            case LONG -> to == ColumnType.DOUBLE ? builder.signedToFloat(value, type) : builder.truncate(value, type);
+            case DOUBLE -> builder.floatToSignedSaturated(value, type);
+        };
+    }
+
+    /**
+     * Generate the kernel function that evaluates the specified expression, in the specified module.
+     *
+     * @param module the module in which the function is generated
+     * @param name the name of the function
+     * @param expression the expression to evaluate for every row
+     * @param columnCount the number of columns of the column array
+     * @return the generated function
+     */
+    static IRFunction emit(IRModule module, String name, Expression expression, int columnCount) {
+        IRContext context = module.context();
+        IRType pointer = IRTypes.ofPointer(IRTypes.ofInt8(context));
+        IRType int64 = IRTypes.ofInt64(context);
+        IRFunctionType type = IRFunctionType.create(context, IRTypes.ofVoid(context), pointer, pointer, int64);
+        IRFunction function = IRFunction.create(module, name, type);
+        addAttribute(context, function, LLVMAttributeFunctionIndex, "nounwind");
+        // attribute indices of the parameters start at 1
+        addAttribute(context, function, 1, "noalias");
+        addAttribute(context, function, 2, "noalias");
+
+        IRBlock entry = IRBlock.create(context, function, "entry");
+        IRBlock loop = IRBlock.create(context, function, "loop");
+        IRBlock exit = IRBlock.create(context, function, "exit");
+        IRBuilder builder = IRBuilder.create(context);
+        try {
+            // load the addresses of the referenced columns once, outside the loop
+            builder.positionAtEnd(entry);
+            IRValue[] columns = new IRValue[columnCount];
+            collectColumns(expression, columns, builder, pointer, function.parameter(0));
+            IRValue rows = function.parameter(2);
+            IRValue zero = int64.constInt(0);
+            builder.conditionalBranch(builder.compare(IntPredicate.SIGNED_GREATER, rows, zero), loop, exit);
+
+            // evaluate the expression and store the result of the current row
+            builder.positionAtEnd(loop);
+            IRPhi row = builder.phi(int64, "row");
+            IRValue result = new KernelEmitter(context, builder, columns, row).evaluate(expression);
+            ColumnType resultType = expression.type();
+            IRType storageType = resultType.storageType(context);
+            if (resultType == ColumnType.BOOLEAN)
+                result = builder.zeroExtend(result, storageType);
+            builder.store(result, builder.inBoundsGEP(storageType, function.parameter(1), row));
+            IRValue next = builder.addNoSignedWrap(row, int64.constInt(1), "next");
+            builder.conditionalBranch(builder.compare(IntPredicate.SIGNED_LESS, next, rows), loop, exit);
+            row.addIncoming(zero, entry);
+            row.addIncoming(next, loop);
+
+            builder.positionAtEnd(exit);
+            builder.returnVoid();
+        } finally {
+            builder.dispose();
+        }
+        return function;
+    }
+
+    /**
+     * Emit the loads of the base addresses of the columns, that are referenced by the specified expression.
+     *
+     * @param expression the expression whose columns are loaded
+     * @param columns the base addresses of the columns, that have been loaded already
+     * @param builder the builder positioned in the entry block
+     * @param pointer the pointer type
+     * @param columnArray the address of the column array
+     */
+    private static void collectColumns(Expression expression, IRValue[] columns, IRBuilder builder, IRType pointer, IRValue columnArray) {
+        if (expression instanceof Column column && columns[column.index()] == null) {
+            IRValue index = IRTypes.ofInt64(pointer.context()).constInt(column.index());
+            IRValue address = builder.inBoundsGEP(pointer, columnArray, index);
+            columns[column.index()] = builder.load(pointer, address, "column" + column.index());
+        }
+        for (Expression operand : operands(expression))
+            collectColumns(operand, columns, builder, pointer, columnArray);
+    }
+
+    /**
+     * Retrieve the types of the columns, that are referenced by the specified expression.
+     *
+     * @param expression the expression whose columns are collected
+     * @return the types of the columns, indexed by the column index, with {@code null} for unreferenced columns
+     * @throws IllegalArgumentException if a column is referenced with different types
+     */
+    static List<ColumnType> columnTypes(Expression expression) {
+        List<ColumnType> types = new ArrayList<>();
+        collectTypes(checkNotNull(expression, "expression"), types);
+        return Collections.unmodifiableList(types);
+    }
+
+    /**
+     * Collect the types of the columns, that are referenced by the specified expression.
+     *
+     * @param expression the expression whose columns are collected
+     * @param types the types of the columns, that have been collected already
+     */
+    private static void collectTypes(Expression expression, List<ColumnType> types) {
+        if (expression instanceof Column column) {
+            while (types.size() <= column.index())
+                types.add(null);
+            ColumnType type = types.get(column.index());
+            checkArgument(type == null || type == column.type(), "Column %s is referenced as %s and %s", column.index(), type, column.type());
+            types.set(column.index(), column.type());
+        }
+        for (Expression operand : operands(expression))
+            collectTypes(operand, types);
+    }
+
+    /**
+     * Retrieve the operands of the specified expression.
+     *
+     * @param expression the expression whose operands are retrieved
+     * @return the operands of the expression
+     */
+    private static List<Expression> operands(Expression expression) {
+        return switch (expression) {
+            case Column ignored -> List.of();
+            case Constant ignored -> List.of();
+            case Arithmetic arithmetic -> List.of(arithmetic.left(), arithmetic.right());
+            case Negate negate -> List.of(negate.operand());
+            case Comparison comparison -> List.of(comparison.left(), comparison.right());
+            case Logical logical -> List.of(logical.left(), logical.right());
+            case Not not -> List.of(not.operand());
+            case Cast cast -> List.of(cast.operand());
+            case Conditional conditional -> List.of(conditional.condition(), conditional.thenValue(), conditional.elseValue());
+        };
+    }
+
+    /**
+     * Add the enum attribute with the specified name to the function or one of its parameters.
+     *
+     * @param context the context of the function
+     * @param function the function to add the attribute to
+     * @param index the attribute index, {@code LLVMAttributeFunctionIndex} or a parameter index, starting at
+     *              {@code 1}
+     * @param name the name of the attribute
+     */
+    private static void addAttribute(IRContext context, IRFunction function, int index, String name) {
+        int kind = LLVMGetEnumAttributeKindForName(name, name.length());
+        LLVMAttributeRef attribute = LLVMCreateEnumAttribute(context.handle(), kind, 0);
+        LLVMAddAttributeAtIndex(function.handle(), index, attribute);
+    }
+}
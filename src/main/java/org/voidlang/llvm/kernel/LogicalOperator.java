@@ -0,0 +1,19 @@
+package org.voidlang.llvm.kernel;
+
+/**
+ * Represents an enumeration of the binary logical operators of an {@link Expression}.
+ * <br>
+ * Both operands are always evaluated, as a kernel evaluates expressions without branching, so that the loop over
+ * the rows can be vectorized.
+ */
+public enum LogicalOperator {
+    /**
+     * `AND` indicates, that the result is {@code true} if both operands are {@code true}.
+     */
+    AND,
+
+    /**
+     * `OR` indicates, that the result is {@code true} if any of the operands is {@code true}.
+     */
+    OR
+}
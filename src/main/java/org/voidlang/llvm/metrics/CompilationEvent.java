@@ -0,0 +1,36 @@
+package org.voidlang.llvm.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents a Java Flight Recorder event, that is committed for each measured phase of the compilation of a module.
+ * The duration of the event is the duration of the phase.
+ */
+@Name("org.voidlang.llvm.Compilation")
+@Label("LLVM Compilation Phase")
+@Description("A phase of the compilation of an LLVM module")
+@Category({ "LLVM", "Compilation" })
+@StackTrace(false)
+public final class CompilationEvent extends jdk.jfr.Event {
+    /**
+     * The name of the compiled module.
+     */
+    @Label("Module")
+    String module;
+
+    /**
+     * The label of the compilation phase.
+     */
+    @Label("Phase")
+    String phase;
+
+    /**
+     * The details of the phase, e.g. the optimization pipeline.
+     */
+    @Label("Detail")
+    String detail;
+}
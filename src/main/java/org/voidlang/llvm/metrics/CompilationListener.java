@@ -0,0 +1,19 @@
+package org.voidlang.llvm.metrics;
+
+/**
+ * Represents a listener, that is notified of each measured phase of the compilation of a module.
+ * <br>
+ * Listeners are called on the thread that performed the phase, so they should return quickly.
+ */
+@FunctionalInterface
+public interface CompilationListener {
+    /**
+     * Handle the completion of a compilation phase.
+     *
+     * @param module the name of the compiled module
+     * @param phase the completed phase
+     * @param detail the details of the phase, e.g. the optimization pipeline, or an empty string
+     * @param nanos the duration of the phase, in nanoseconds
+     */
+    void onPhase(String module, CompilationPhase phase, String detail, long nanos);
+}
@@ -0,0 +1,366 @@
+package org.voidlang.llvm.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents the registry of the timings of the compilation phases of every module.
+ * <br>
+ * The library measures verification, optimization, code generation and object loading itself, and the code that
+ * generates modules can measure the building of the IR with {@link #measure(String, CompilationPhase, Runnable)}.
+ * Each measurement is
+ * <ul>
+ *     <li>added to the process-wide {@link #statistics(CompilationPhase) statistics} of its phase,</li>
+ *     <li>added to the {@link #module(String) metrics of its module}, which are retained for the most recently
+ *     measured modules,</li>
+ *     <li>passed to the registered {@link CompilationListener}s, together with the name of its module,</li>
+ *     <li>committed as a {@link CompilationEvent} to Java Flight Recorder, if the event is enabled.</li>
+ * </ul>
+ */
+public final class CompilationMetrics {
+    /**
+     * The accumulated timings of each phase.
+     */
+    private static final Map<CompilationPhase, Accumulator> accumulators = new EnumMap<>(CompilationPhase.class);
+
+    /**
+     * The maximum number of modules, whose timings are retained.
+     */
+    private static final int RETAINED_MODULES = 1024;
+
+    /**
+     * The accumulated timings of each phase of the most recently measured modules, in the order of their last
+     * measurement, guarded by the map itself.
+     */
+    private static final Map<String, Map<CompilationPhase, Accumulator>> modules = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The listeners that are notified of each measurement.
+     */
+    private static final List<CompilationListener> listeners = new CopyOnWriteArrayList<>();
+
+    static {
+        for (CompilationPhase phase : CompilationPhase.values())
+            accumulators.put(phase, new Accumulator());
+    }
+
+    private CompilationMetrics() {
+    }
+
+    /**
+     * Start measuring a compilation phase of the specified module. The measurement is recorded when it is closed,
+     * therefore it should be used in a try-with-resources statement.
+     *
+     * @param module the name of the compiled module
+     * @param phase the measured phase
+     * @param detail the details of the phase, e.g. the optimization pipeline, or an empty string
+     * @return a new measurement
+     */
+    public static Measurement start(String module, CompilationPhase phase, String detail) {
+        return new Measurement(checkNotNull(module, "module"), checkNotNull(phase, "phase"), checkNotNull(detail, "detail"));
+    }
+
+    /**
+     * Measure the specified compilation phase of the specified module.
+     *
+     * @param module the name of the compiled module
+     * @param phase the measured phase
+     * @param action the action that performs the phase
+     */
+    public static void measure(String module, CompilationPhase phase, Runnable action) {
+        measure(module, phase, "", action);
+    }
+
+    /**
+     * Measure the specified compilation phase of the specified module.
+     *
+     * @param module the name of the compiled module
+     * @param phase the measured phase
+     * @param detail the details of the phase, e.g. the optimization pipeline, or an empty string
+     * @param action the action that performs the phase
+     */
+    public static void measure(String module, CompilationPhase phase, String detail, Runnable action) {
+        checkNotNull(action, "action");
+        measure(module, phase, detail, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Measure the specified compilation phase of the specified module, and return the result of the phase.
+     *
+     * @param module the name of the compiled module
+     * @param phase the measured phase
+     * @param detail the details of the phase, e.g. the optimization pipeline, or an empty string
+     * @param action the action that performs the phase
+     * @param <T> the type of the result
+     * @return the result of the action
+     */
+    public static <T> T measure(String module, CompilationPhase phase, String detail, Supplier<T> action) {
+        checkNotNull(action, "action");
+        Measurement measurement = start(module, phase, detail);
+        try {
+            return action.get();
+        } finally {
+            measurement.close();
+        }
+    }
+
+    /**
+     * Retrieve the statistics of the specified phase, accumulated over every module since the start of the process
+     * or the last {@link #reset()}.
+     *
+     * @param phase the phase to retrieve the statistics of
+     * @return the statistics of the phase
+     */
+    public static PhaseStatistics statistics(CompilationPhase phase) {
+        return accumulators.get(checkNotNull(phase, "phase")).statistics(phase);
+    }
+
+    /**
+     * Retrieve the timings of the phases of the module with the specified name, accumulated since the start of
+     * the process or the last {@link #reset()}. Only the timings of the {@value #RETAINED_MODULES} most recently
+     * measured modules are retained.
+     *
+     * @param module the name of the module
+     * @return the metrics of the module, without any phases if the module has not been measured recently
+     */
+    public static ModuleMetrics module(String module) {
+        checkNotNull(module, "module");
+        synchronized (modules) {
+            Map<CompilationPhase, Accumulator> phases = modules.get(module);
+            return snapshot(module, phases != null ? phases : Map.of());
+        }
+    }
+
+    /**
+     * Retrieve the timings of the phases of the most recently measured modules, the most recently measured module
+     * last.
+     *
+     * @return the metrics of the retained modules
+     */
+    public static List<ModuleMetrics> modules() {
+        synchronized (modules) {
+            List<ModuleMetrics> metrics = new ArrayList<>(modules.size());
+            modules.forEach((module, phases) -> metrics.add(snapshot(module, phases)));
+            return metrics;
+        }
+    }
+
+    /**
+     * Reset the statistics of every phase, and forget the timings of every module.
+     */
+    public static void reset() {
+        for (Accumulator accumulator : accumulators.values())
+            accumulator.reset();
+        synchronized (modules) {
+            modules.clear();
+        }
+    }
+
+    /**
+     * Register a listener, that is notified of each measurement.
+     *
+     * @param listener the listener to register
+     */
+    public static void addListener(CompilationListener listener) {
+        listeners.add(checkNotNull(listener, "listener"));
+    }
+
+    /**
+     * Unregister a listener, that was registered by {@link #addListener(CompilationListener)}.
+     *
+     * @param listener the listener to unregister
+     */
+    public static void removeListener(CompilationListener listener) {
+        listeners.remove(checkNotNull(listener, "listener"));
+    }
+
+    /**
+     * Record a completed measurement.
+     *
+     * @param module the name of the compiled module
+     * @param phase the measured phase
+     * @param detail the details of the phase
+     * @param nanos the duration of the phase, in nanoseconds
+     */
+    private static void record(String module, CompilationPhase phase, String detail, long nanos) {
+        accumulators.get(phase).add(nanos);
+        Accumulator moduleAccumulator;
+        synchronized (modules) {
+            moduleAccumulator = modules.computeIfAbsent(module, name -> new EnumMap<>(CompilationPhase.class))
+                .computeIfAbsent(phase, key -> new Accumulator());
+            // forget the least recently measured module
+            if (modules.size() > RETAINED_MODULES) {
+                Iterator<String> eldest = modules.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        moduleAccumulator.add(nanos);
+        for (CompilationListener listener : listeners)
+            listener.onPhase(module, phase, detail, nanos);
+    }
+
+    /**
+     * Create a snapshot of the specified accumulated timings of a module.
+     *
+     * @param module the name of the module
+     * @param phases the accumulated timings of the phases of the module
+     * @return the metrics of the module
+     */
+    private static ModuleMetrics snapshot(String module, Map<CompilationPhase, Accumulator> phases) {
+        Map<CompilationPhase, PhaseStatistics> statistics = new EnumMap<>(CompilationPhase.class);
+        phases.forEach((phase, accumulator) -> statistics.put(phase, accumulator.statistics(phase)));
+        return new ModuleMetrics(module, statistics);
+    }
+
+    /**
+     * Represents the accumulated statistics of a compilation phase.
+     *
+     * @param phase the phase of the statistics
+     * @param count the number of measurements of the phase
+     * @param totalNanos the total duration of the measurements, in nanoseconds
+     * @param maxNanos the longest duration of a measurement, in nanoseconds
+     */
+    public record PhaseStatistics(CompilationPhase phase, long count, long totalNanos, long maxNanos) {
+        /**
+         * Retrieve the mean duration of the measurements of the phase.
+         *
+         * @return the mean duration in nanoseconds, or {@code 0} if the phase has not been measured
+         */
+        public long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+    }
+
+    /**
+     * Represents an ongoing measurement of a compilation phase, which is recorded when it is closed.
+     */
+    public static final class Measurement implements AutoCloseable {
+        /**
+         * The name of the compiled module.
+         */
+        private final String module;
+
+        /**
+         * The measured phase.
+         */
+        private final CompilationPhase phase;
+
+        /**
+         * The details of the phase.
+         */
+        private final String detail;
+
+        /**
+         * The flight recorder event of the phase.
+         */
+        private final CompilationEvent event = new CompilationEvent();
+
+        /**
+         * The value of {@link System#nanoTime()} at the start of the phase.
+         */
+        private final long start;
+
+        /**
+         * The indication, whether the measurement has been recorded already.
+         */
+        private boolean closed;
+
+        /**
+         * Initialize and start the measurement.
+         *
+         * @param module the name of the compiled module
+         * @param phase the measured phase
+         * @param detail the details of the phase
+         */
+        private Measurement(String module, CompilationPhase phase, String detail) {
+            this.module = module;
+            this.phase = phase;
+            this.detail = detail;
+            event.begin();
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Stop the measurement and record it. Closing a measurement more than once has no effect.
+         */
+        @Override
+        public void close() {
+            if (closed)
+                return;
+            closed = true;
+            long nanos = System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.module = module;
+                event.phase = phase.label();
+                event.detail = detail;
+                event.commit();
+            }
+            record(module, phase, detail, nanos);
+        }
+    }
+
+    /**
+     * Represents the mutable accumulated timings of a phase.
+     */
+    private static final class Accumulator {
+        /**
+         * The number of measurements.
+         */
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * The total duration of the measurements, in nanoseconds.
+         */
+        private final LongAdder totalNanos = new LongAdder();
+
+        /**
+         * The longest duration of a measurement, in nanoseconds.
+         */
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Add a measurement with the specified duration.
+         *
+         * @param nanos the duration of the measurement, in nanoseconds
+         */
+        private void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        /**
+         * Forget every measurement.
+         */
+        private void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+
+        /**
+         * Create a snapshot of the accumulated timings.
+         *
+         * @param phase the phase of the timings
+         * @return the statistics of the phase
+         */
+        private PhaseStatistics statistics(CompilationPhase phase) {
+            return new PhaseStatistics(phase, count.sum(), totalNanos.sum(), maxNanos.get());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.voidlang.llvm.metrics;
+
+/**
+ * Represents an enumeration of the phases of the compilation of a module, that are measured by
+ * {@link CompilationMetrics}.
+ */
+public enum CompilationPhase {
+    /**
+     * `IR_BUILD` indicates, that the IR of the module is generated. This phase is measured by the code that builds
+     * the module, with {@link CompilationMetrics#measure(String, CompilationPhase, Runnable)}.
+     */
+    IR_BUILD("IR Build"),
+
+    /**
+     * `VERIFY` indicates, that the module is checked by the verifier.
+     */
+    VERIFY("Verify"),
+
+    /**
+     * `OPTIMIZE` indicates, that an optimization pipeline is run on the module.
+     */
+    OPTIMIZE("Optimize"),
+
+    /**
+     * `CODEGEN` indicates, that native code is generated for the module.
+     */
+    CODEGEN("Codegen"),
+
+    /**
+     * `OBJECT_LOAD` indicates, that a previously compiled object file of the module is linked into a JIT.
+     */
+    OBJECT_LOAD("Object Load");
+
+    /**
+     * The human-readable name of the phase.
+     */
+    private final String label;
+
+    CompilationPhase(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return this.label;
+    }
+}
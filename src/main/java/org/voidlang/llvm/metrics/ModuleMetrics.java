@@ -0,0 +1,50 @@
+package org.voidlang.llvm.metrics;
+
+import org.voidlang.llvm.metrics.CompilationMetrics.PhaseStatistics;
+
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a snapshot of the timings of the compilation phases of a single module, which tells whether the
+ * optimizer or the code generator is responsible for the compilation time of that module.
+ * <br>
+ * Modules are identified by their name, so the timings of modules that share a name are accumulated together, and
+ * the {@link PhaseStatistics#count() count} of a phase tells how many times it was measured.
+ *
+ * @param module the name of the module
+ * @param phases the statistics of the measured phases of the module
+ */
+public record ModuleMetrics(String module, Map<CompilationPhase, PhaseStatistics> phases) {
+    /**
+     * Initialize the metrics of the specified module.
+     *
+     * @param module the name of the module
+     * @param phases the statistics of the measured phases of the module
+     */
+    public ModuleMetrics {
+        checkNotNull(module, "module");
+        phases = Map.copyOf(checkNotNull(phases, "phases"));
+    }
+
+    /**
+     * Retrieve the statistics of the specified phase of the module.
+     *
+     * @param phase the phase to retrieve the statistics of
+     * @return the statistics of the phase, which are empty if the phase has not been measured
+     */
+    public PhaseStatistics statistics(CompilationPhase phase) {
+        PhaseStatistics statistics = phases.get(checkNotNull(phase, "phase"));
+        return statistics != null ? statistics : new PhaseStatistics(phase, 0, 0, 0);
+    }
+
+    /**
+     * Retrieve the total duration of every measured phase of the module.
+     *
+     * @return the total duration in nanoseconds
+     */
+    public long totalNanos() {
+        return phases.values().stream().mapToLong(PhaseStatistics::totalNanos).sum();
+    }
+}
@@ -0,0 +1,74 @@
+package org.voidlang.llvm.module;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.PointerPointer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Represents a utility class that sets the process-wide options of LLVM, which are otherwise passed to the LLVM
+ * tools on the command line, e.g. {@code -inline-threshold=500} for settings that the {@link PassBuilderOptions}
+ * of LLVM 16 do not expose.
+ * <br>
+ * The options apply to every module, pipeline and JIT of the process, and can be set only once, before any
+ * pipeline runs. LLVM discards the errors of the command line parser, so the options are validated before they are
+ * parsed, but options that LLVM does not know are ignored silently.
+ */
+public class CommandLineOptions {
+    /**
+     * The pattern of a single option, with an optional value.
+     */
+    private static final Pattern OPTION = Pattern.compile("--?[a-z0-9][a-z0-9-]*(=\\S+)?");
+
+    /**
+     * The name of the program, that LLVM expects as the first argument.
+     */
+    private static final String PROGRAM_NAME = "llvm-boilerplate";
+
+    /**
+     * The parsed arguments, which are never freed, as LLVM may refer to them after parsing.
+     */
+    private static PointerPointer<BytePointer> arguments;
+
+    /**
+     * Parse the specified options, e.g. {@code List.of("-inline-threshold=500")}.
+     *
+     * @param options the options to set, each with a leading dash
+     * @throws IllegalArgumentException if an option is malformed
+     * @throws IllegalStateException if the options have been set already
+     */
+    public static synchronized void parse(List<String> options) {
+        checkNotNull(options, "options");
+        checkState(arguments == null, "LLVM command line options can only be set once");
+        List<String> values = new ArrayList<>(options.size() + 1);
+        values.add(PROGRAM_NAME);
+        for (String option : options) {
+            checkArgument(OPTION.matcher(checkNotNull(option, "option")).matches(), "Malformed LLVM option: %s", option);
+            values.add(option);
+        }
+        arguments = new PointerPointer<>(values.toArray(String[]::new));
+        try (BytePointer overview = new BytePointer("")) {
+            LLVMParseCommandLineOptions(values.size(), arguments, overview);
+        }
+    }
+
+    /**
+     * Set the cost threshold of the inliner, above which calls are not inlined. The default threshold of the
+     * {@code O2} pipeline is {@code 225}, and {@code O3} uses {@code 250}.
+     * <br>
+     * This sets the command line options of LLVM, so no other options can be set afterward.
+     *
+     * @param threshold the new inliner threshold
+     * @throws IllegalStateException if the options have been set already
+     */
+    public static void inlinerThreshold(int threshold) {
+        parse(List.of("-inline-threshold=" + threshold));
+    }
+}
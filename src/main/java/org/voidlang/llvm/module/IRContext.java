@@ -2,6 +2,9 @@ package org.voidlang.llvm.module;
 
 import org.bytedeco.llvm.LLVM.LLVMContextRef;
 import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.behaviour.Scope;
+import org.voidlang.llvm.type.TypeTable;
+
 import static org.bytedeco.llvm.global.LLVM.*;
 
 /**
@@ -29,6 +32,8 @@ public record IRContext(LLVMContextRef handle) implements Disposable {
      */
     @Override
     public void dispose() {
+        Scope.untrack(this);
+        TypeTable.release(this);
         LLVMContextDispose(handle);
     }
 
@@ -38,7 +43,7 @@ public record IRContext(LLVMContextRef handle) implements Disposable {
      * @return a new LLVM context
      */
     public static IRContext create() {
-        return new IRContext(LLVMContextCreate());
+        return Scope.track(new IRContext(LLVMContextCreate()));
     }
 
     /**
@@ -1,12 +1,25 @@
 package org.voidlang.llvm.module;
 
 import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.llvm.LLVM.LLVMMemoryBufferRef;
 import org.bytedeco.llvm.LLVM.LLVMModuleRef;
 
 import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.behaviour.Scope;
+import org.voidlang.llvm.error.LLVMException;
 import org.voidlang.llvm.error.VerificationFailureAction;
+import org.voidlang.llvm.metrics.CompilationMetrics;
+import org.voidlang.llvm.metrics.CompilationPhase;
+import org.voidlang.llvm.target.CodeGenFileType;
+import org.voidlang.llvm.target.TargetMachine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -22,6 +35,7 @@ public record IRModule(LLVMModuleRef handle, IRContext context, String name) imp
      */
     @Override
     public void dispose() {
+        Scope.untrack(this);
         LLVMDisposeModule(handle);
     }
 
@@ -41,7 +55,177 @@ public record IRModule(LLVMModuleRef handle, IRContext context, String name) imp
      * @return {@code true} if the verification was successful, otherwise {@code false}
      */
     public boolean verify(VerificationFailureAction action, BytePointer error) {
-        return LLVMVerifyModule(handle, checkNotNull(action, "action").code(), error) == 0;
+        checkNotNull(action, "action");
+        return CompilationMetrics.measure(name, CompilationPhase.VERIFY, "", () -> LLVMVerifyModule(handle, action.code(), error) == 0);
+    }
+
+    /**
+     * Run the specified optimization pipeline on the module with the new pass manager.
+     * <br>
+     * The pipeline uses the textual pass pipeline syntax of {@code opt -passes}, e.g. {@code "default<O2>"} or a
+     * custom list of passes such as {@code "function(sroa,instcombine,gvn),globaldce"}.
+     * <br>
+     * The target machine provides the cost model of the target to the passes. Without it, the vectorizers assume
+     * a target without vector registers and do not vectorize any code.
+     *
+     * @param pipeline the pass pipeline to run
+     * @param machine the target machine that the code is generated for, or {@code null} for a generic target
+     * @param options the options of the pass builder
+     * @throws LLVMException if the pipeline could not be parsed or run
+     */
+    public void optimize(String pipeline, TargetMachine machine, PassBuilderOptions options) {
+        checkNotNull(pipeline, "pipeline");
+        checkNotNull(options, "options");
+        CompilationMetrics.measure(name, CompilationPhase.OPTIMIZE, pipeline, () -> {
+            LLVMException.check(LLVMRunPasses(handle, pipeline, machine != null ? machine.handle() : null, options.handle()));
+        });
+    }
+
+    /**
+     * Run the default optimization pipeline of the specified level on the module with the new pass manager.
+     *
+     * @param level the optimization level of the pipeline
+     * @param machine the target machine that the code is generated for, or {@code null} for a generic target
+     * @param options the options of the pass builder
+     * @throws LLVMException if the pipeline could not be run
+     */
+    public void optimize(OptimizationLevel level, TargetMachine machine, PassBuilderOptions options) {
+        optimize(checkNotNull(level, "level").pipeline(), machine, options);
+    }
+
+    /**
+     * Run the default optimization pipeline of the specified level on the module with the new pass manager, with
+     * the default pass builder options.
+     *
+     * @param level the optimization level of the pipeline
+     * @param machine the target machine that the code is generated for, or {@code null} for a generic target
+     * @throws LLVMException if the pipeline could not be run
+     */
+    public void optimize(OptimizationLevel level, TargetMachine machine) {
+        PassBuilderOptions options = PassBuilderOptions.create();
+        try {
+            optimize(level, machine, options);
+        } finally {
+            options.dispose();
+        }
+    }
+
+    /**
+     * Link the specified module into this module. Definitions of the other module are moved into this module, and
+     * declarations of this module are resolved to them. Functions with {@code linkonce} or
+     * {@code available_externally} linkage are only linked, if they are referenced by this module.
+     * <br>
+     * The other module is destroyed by the linker, whether the linking succeeds or not, therefore it must not be
+     * used or disposed after this call.
+     *
+     * @param other the module to link into this module, which must have been created in the same context
+     * @throws IllegalArgumentException if the modules could not be linked, e.g. because of conflicting definitions
+     */
+    public void linkIn(IRModule other) {
+        checkNotNull(other, "other");
+        checkArgument(context.equals(other.context()), "Modules must be created in the same context");
+        Scope.untrack(other);
+        if (LLVMLinkModules2(handle, other.handle()) != 0)
+            throw new IllegalArgumentException("Failed to link module " + other.name() + " into " + name);
+    }
+
+    /**
+     * Create a deep copy of the module, in the same context.
+     *
+     * @return a new LLVM module
+     */
+    public IRModule copy() {
+        return Scope.track(new IRModule(LLVMCloneModule(handle), context, name));
+    }
+
+    /**
+     * Write the bitcode of the module to the specified file.
+     *
+     * @param path the path of the bitcode file
+     * @throws UncheckedIOException if the bitcode file could not be written
+     */
+    public void writeBitcode(Path path) {
+        if (LLVMWriteBitcodeToFile(handle, checkNotNull(path, "path").toString()) != 0)
+            throw new UncheckedIOException(new IOException("Failed to write bitcode to " + path));
+    }
+
+    /**
+     * Write the bitcode of the module to the specified buffer, starting at its current position. The position of
+     * the buffer is advanced by the number of written bytes.
+     *
+     * @param buffer the buffer to write the bitcode to
+     * @return the number of written bytes
+     * @throws java.nio.BufferOverflowException if the bitcode does not fit into the remaining space of the buffer
+     */
+    public int writeBitcode(ByteBuffer buffer) {
+        checkNotNull(buffer, "buffer");
+        LLVMMemoryBufferRef bitcode = LLVMWriteBitcodeToMemoryBuffer(handle);
+        try {
+            ByteBuffer contents = MemoryBuffers.view(bitcode);
+            int size = contents.remaining();
+            buffer.put(contents);
+            return size;
+        } finally {
+            LLVMDisposeMemoryBuffer(bitcode);
+        }
+    }
+
+    /**
+     * Serialize the module to bitcode.
+     *
+     * @return the bitcode of the module
+     */
+    public byte[] bitcode() {
+        LLVMMemoryBufferRef buffer = LLVMWriteBitcodeToMemoryBuffer(handle);
+        try {
+            ByteBuffer contents = MemoryBuffers.view(buffer);
+            byte[] bitcode = new byte[contents.remaining()];
+            contents.get(bitcode);
+            return bitcode;
+        } finally {
+            LLVMDisposeMemoryBuffer(buffer);
+        }
+    }
+
+    /**
+     * Compile the module ahead of time to a file of the specified type, e.g. an object file, that can be linked
+     * into a library with {@link org.voidlang.llvm.target.NativeLibraries}. The module is configured for the
+     * target machine first.
+     *
+     * @param path the path of the file to write
+     * @param machine the target machine that generates the code
+     * @param fileType the type of the file to emit
+     * @throws LLVMException if the module could not be compiled or the file could not be written
+     */
+    public void emitObject(Path path, TargetMachine machine, CodeGenFileType fileType) {
+        checkNotNull(machine, "machine").configure(this);
+        machine.emitToFile(this, path, fileType);
+    }
+
+    /**
+     * Compile the module ahead of time to a file of the specified type, and write it to the specified buffer,
+     * starting at its current position. The position of the buffer is advanced by the number of written bytes.
+     * The module is configured for the target machine first.
+     *
+     * @param buffer the buffer to write the file to
+     * @param machine the target machine that generates the code
+     * @param fileType the type of the file to emit
+     * @return the number of written bytes
+     * @throws LLVMException if the module could not be compiled
+     * @throws java.nio.BufferOverflowException if the file does not fit into the remaining space of the buffer
+     */
+    public int emitObject(ByteBuffer buffer, TargetMachine machine, CodeGenFileType fileType) {
+        checkNotNull(buffer, "buffer");
+        checkNotNull(machine, "machine").configure(this);
+        LLVMMemoryBufferRef object = machine.emitToMemoryBuffer(this, fileType);
+        try {
+            ByteBuffer contents = MemoryBuffers.view(object);
+            int size = contents.remaining();
+            buffer.put(contents);
+            return size;
+        } finally {
+            LLVMDisposeMemoryBuffer(object);
+        }
     }
 
     /**
@@ -52,6 +236,105 @@ public record IRModule(LLVMModuleRef handle, IRContext context, String name) imp
      * @return a new LLVM module
      */
     public static IRModule create(IRContext context, String name) {
-        return new IRModule(LLVMModuleCreateWithNameInContext(checkNotNull(name, "name"), checkNotNull(context, "context").handle()), context, name);
+        return Scope.track(new IRModule(LLVMModuleCreateWithNameInContext(checkNotNull(name, "name"), checkNotNull(context, "context").handle()), context, name));
+    }
+
+    /**
+     * Load a module from the specified bitcode file. The file is memory-mapped by LLVM, if it is large enough,
+     * instead of being read into the heap.
+     * <br>
+     * If the module is loaded lazily, only the global declarations are parsed right away, and the body of each
+     * function is materialized from the mapped file when LLVM needs it. In particular, linking a lazily loaded
+     * module into another module only materializes the functions that are referenced by the destination module.
+     * Lazily loaded modules keep the mapping of the file until they are disposed.
+     *
+     * @param context the context in which the module is created
+     * @param path the path of the bitcode file
+     * @param lazy the indication, whether the function bodies are materialized on demand
+     * @return a new LLVM module
+     * @throws UncheckedIOException if the bitcode file could not be read
+     * @throws IllegalArgumentException if the file does not contain valid bitcode
+     */
+    public static IRModule loadBitcode(IRContext context, Path path, boolean lazy) {
+        checkNotNull(context, "context");
+        LLVMMemoryBufferRef buffer = new LLVMMemoryBufferRef();
+        BytePointer error = new BytePointer();
+        try (BytePointer file = new BytePointer(checkNotNull(path, "path").toString())) {
+            if (LLVMCreateMemoryBufferWithContentsOfFile(file, buffer, error) != 0) {
+                String message = error.getString();
+                LLVMDisposeMessage(error);
+                throw new UncheckedIOException(new IOException("Failed to read bitcode from " + path + ": " + message));
+            }
+        }
+        LLVMModuleRef module = new LLVMModuleRef();
+        // a lazily loaded module takes the ownership of the buffer, but only if it could be loaded
+        boolean loaded = lazy
+            ? LLVMGetBitcodeModuleInContext2(context.handle(), buffer, module) == 0
+            : LLVMParseBitcodeInContext2(context.handle(), buffer, module) == 0;
+        if (!lazy || !loaded)
+            LLVMDisposeMemoryBuffer(buffer);
+        if (!loaded)
+            throw new IllegalArgumentException("Invalid bitcode file: " + path);
+        return Scope.track(new IRModule(module, context, path.getFileName().toString()));
+    }
+
+    /**
+     * Load a module lazily from the specified bitcode file, see {@link #loadBitcode(IRContext, Path, boolean)}.
+     *
+     * @param context the context in which the module is created
+     * @param path the path of the bitcode file
+     * @return a new LLVM module
+     * @throws UncheckedIOException if the bitcode file could not be read
+     * @throws IllegalArgumentException if the file does not contain valid bitcode
+     */
+    public static IRModule loadBitcode(IRContext context, Path path) {
+        return loadBitcode(context, path, true);
+    }
+
+    /**
+     * Parse a module from the specified bitcode, e.g. the one returned by {@link #bitcode()}.
+     * <br>
+     * If the module is parsed lazily, the body of each function is materialized from a private copy of the bitcode
+     * when LLVM needs it, see {@link #loadBitcode(IRContext, Path, boolean)}.
+     *
+     * @param context the context in which the module is created
+     * @param bitcode the bitcode of the module
+     * @param name the name of the module
+     * @param lazy the indication, whether the function bodies are materialized on demand
+     * @return a new LLVM module
+     * @throws IllegalArgumentException if the bitcode is not valid
+     */
+    public static IRModule parseBitcode(IRContext context, byte[] bitcode, String name, boolean lazy) {
+        checkNotNull(context, "context");
+        checkNotNull(name, "name");
+        LLVMMemoryBufferRef buffer;
+        try (BytePointer data = new BytePointer(checkNotNull(bitcode, "bitcode"));
+             BytePointer bufferName = new BytePointer(name)) {
+            buffer = LLVMCreateMemoryBufferWithMemoryRangeCopy(data, bitcode.length, bufferName);
+        }
+        LLVMModuleRef module = new LLVMModuleRef();
+        // a lazily parsed module takes the ownership of the buffer, but only if it could be parsed
+        boolean parsed = lazy
+            ? LLVMGetBitcodeModuleInContext2(context.handle(), buffer, module) == 0
+            : LLVMParseBitcodeInContext2(context.handle(), buffer, module) == 0;
+        if (!lazy || !parsed)
+            LLVMDisposeMemoryBuffer(buffer);
+        if (!parsed)
+            throw new IllegalArgumentException("Invalid bitcode of module " + name);
+        return Scope.track(new IRModule(module, context, name));
+    }
+
+    /**
+     * Parse a module from the specified bitcode, e.g. the one returned by {@link #bitcode()}. Every function body is
+     * parsed right away.
+     *
+     * @param context the context in which the module is created
+     * @param bitcode the bitcode of the module
+     * @param name the name of the module
+     * @return a new LLVM module
+     * @throws IllegalArgumentException if the bitcode is not valid
+     */
+    public static IRModule parseBitcode(IRContext context, byte[] bitcode, String name) {
+        return parseBitcode(context, bitcode, name, false);
     }
 }
@@ -0,0 +1,30 @@
+package org.voidlang.llvm.module;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.llvm.LLVM.LLVMMemoryBufferRef;
+
+import java.nio.ByteBuffer;
+
+import static org.bytedeco.llvm.global.LLVM.LLVMGetBufferSize;
+import static org.bytedeco.llvm.global.LLVM.LLVMGetBufferStart;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a utility class that provides access to the contents of LLVM memory buffers.
+ */
+public class MemoryBuffers {
+    /**
+     * Create a direct byte buffer that views the contents of the specified memory buffer, without copying them.
+     * <br>
+     * The returned buffer is only valid until the memory buffer is disposed.
+     *
+     * @param buffer the memory buffer to view
+     * @return a read-only byte buffer of the memory buffer contents
+     */
+    public static ByteBuffer view(LLVMMemoryBufferRef buffer) {
+        long size = LLVMGetBufferSize(checkNotNull(buffer, "buffer"));
+        BytePointer start = LLVMGetBufferStart(buffer);
+        start.capacity(size);
+        return start.limit(size).asByteBuffer().asReadOnlyBuffer();
+    }
+}
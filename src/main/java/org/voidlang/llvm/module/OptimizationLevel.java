@@ -0,0 +1,54 @@
+package org.voidlang.llvm.module;
+
+/**
+ * Represents an enumeration of the default optimization pipelines of the LLVM new pass manager.
+ */
+public enum OptimizationLevel {
+    /**
+     * `O0` indicates, that only the passes required for correctness should be run.
+     */
+    O0("O0"),
+
+    /**
+     * `O1` indicates, that cheap optimizations should be run, that keep compilation fast.
+     */
+    O1("O1"),
+
+    /**
+     * `O2` indicates, that the optimizations of a typical release build should be run.
+     */
+    O2("O2"),
+
+    /**
+     * `O3` indicates, that aggressive optimizations should be run, that may increase the code size.
+     */
+    O3("O3"),
+
+    /**
+     * `Os` indicates, that the optimizations of `O2` should be run, while also reducing the code size.
+     */
+    Os("Os"),
+
+    /**
+     * `Oz` indicates, that the code size should be reduced as much as possible.
+     */
+    Oz("Oz");
+
+    /**
+     * The name of the level in the pass pipeline syntax.
+     */
+    private final String level;
+
+    OptimizationLevel(String level) {
+        this.level = level;
+    }
+
+    /**
+     * Retrieve the textual description of the default pass pipeline of the optimization level.
+     *
+     * @return the pass pipeline, e.g. {@code "default<O2>"}
+     */
+    public String pipeline() {
+        return "default<" + level + ">";
+    }
+}
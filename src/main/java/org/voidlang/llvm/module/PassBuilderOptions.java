@@ -0,0 +1,98 @@
+package org.voidlang.llvm.module;
+
+import org.bytedeco.llvm.LLVM.LLVMPassBuilderOptionsRef;
+import org.voidlang.llvm.behaviour.Disposable;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents a wrapper for the options of the LLVM new pass manager, that are used when running an optimization
+ * pipeline on a module.
+ * <br>
+ * The inliner threshold is not a pass builder option in LLVM 16, it is set for the whole process by
+ * {@link CommandLineOptions#inlinerThreshold(int)}.
+ *
+ * @param handle the handle to the LLVM pass builder options
+ */
+public record PassBuilderOptions(LLVMPassBuilderOptionsRef handle) implements Disposable {
+    /**
+     * Update whether the loop vectorizer should be enabled.
+     *
+     * @param enabled {@code true} to vectorize loops
+     */
+    public void loopVectorization(boolean enabled) {
+        LLVMPassBuilderOptionsSetLoopVectorization(handle, enabled ? 1 : 0);
+    }
+
+    /**
+     * Update whether the superword-level parallelism (SLP) vectorizer should be enabled, which combines
+     * independent scalar operations of straight-line code into vector operations.
+     *
+     * @param enabled {@code true} to vectorize straight-line code
+     */
+    public void slpVectorization(boolean enabled) {
+        LLVMPassBuilderOptionsSetSLPVectorization(handle, enabled ? 1 : 0);
+    }
+
+    /**
+     * Update whether loops should be unrolled.
+     *
+     * @param enabled {@code true} to unroll loops
+     */
+    public void loopUnrolling(boolean enabled) {
+        LLVMPassBuilderOptionsSetLoopUnrolling(handle, enabled ? 1 : 0);
+    }
+
+    /**
+     * Update whether loop iterations should be interleaved by the loop vectorizer.
+     *
+     * @param enabled {@code true} to interleave loops
+     */
+    public void loopInterleaving(boolean enabled) {
+        LLVMPassBuilderOptionsSetLoopInterleaving(handle, enabled ? 1 : 0);
+    }
+
+    /**
+     * Update whether identical functions should be merged.
+     *
+     * @param enabled {@code true} to merge functions
+     */
+    public void mergeFunctions(boolean enabled) {
+        LLVMPassBuilderOptionsSetMergeFunctions(handle, enabled ? 1 : 0);
+    }
+
+    /**
+     * Update whether the module should be verified after each pass. This is meant for debugging.
+     *
+     * @param enabled {@code true} to verify the module after each pass
+     */
+    public void verifyEach(boolean enabled) {
+        LLVMPassBuilderOptionsSetVerifyEach(handle, enabled ? 1 : 0);
+    }
+
+    /**
+     * Update whether the pass manager should print the passes it runs to the standard error output.
+     *
+     * @param enabled {@code true} to print debug logging
+     */
+    public void debugLogging(boolean enabled) {
+        LLVMPassBuilderOptionsSetDebugLogging(handle, enabled ? 1 : 0);
+    }
+
+    /**
+     * Dispose of the value handle held by this object.
+     */
+    @Override
+    public void dispose() {
+        LLVMDisposePassBuilderOptions(handle);
+    }
+
+    /**
+     * Create a new instance of the pass builder options, with the default settings.
+     *
+     * @return the new pass builder options
+     */
+    public static PassBuilderOptions create() {
+        return new PassBuilderOptions(LLVMCreatePassBuilderOptions());
+    }
+}
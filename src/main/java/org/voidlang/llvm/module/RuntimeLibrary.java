@@ -0,0 +1,181 @@
+package org.voidlang.llvm.module;
+
+import org.bytedeco.llvm.LLVM.LLVMModuleRef;
+import org.bytedeco.llvm.LLVM.LLVMValueRef;
+import org.voidlang.llvm.jit.OrcJit;
+import org.voidlang.llvm.jit.ThreadSafeContext;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a pre-optimized library of helper functions, that is built once and shared by every generated module,
+ * instead of being rebuilt by each of them.
+ * <br>
+ * The library is kept as bitcode, so it can be linked into modules of any context. Linking parses the bitcode
+ * lazily, and only materializes the functions that are referenced by the destination module, which makes it cheap
+ * for large libraries. The library can be used in two ways:
+ * <ul>
+ *     <li>{@link #linkInto(IRModule)} copies the referenced functions into the module with {@code linkonce_odr}
+ *     linkage, so the module is self-contained, e.g. for an {@link org.voidlang.llvm.jit.ExecutionEngine} or an
+ *     object file.</li>
+ *     <li>{@link #install(OrcJit)} adds the library to a JIT once, and {@link #linkInlineInto(IRModule)} links the
+ *     referenced functions as {@code available_externally} definitions, which can be inlined by the optimizer, but
+ *     are not emitted again. Calls that are not inlined resolve to the installed library.</li>
+ * </ul>
+ */
+public class RuntimeLibrary {
+    /**
+     * The name of the library.
+     */
+    private final String name;
+
+    /**
+     * The bitcode of the library, with the original linkage of its definitions.
+     */
+    private final byte[] bitcode;
+
+    /**
+     * The bitcode of the library, with {@code linkonce_odr} definitions.
+     */
+    private final byte[] copyBitcode;
+
+    /**
+     * The bitcode of the library, with {@code available_externally} definitions.
+     */
+    private final byte[] inlineBitcode;
+
+    /**
+     * Initialize the runtime library with the specified variants of its bitcode.
+     *
+     * @param name the name of the library
+     * @param bitcode the bitcode with the original linkage
+     * @param copyBitcode the bitcode with {@code linkonce_odr} definitions
+     * @param inlineBitcode the bitcode with {@code available_externally} definitions
+     */
+    private RuntimeLibrary(String name, byte[] bitcode, byte[] copyBitcode, byte[] inlineBitcode) {
+        this.name = name;
+        this.bitcode = bitcode;
+        this.copyBitcode = copyBitcode;
+        this.inlineBitcode = inlineBitcode;
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * Link a private copy of the functions of the library, that are referenced by the specified module, into the
+     * module.
+     *
+     * @param module the module that uses the library
+     * @throws IllegalArgumentException if the library could not be linked into the module
+     */
+    public void linkInto(IRModule module) {
+        checkNotNull(module, "module");
+        module.linkIn(IRModule.parseBitcode(module.context(), copyBitcode, name, true));
+    }
+
+    /**
+     * Link the functions of the library, that are referenced by the specified module, into the module as
+     * {@code available_externally} definitions. The library must be {@link #install(OrcJit) installed} in the JIT
+     * that compiles the module.
+     *
+     * @param module the module that uses the library
+     * @throws IllegalArgumentException if the library could not be linked into the module
+     */
+    public void linkInlineInto(IRModule module) {
+        checkNotNull(module, "module");
+        module.linkIn(IRModule.parseBitcode(module.context(), inlineBitcode, name, true));
+    }
+
+    /**
+     * Add the definitions of the library to the main library of the specified JIT, so that modules of the JIT can
+     * call them. The library must be installed only once per JIT.
+     *
+     * @param jit the JIT to install the library in
+     * @throws org.voidlang.llvm.error.LLVMException if the library could not be added to the JIT
+     */
+    public void install(OrcJit jit) {
+        checkNotNull(jit, "jit");
+        ThreadSafeContext context = ThreadSafeContext.create();
+        try {
+            jit.addModule(IRModule.parseBitcode(context.context(), bitcode, name), context);
+        } finally {
+            // the JIT keeps the context alive for the module
+            context.dispose();
+        }
+    }
+
+    /**
+     * Create a new runtime library from the specified module, which should have been optimized already. The
+     * ownership of the module is transferred to the library, therefore the module must not be used or disposed
+     * after this call.
+     *
+     * @param module the module that defines the library
+     * @return a new runtime library
+     */
+    public static RuntimeLibrary create(IRModule module) {
+        checkNotNull(module, "module");
+        try {
+            byte[] bitcode = module.bitcode();
+            setLinkage(module.handle(), LLVMLinkOnceODRLinkage);
+            byte[] copyBitcode = module.bitcode();
+            setLinkage(module.handle(), LLVMAvailableExternallyLinkage);
+            byte[] inlineBitcode = module.bitcode();
+            return new RuntimeLibrary(module.name(), bitcode, copyBitcode, inlineBitcode);
+        } finally {
+            module.dispose();
+        }
+    }
+
+    /**
+     * Load a runtime library from the specified bitcode file.
+     *
+     * @param path the path of the bitcode file
+     * @return a new runtime library
+     * @throws UncheckedIOException if the bitcode file could not be read
+     * @throws IllegalArgumentException if the file does not contain valid bitcode
+     */
+    public static RuntimeLibrary load(Path path) {
+        IRContext context = IRContext.create();
+        try {
+            return create(IRModule.loadBitcode(context, path, false));
+        } finally {
+            context.dispose();
+        }
+    }
+
+    /**
+     * Update the linkage of every definition of the specified module, that is visible outside the module.
+     *
+     * @param module the module to update
+     * @param linkage the new linkage of the definitions
+     */
+    private static void setLinkage(LLVMModuleRef module, int linkage) {
+        for (LLVMValueRef function = LLVMGetFirstFunction(module); function != null; function = LLVMGetNextFunction(function))
+            setLinkage(function, linkage);
+        for (LLVMValueRef global = LLVMGetFirstGlobal(module); global != null; global = LLVMGetNextGlobal(global))
+            setLinkage(global, linkage);
+    }
+
+    /**
+     * Update the linkage of the specified global value, if it is a definition that is visible outside its module.
+     *
+     * @param value the global value to update
+     * @param linkage the new linkage of the value
+     */
+    private static void setLinkage(LLVMValueRef value, int linkage) {
+        if (LLVMIsDeclaration(value) != 0)
+            return;
+        int current = LLVMGetLinkage(value);
+        if (current == LLVMInternalLinkage || current == LLVMPrivateLinkage)
+            return;
+        LLVMSetLinkage(value, linkage);
+        // available_externally definitions must not be part of a comdat
+        LLVMSetComdat(value, null);
+    }
+}
@@ -0,0 +1,78 @@
+package org.voidlang.llvm.module;
+
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacpp.PointerPointer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Represents a utility class that provides the native buffers, that pass arrays of handles to LLVM, e.g. the
+ * operands of an instruction or the element types of a struct.
+ * <br>
+ * Each thread has its own buffers, which are reused by every call and grow as needed, so passing handles to LLVM
+ * does not allocate native memory. A buffer is only valid until it is retrieved again on the same thread, so it
+ * must be passed to LLVM right after it has been filled. A call that takes two arrays uses the {@link #first(int)}
+ * and the {@link #second(int)} buffer. The buffers of a thread are freed, after the thread has terminated.
+ */
+public final class ScratchPointers {
+    /**
+     * The initial capacity of the buffers.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The first buffer of each thread.
+     */
+    private static final ThreadLocal<PointerPointer<?>> first = new ThreadLocal<>();
+
+    /**
+     * The second buffer of each thread.
+     */
+    private static final ThreadLocal<PointerPointer<?>> second = new ThreadLocal<>();
+
+    /**
+     * Retrieve the first buffer of the current thread, with room for at least the specified number of handles.
+     *
+     * @param length the number of handles to pass
+     * @param <P> the type of the handles
+     * @return the first buffer
+     */
+    public static <P extends Pointer> PointerPointer<P> first(int length) {
+        return buffer(first, length);
+    }
+
+    /**
+     * Retrieve the second buffer of the current thread, with room for at least the specified number of handles,
+     * for calls that take two arrays at once.
+     *
+     * @param length the number of handles to pass
+     * @param <P> the type of the handles
+     * @return the second buffer
+     */
+    public static <P extends Pointer> PointerPointer<P> second(int length) {
+        return buffer(second, length);
+    }
+
+    /**
+     * Retrieve the specified buffer of the current thread, growing it if it is too small.
+     *
+     * @param buffers the buffers of each thread
+     * @param length the number of handles to pass
+     * @param <P> the type of the handles
+     * @return the buffer of the current thread
+     */
+    @SuppressWarnings("unchecked")
+    private static <P extends Pointer> PointerPointer<P> buffer(ThreadLocal<PointerPointer<?>> buffers, int length) {
+        checkArgument(length >= 0, "length must not be negative");
+        PointerPointer<?> buffer = buffers.get();
+        if (buffer == null || buffer.capacity() < length) {
+            // grow geometrically, so a long sequence of growing calls only reallocates a few times
+            long capacity = Math.max(length, buffer == null ? INITIAL_CAPACITY : buffer.capacity() * 2);
+            if (buffer != null)
+                buffer.close();
+            buffer = new PointerPointer<>(capacity);
+            buffers.set(buffer);
+        }
+        return (PointerPointer<P>) buffer;
+    }
+}
@@ -0,0 +1,31 @@
+package org.voidlang.llvm.target;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents an enumeration of the kinds of files, that a {@link TargetMachine} can emit.
+ */
+public enum CodeGenFileType {
+    /**
+     * `OBJECT` indicates, that a relocatable object file should be emitted, e.g. a {@code .o} file.
+     */
+    OBJECT(LLVMObjectFile),
+
+    /**
+     * `ASSEMBLY` indicates, that a textual assembly file should be emitted, e.g. a {@code .s} file.
+     */
+    ASSEMBLY(LLVMAssemblyFile);
+
+    /**
+     * The code of the file type.
+     */
+    private final int code;
+
+    CodeGenFileType(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return this.code;
+    }
+}
@@ -0,0 +1,57 @@
+package org.voidlang.llvm.target;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents an enumeration of the code models, that limit the distance between the generated code and the symbols
+ * it references.
+ */
+public enum CodeModel {
+    /**
+     * `DEFAULT` indicates, that the default model of the target should be used.
+     */
+    DEFAULT(LLVMCodeModelDefault),
+
+    /**
+     * `JIT_DEFAULT` indicates, that the default model of the target for JIT compilation should be used.
+     */
+    JIT_DEFAULT(LLVMCodeModelJITDefault),
+
+    /**
+     * `TINY` indicates, that code and data must fit into a very small address range.
+     */
+    TINY(LLVMCodeModelTiny),
+
+    /**
+     * `SMALL` indicates, that code and data must fit into the lower 2 GiB of the address space.
+     */
+    SMALL(LLVMCodeModelSmall),
+
+    /**
+     * `KERNEL` indicates, that code and data must fit into the upper 2 GiB of the address space.
+     */
+    KERNEL(LLVMCodeModelKernel),
+
+    /**
+     * `MEDIUM` indicates, that code must fit into 2 GiB, while data may be located anywhere.
+     */
+    MEDIUM(LLVMCodeModelMedium),
+
+    /**
+     * `LARGE` indicates, that code and data may be located anywhere.
+     */
+    LARGE(LLVMCodeModelLarge);
+
+    /**
+     * The code of the code model.
+     */
+    private final int code;
+
+    CodeModel(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return this.code;
+    }
+}
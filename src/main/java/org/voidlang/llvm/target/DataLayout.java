@@ -0,0 +1,161 @@
+package org.voidlang.llvm.target;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.llvm.LLVM.LLVMTargetDataRef;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.behaviour.Scope;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.type.IRStructType;
+import org.voidlang.llvm.type.IRType;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a wrapper for an LLVM data layout, which describes how the values of each type are laid out in the
+ * memory of a target.
+ * <br>
+ * The queries of the data layout let generated code address off-heap structures, that are laid out by Java code,
+ * with the same sizes, alignments and offsets that LLVM assumes for the corresponding types.
+ *
+ * @param handle the handle to the LLVM data layout
+ */
+public record DataLayout(LLVMTargetDataRef handle) implements Disposable {
+    /**
+     * Retrieve the number of bytes that are written by a store of the specified type, without trailing padding.
+     *
+     * @param type the type to query
+     * @return the store size of the type, in bytes
+     */
+    public long storeSize(IRType type) {
+        return LLVMStoreSizeOfType(handle, checkNotNull(type, "type").handle());
+    }
+
+    /**
+     * Retrieve the number of bytes between consecutive elements of the specified type in an array, including the
+     * trailing padding.
+     *
+     * @param type the type to query
+     * @return the allocation size of the type, in bytes
+     */
+    public long allocationSize(IRType type) {
+        return LLVMABISizeOfType(handle, checkNotNull(type, "type").handle());
+    }
+
+    /**
+     * Retrieve the number of bits of the specified type.
+     *
+     * @param type the type to query
+     * @return the size of the type, in bits
+     */
+    public long sizeInBits(IRType type) {
+        return LLVMSizeOfTypeInBits(handle, checkNotNull(type, "type").handle());
+    }
+
+    /**
+     * Retrieve the minimum alignment of the specified type, that is required by the ABI of the target.
+     *
+     * @param type the type to query
+     * @return the ABI alignment of the type, in bytes
+     */
+    public int abiAlignment(IRType type) {
+        return LLVMABIAlignmentOfType(handle, checkNotNull(type, "type").handle());
+    }
+
+    /**
+     * Retrieve the alignment of the specified type, that is preferred by the target.
+     *
+     * @param type the type to query
+     * @return the preferred alignment of the type, in bytes
+     */
+    public int preferredAlignment(IRType type) {
+        return LLVMPreferredAlignmentOfType(handle, checkNotNull(type, "type").handle());
+    }
+
+    /**
+     * Retrieve the offset of the element at the specified index from the start of a struct.
+     *
+     * @param type the struct type to query
+     * @param index the index of the element
+     * @return the offset of the element, in bytes
+     */
+    public long offsetOf(IRStructType type, int index) {
+        checkArgument(index >= 0 && index < checkNotNull(type, "type").elementCount(), "index out of bounds: %s", index);
+        return LLVMOffsetOfElement(handle, type.handle(), index);
+    }
+
+    /**
+     * Retrieve the index of the element of a struct, that contains the specified byte offset.
+     *
+     * @param type the struct type to query
+     * @param offset the offset from the start of the struct, in bytes
+     * @return the index of the element
+     */
+    public int elementAt(IRStructType type, long offset) {
+        return LLVMElementAtOffset(handle, checkNotNull(type, "type").handle(), offset);
+    }
+
+    /**
+     * Retrieve the size of a pointer in the default address space.
+     *
+     * @return the size of a pointer, in bytes
+     */
+    public int pointerSize() {
+        return LLVMPointerSize(handle);
+    }
+
+    /**
+     * Retrieve the indication, whether the target stores the most significant byte of a value first.
+     *
+     * @return {@code true} if the target is big-endian, {@code false} otherwise
+     */
+    public boolean isBigEndian() {
+        return LLVMByteOrder(handle) == LLVMBigEndian;
+    }
+
+    /**
+     * Retrieve the string representation of the data layout, e.g. {@code "e-m:e-i64:64-n8:16:32:64-S128"}.
+     *
+     * @return the data layout string
+     */
+    @Override
+    public String toString() {
+        BytePointer layout = LLVMCopyStringRepOfTargetData(handle);
+        try {
+            return layout.getString();
+        } finally {
+            LLVMDisposeMessage(layout);
+        }
+    }
+
+    /**
+     * Dispose of the value handle held by this object.
+     */
+    @Override
+    public void dispose() {
+        Scope.untrack(this);
+        LLVMDisposeTargetData(handle);
+    }
+
+    /**
+     * Create a new data layout from the specified data layout string.
+     *
+     * @param layout the data layout string
+     * @return a new data layout
+     */
+    public static DataLayout of(String layout) {
+        return Scope.track(new DataLayout(LLVMCreateTargetData(checkNotNull(layout, "layout"))));
+    }
+
+    /**
+     * Create a new data layout from the data layout of the specified module, which is usually set by
+     * {@link TargetMachine#configure(IRModule)}.
+     *
+     * @param module the module whose data layout is used
+     * @return a new data layout
+     */
+    public static DataLayout of(IRModule module) {
+        return of(LLVMGetDataLayoutStr(checkNotNull(module, "module").handle()).getString());
+    }
+}
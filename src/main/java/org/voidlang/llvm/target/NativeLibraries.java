@@ -0,0 +1,90 @@
+package org.voidlang.llvm.target;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a utility class that packages object files emitted by a {@link TargetMachine} into libraries, with the
+ * system toolchain.
+ * <br>
+ * Shared libraries can be loaded with {@link System#load(String)}, and their functions called through
+ * {@link java.lang.foreign.SymbolLookup#libraryLookup(Path, java.lang.foreign.Arena)}, without any JIT at runtime.
+ * The objects of a shared library must be compiled with {@link RelocationModel#PIC}.
+ */
+public class NativeLibraries {
+    /**
+     * The name of the system C compiler driver, which is used to link shared libraries.
+     */
+    private static final String LINKER = System.getProperty("org.voidlang.llvm.linker", "cc");
+
+    /**
+     * The name of the system archiver, which is used to create static libraries.
+     */
+    private static final String ARCHIVER = System.getProperty("org.voidlang.llvm.archiver", "ar");
+
+    /**
+     * Link the specified object files into a shared library.
+     *
+     * @param objects the object files to link
+     * @param output the path of the shared library, e.g. {@code libkernels.so}
+     * @throws UncheckedIOException if the linker could not be run or failed
+     */
+    public static void linkShared(List<Path> objects, Path output) {
+        List<String> command = new ArrayList<>(List.of(LINKER, "-shared", "-o", checkNotNull(output, "output").toString()));
+        addObjects(command, objects);
+        run(command);
+    }
+
+    /**
+     * Archive the specified object files into a static library.
+     *
+     * @param objects the object files to archive
+     * @param output the path of the static library, e.g. {@code libkernels.a}
+     * @throws UncheckedIOException if the archiver could not be run or failed
+     */
+    public static void archive(List<Path> objects, Path output) {
+        List<String> command = new ArrayList<>(List.of(ARCHIVER, "rcs", checkNotNull(output, "output").toString()));
+        addObjects(command, objects);
+        run(command);
+    }
+
+    /**
+     * Append the paths of the specified object files to a command.
+     *
+     * @param command the command to append to
+     * @param objects the object files to append
+     */
+    private static void addObjects(List<String> command, List<Path> objects) {
+        checkArgument(!checkNotNull(objects, "objects").isEmpty(), "objects must not be empty");
+        for (int i = 0; i < objects.size(); i++)
+            command.add(checkNotNull(objects.get(i), "objects.get(" + i + ")").toString());
+    }
+
+    /**
+     * Run the specified command, and wait for it to complete.
+     *
+     * @param command the command to run
+     * @throws UncheckedIOException if the command could not be run or failed
+     */
+    private static void run(List<String> command) {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            int status = process.waitFor();
+            if (status != 0)
+                throw new IOException(String.join(" ", command) + " failed with status " + status + ": " + output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("Interrupted while running " + command.get(0), e));
+        }
+    }
+}
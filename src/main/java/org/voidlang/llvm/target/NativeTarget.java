@@ -0,0 +1,29 @@
+package org.voidlang.llvm.target;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents a utility class that initializes the LLVM components required to generate code for the host machine.
+ */
+public class NativeTarget {
+    /**
+     * The indication, whether the native target has been initialized already.
+     */
+    private static boolean initialized = false;
+
+    /**
+     * Initialize the native target, its assembly printer and parser, and link in the MCJIT compiler.
+     * <br>
+     * This method may be called any number of times, the initialization is performed only once.
+     */
+    public static synchronized void initialize() {
+        if (initialized)
+            return;
+        if (LLVMInitializeNativeTarget() != 0)
+            throw new IllegalStateException("Failed to initialize the native target");
+        LLVMInitializeNativeAsmPrinter();
+        LLVMInitializeNativeAsmParser();
+        LLVMLinkInMCJIT();
+        initialized = true;
+    }
+}
@@ -0,0 +1,57 @@
+package org.voidlang.llvm.target;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+
+/**
+ * Represents an enumeration of the relocation models, that determine how the generated code addresses symbols.
+ */
+public enum RelocationModel {
+    /**
+     * `DEFAULT` indicates, that the default model of the target should be used.
+     */
+    DEFAULT(LLVMRelocDefault),
+
+    /**
+     * `STATIC` indicates, that the code is linked at a fixed address, e.g. into an executable.
+     */
+    STATIC(LLVMRelocStatic),
+
+    /**
+     * `PIC` indicates, that position independent code is generated, which is required for shared libraries.
+     */
+    PIC(LLVMRelocPIC),
+
+    /**
+     * `DYNAMIC_NO_PIC` indicates, that the code is not position independent, but references external symbols
+     * dynamically.
+     */
+    DYNAMIC_NO_PIC(LLVMRelocDynamicNoPic),
+
+    /**
+     * `ROPI` indicates, that read-only data and code are position independent.
+     */
+    ROPI(LLVMRelocROPI),
+
+    /**
+     * `RWPI` indicates, that read-write data is position independent.
+     */
+    RWPI(LLVMRelocRWPI),
+
+    /**
+     * `ROPI_RWPI` indicates, that both read-only and read-write data are position independent.
+     */
+    ROPI_RWPI(LLVMRelocROPI_RWPI);
+
+    /**
+     * The code of the relocation model.
+     */
+    private final int code;
+
+    RelocationModel(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return this.code;
+    }
+}
@@ -0,0 +1,149 @@
+package org.voidlang.llvm.target;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.llvm.LLVM.LLVMAttributeRef;
+import org.bytedeco.llvm.LLVM.LLVMValueRef;
+import org.voidlang.llvm.module.IRModule;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents the CPU that generated code is tuned for, and the instruction set extensions that it may use.
+ * <br>
+ * By default, code is generated for the {@link #host() host} CPU, so vector instructions such as AVX2 or AVX-512
+ * are used, where the host supports them. Code that is compiled for the host may crash on other machines, so
+ * object files that are shared between machines should be compiled for a {@link #generic() generic} or an
+ * explicitly named CPU instead. The CPU is part of the key of the {@link org.voidlang.llvm.jit.ObjectCache}.
+ *
+ * @param name the name of the CPU, e.g. {@code "skylake"}, or an empty string for the generic CPU of the target
+ * @param features the target feature string, e.g. {@code "+avx2,+fma"}, or an empty string for the default
+ *                 features of the CPU
+ */
+public record TargetCpu(String name, String features) {
+    /**
+     * The name of the function attribute, that overrides the CPU of a function.
+     */
+    private static final String CPU_ATTRIBUTE = "target-cpu";
+
+    /**
+     * The name of the function attribute, that overrides the target features of a function.
+     */
+    private static final String FEATURES_ATTRIBUTE = "target-features";
+
+    /**
+     * The CPU of the host, which is detected once, when it is first requested.
+     */
+    private static volatile TargetCpu host;
+
+    public TargetCpu {
+        checkNotNull(name, "name");
+        checkNotNull(features, "features");
+    }
+
+    /**
+     * Retrieve the indication, whether code is generated for the generic CPU of the target, with its default
+     * features.
+     *
+     * @return {@code true} if the CPU is generic, {@code false} otherwise
+     */
+    public boolean isGeneric() {
+        return name.isEmpty() && features.isEmpty();
+    }
+
+    /**
+     * Tune the functions that are defined by the specified module for this CPU, by setting the {@code target-cpu}
+     * and {@code target-features} attributes of the functions, that do not have them yet.
+     * <br>
+     * A function that already has either attribute has been tuned by its creator, so neither attribute is changed,
+     * as the features of this CPU may not be supported by the CPU that the function was tuned for.
+     * <br>
+     * This is required for the MCJIT based {@link org.voidlang.llvm.jit.ExecutionEngine}, whose target machine
+     * always generates code for the generic CPU of the target, unless a function overrides it.
+     *
+     * @param module the module whose functions are tuned
+     */
+    public void apply(IRModule module) {
+        checkNotNull(module, "module");
+        if (isGeneric())
+            return;
+        for (LLVMValueRef function = LLVMGetFirstFunction(module.handle()); function != null && !function.isNull();
+             function = LLVMGetNextFunction(function)) {
+            if (LLVMIsDeclaration(function) != 0 || hasAttribute(function, CPU_ATTRIBUTE)
+                || hasAttribute(function, FEATURES_ATTRIBUTE))
+                continue;
+            addAttribute(function, CPU_ATTRIBUTE, name);
+            addAttribute(function, FEATURES_ATTRIBUTE, features);
+        }
+    }
+
+    /**
+     * Check whether the specified function has the specified string attribute.
+     *
+     * @param function the function to check
+     * @param key the name of the attribute
+     * @return {@code true} if the function has the attribute, {@code false} otherwise
+     */
+    private static boolean hasAttribute(LLVMValueRef function, String key) {
+        LLVMAttributeRef existing = LLVMGetStringAttributeAtIndex(function, LLVMAttributeFunctionIndex, key, key.length());
+        return existing != null && !existing.isNull();
+    }
+
+    /**
+     * Add the specified string attribute to the specified function, unless the value is empty.
+     *
+     * @param function the function to add the attribute to
+     * @param key the name of the attribute
+     * @param value the value of the attribute
+     */
+    private static void addAttribute(LLVMValueRef function, String key, String value) {
+        if (!value.isEmpty())
+            LLVMAddTargetDependentFunctionAttr(function, key, value);
+    }
+
+    /**
+     * Create a new target CPU with the specified name and features.
+     *
+     * @param name the name of the CPU, or an empty string for the generic CPU of the target
+     * @param features the target feature string, or an empty string for the default features of the CPU
+     * @return a new target CPU
+     */
+    public static TargetCpu of(String name, String features) {
+        return new TargetCpu(name, features);
+    }
+
+    /**
+     * Retrieve the generic CPU of the target, whose code runs on every machine of the target triple.
+     *
+     * @return the generic target CPU
+     */
+    public static TargetCpu generic() {
+        return new TargetCpu("", "");
+    }
+
+    /**
+     * Retrieve the CPU of the host, with all the features that the host supports.
+     *
+     * @return the host CPU
+     */
+    public static TargetCpu host() {
+        TargetCpu cpu = host;
+        if (cpu == null)
+            host = cpu = new TargetCpu(consumeMessage(LLVMGetHostCPUName()), consumeMessage(LLVMGetHostCPUFeatures()));
+        return cpu;
+    }
+
+    /**
+     * Read and dispose of a message that was allocated by LLVM.
+     *
+     * @param message the message to consume
+     * @return the string value of the message
+     */
+    private static String consumeMessage(BytePointer message) {
+        try {
+            return message.getString();
+        } finally {
+            LLVMDisposeMessage(message);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.voidlang.llvm.target;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.llvm.LLVM.LLVMMemoryBufferRef;
+import org.bytedeco.llvm.LLVM.LLVMTargetDataRef;
+import org.bytedeco.llvm.LLVM.LLVMTargetMachineRef;
+import org.bytedeco.llvm.LLVM.LLVMTargetRef;
+import org.voidlang.llvm.behaviour.Disposable;
+import org.voidlang.llvm.behaviour.Scope;
+import org.voidlang.llvm.error.LLVMException;
+import org.voidlang.llvm.jit.JitCompilerOptions;
+import org.voidlang.llvm.metrics.CompilationMetrics;
+import org.voidlang.llvm.metrics.CompilationPhase;
+import org.voidlang.llvm.module.IRModule;
+
+import java.nio.file.Path;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a wrapper for an LLVM target machine, which generates native code for a specific target.
+ * <br>
+ * A target machine must not be used by multiple threads at the same time.
+ *
+ * @param handle the handle to the LLVM target machine
+ */
+public record TargetMachine(LLVMTargetMachineRef handle) implements Disposable {
+    /**
+     * Retrieve the target triple of the target machine.
+     *
+     * @return the target triple
+     */
+    public String triple() {
+        return consumeMessage(LLVMGetTargetMachineTriple(handle));
+    }
+
+    /**
+     * Retrieve the data layout of the code generated by the target machine.
+     *
+     * @return the data layout string
+     */
+    public String dataLayout() {
+        LLVMTargetDataRef data = LLVMCreateTargetDataLayout(handle);
+        try {
+            return consumeMessage(LLVMCopyStringRepOfTargetData(data));
+        } finally {
+            LLVMDisposeTargetData(data);
+        }
+    }
+
+    /**
+     * Create a new data layout, that answers size, alignment and offset queries for the code generated by the
+     * target machine.
+     *
+     * @return a new data layout
+     */
+    public DataLayout createDataLayout() {
+        return Scope.track(new DataLayout(LLVMCreateTargetDataLayout(handle)));
+    }
+
+    /**
+     * Update the target triple and the data layout of the specified module to the ones of this target machine.
+     *
+     * @param module the module to update
+     */
+    public void configure(IRModule module) {
+        LLVMSetTarget(checkNotNull(module, "module").handle(), triple());
+        LLVMTargetDataRef data = LLVMCreateTargetDataLayout(handle);
+        LLVMSetModuleDataLayout(module.handle(), data);
+        LLVMDisposeTargetData(data);
+    }
+
+    /**
+     * Compile the specified module to an object file in memory.
+     *
+     * @param module the module to compile
+     * @return a new memory buffer that holds the object file, which must be disposed by the caller
+     * @throws LLVMException if the module could not be compiled
+     */
+    public LLVMMemoryBufferRef emitObject(IRModule module) {
+        return emitToMemoryBuffer(module, CodeGenFileType.OBJECT);
+    }
+
+    /**
+     * Compile the specified module to a file of the specified type in memory.
+     *
+     * @param module the module to compile
+     * @param fileType the type of the file to emit
+     * @return a new memory buffer that holds the file, which must be disposed by the caller
+     * @throws LLVMException if the module could not be compiled
+     */
+    public LLVMMemoryBufferRef emitToMemoryBuffer(IRModule module, CodeGenFileType fileType) {
+        checkNotNull(fileType, "fileType");
+        BytePointer error = new BytePointer();
+        LLVMMemoryBufferRef buffer = new LLVMMemoryBufferRef();
+        CompilationMetrics.measure(checkNotNull(module, "module").name(), CompilationPhase.CODEGEN, triple(), () -> {
+            if (LLVMTargetMachineEmitToMemoryBuffer(handle, module.handle(), fileType.code(), error, buffer) != 0)
+                throw new LLVMException(consumeMessage(error));
+        });
+        return buffer;
+    }
+
+    /**
+     * Compile the specified module to a file of the specified type. The module should have been
+     * {@link #configure(IRModule) configured} for this target machine.
+     *
+     * @param module the module to compile
+     * @param path the path of the file to write
+     * @param fileType the type of the file to emit
+     * @throws LLVMException if the module could not be compiled or the file could not be written
+     */
+    public void emitToFile(IRModule module, Path path, CodeGenFileType fileType) {
+        checkNotNull(path, "path");
+        checkNotNull(fileType, "fileType");
+        BytePointer error = new BytePointer();
+        // the file name parameter is not const in the C API, so it is passed as a native string
+        try (BytePointer filename = new BytePointer(path.toString())) {
+            CompilationMetrics.measure(checkNotNull(module, "module").name(), CompilationPhase.CODEGEN, triple(), () -> {
+                if (LLVMTargetMachineEmitToFile(handle, module.handle(), filename, fileType.code(), error) != 0)
+                    throw new LLVMException(consumeMessage(error));
+            });
+        }
+    }
+
+    /**
+     * Retrieve the name of the CPU that the target machine generates code for.
+     *
+     * @return the name of the CPU, or an empty string for the generic CPU of the target
+     */
+    public String cpu() {
+        return consumeMessage(LLVMGetTargetMachineCPU(handle));
+    }
+
+    /**
+     * Retrieve the feature string of the target machine.
+     *
+     * @return the feature string, e.g. {@code "+avx2,+fma"}
+     */
+    public String features() {
+        return consumeMessage(LLVMGetTargetMachineFeatureString(handle));
+    }
+
+    /**
+     * Dispose of the value handle held by this object.
+     */
+    @Override
+    public void dispose() {
+        LLVMDisposeTargetMachine(handle);
+    }
+
+    /**
+     * Create a new target machine for the specified target triple.
+     *
+     * @param triple the target triple to generate code for
+     * @param cpu the name of the target CPU, or an empty string for the generic CPU of the target
+     * @param features the target feature string, e.g. {@code "+avx2,+fma"}
+     * @param optimizationLevel the code generation optimization level, from {@code 0} to {@code 3}
+     * @param relocationModel the relocation model, one of the {@code LLVMReloc*} constants
+     * @param codeModel the code model, one of the {@code LLVMCodeModel*} constants
+     * @return a new target machine
+     * @throws LLVMException if the target triple is not supported
+     */
+    public static TargetMachine create(String triple, String cpu, String features, int optimizationLevel, int relocationModel, int codeModel) {
+        NativeTarget.initialize();
+        LLVMTargetRef target = new LLVMTargetRef();
+        BytePointer error = new BytePointer();
+        try (BytePointer name = new BytePointer(checkNotNull(triple, "triple"))) {
+            if (LLVMGetTargetFromTriple(name, target, error) != 0)
+                throw new LLVMException(consumeMessage(error));
+        }
+        return new TargetMachine(LLVMCreateTargetMachine(
+            target, triple, checkNotNull(cpu, "cpu"), checkNotNull(features, "features"),
+            optimizationLevel, relocationModel, codeModel
+        ));
+    }
+
+    /**
+     * Create a new target machine for the specified target triple, e.g. to compile modules ahead of time.
+     *
+     * @param triple the target triple to generate code for
+     * @param cpu the name of the target CPU, or an empty string for the generic CPU of the target
+     * @param features the target feature string, e.g. {@code "+avx2,+fma"}
+     * @param optimizationLevel the code generation optimization level, from {@code 0} to {@code 3}
+     * @param relocationModel the relocation model, which must be {@link RelocationModel#PIC} for shared libraries
+     * @param codeModel the code model
+     * @return a new target machine
+     * @throws LLVMException if the target triple is not supported
+     */
+    public static TargetMachine create(String triple, String cpu, String features, int optimizationLevel, RelocationModel relocationModel, CodeModel codeModel) {
+        return create(
+            triple, cpu, features, optimizationLevel,
+            checkNotNull(relocationModel, "relocationModel").code(), checkNotNull(codeModel, "codeModel").code()
+        );
+    }
+
+    /**
+     * Create a new target machine for the host, using the optimization level, the code model and the target CPU of
+     * the specified JIT compiler options.
+     *
+     * @param options the options of the JIT compiler
+     * @return a new target machine
+     */
+    public static TargetMachine host(JitCompilerOptions options) {
+        checkNotNull(options, "options");
+        TargetCpu cpu = options.cpu();
+        return create(defaultTriple(), cpu.name(), cpu.features(), options.optimizationLevel(), LLVMRelocDefault, options.codeModel());
+    }
+
+    /**
+     * Create a new target machine for the host CPU and all of its features, with the default optimization level
+     * and code model.
+     *
+     * @return a new target machine
+     */
+    public static TargetMachine host() {
+        TargetCpu cpu = TargetCpu.host();
+        return create(defaultTriple(), cpu.name(), cpu.features(), LLVMCodeGenLevelDefault, LLVMRelocDefault, LLVMCodeModelJITDefault);
+    }
+
+    /**
+     * Retrieve the target triple of the host.
+     *
+     * @return the default target triple
+     */
+    public static String defaultTriple() {
+        return consumeMessage(LLVMGetDefaultTargetTriple());
+    }
+
+    /**
+     * Read and dispose of a message that was allocated by LLVM.
+     *
+     * @param message the message to consume
+     * @return the string value of the message
+     */
+    private static String consumeMessage(BytePointer message) {
+        try {
+            return message.getString();
+        } finally {
+            LLVMDisposeMessage(message);
+        }
+    }
+}
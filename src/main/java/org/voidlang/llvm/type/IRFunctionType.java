@@ -3,14 +3,20 @@ package org.voidlang.llvm.type;
 import org.bytedeco.javacpp.PointerPointer;
 import org.bytedeco.llvm.LLVM.LLVMTypeRef;
 import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.ScratchPointers;
+import org.voidlang.llvm.type.TypeTable.Key;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import static org.bytedeco.llvm.global.LLVM.LLVMFunctionType;
+import static org.bytedeco.llvm.global.LLVM.*;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Represents a wrapper for an LLVM function type, which describes the type signature of a function.
+ * <br>
+ * Function types created by {@link #create(IRContext, IRType, List, boolean)} and its overloads are interned in the
+ * {@link TypeTable} of their context.
  */
 public class IRFunctionType extends IRType {
     /**
@@ -66,14 +72,89 @@ public class IRFunctionType extends IRType {
      * @return a new function type
      */
     public static IRFunctionType create(IRContext context, IRType returnType, List<IRType> parameterTypes, boolean variadic) {
-        // unwrap the handles of the parameter types wrappers
+        // the key of a function type is made of the addresses of its return and parameter types
         int parameterLength = checkNotNull(parameterTypes, "parameterTypes").size();
-        PointerPointer<LLVMTypeRef> parameters = new PointerPointer<>(parameterLength);
+        long[] components = new long[parameterLength + 1];
+        components[0] = checkNotNull(returnType, "returnType").handle().address();
+        for (int i = 0; i < parameterLength; i++)
+            components[i + 1] = checkNotNull(parameterTypes.get(i), "parameterTypes.get(" + i + ")").handle().address();
+        return TypeTable.of(context).intern(
+            new Key(Key.FUNCTION, variadic ? 1 : 0, components),
+            () -> build(context, returnType, List.copyOf(parameterTypes), variadic)
+        );
+    }
+
+    /**
+     * Create a new function type with the specified return type, parameter types and variadic indication. Unlike
+     * {@link #create(IRContext, IRType, List, boolean)}, the parameter types do not have to be collected into a list.
+     *
+     * @param context the context in which the type is created
+     * @param returnType the return type of the function
+     * @param parameterTypes the parameter types of the function
+     * @param variadic the indication, whether the function is variadic
+     * @return a new function type
+     */
+    public static IRFunctionType create(IRContext context, IRType returnType, IRType[] parameterTypes, boolean variadic) {
+        long[] components = new long[checkNotNull(parameterTypes, "parameterTypes").length + 1];
+        components[0] = checkNotNull(returnType, "returnType").handle().address();
+        for (int i = 0; i < parameterTypes.length; i++)
+            components[i + 1] = checkNotNull(parameterTypes[i], "parameterTypes[" + i + "]").handle().address();
+        return TypeTable.of(context).intern(
+            new Key(Key.FUNCTION, variadic ? 1 : 0, components),
+            () -> build(context, returnType, List.of(parameterTypes), variadic)
+        );
+    }
+
+    /**
+     * Create a new function type, that is not variadic, with the specified return type and parameter types.
+     *
+     * @param context the context in which the type is created
+     * @param returnType the return type of the function
+     * @param parameterTypes the parameter types of the function
+     * @return a new function type
+     */
+    public static IRFunctionType create(IRContext context, IRType returnType, IRType... parameterTypes) {
+        return create(context, returnType, parameterTypes, false);
+    }
+
+    /**
+     * Create the LLVM function type with the specified return type, parameter types and variadic indication.
+     *
+     * @param context the context in which the type is created
+     * @param returnType the return type of the function
+     * @param parameterTypes the parameter types of the function
+     * @param variadic the indication, whether the function is variadic
+     * @return a new function type
+     */
+    private static IRFunctionType build(IRContext context, IRType returnType, List<IRType> parameterTypes, boolean variadic) {
+        // unwrap the handles of the parameter types wrappers
+        int parameterLength = parameterTypes.size();
+        PointerPointer<LLVMTypeRef> parameters = ScratchPointers.first(parameterLength);
         for (int i = 0; i < parameterLength; i++)
-            parameters.put(i, checkNotNull(parameterTypes.get(i), "parameterTypes.get(" + i + ")").handle());
+            parameters.put(i, parameterTypes.get(i).handle());
         // create the LLVM function type handle
-        LLVMTypeRef handle = LLVMFunctionType(checkNotNull(returnType, "returnType").handle(), parameters, parameterLength, variadic ? 1 : 0);
+        LLVMTypeRef handle = LLVMFunctionType(returnType.handle(), parameters, parameterLength, variadic ? 1 : 0);
         // create a wrapper for the function type
         return new IRFunctionType(handle, context, returnType, parameterTypes, variadic);
     }
+
+    /**
+     * Create a wrapper for an existing LLVM function type handle, e.g. the value type of a function.
+     *
+     * @param handle the handle to the LLVM function type
+     * @param context the context in which the type is defined
+     * @return a new function type wrapper
+     */
+    public static IRFunctionType of(LLVMTypeRef handle, IRContext context) {
+        // resolve the interned wrappers of the parameter types
+        TypeTable table = TypeTable.of(context);
+        int parameterLength = LLVMCountParamTypes(checkNotNull(handle, "handle"));
+        PointerPointer<LLVMTypeRef> parameters = ScratchPointers.first(parameterLength);
+        LLVMGetParamTypes(handle, parameters);
+        List<IRType> parameterTypes = new ArrayList<>(parameterLength);
+        for (int i = 0; i < parameterLength; i++)
+            parameterTypes.add(table.type(parameters.get(LLVMTypeRef.class, i)));
+        IRType returnType = table.type(LLVMGetReturnType(handle));
+        return new IRFunctionType(handle, context, returnType, parameterTypes, LLVMIsFunctionVarArg(handle) != 0);
+    }
 }
@@ -0,0 +1,156 @@
+package org.voidlang.llvm.type;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.PointerPointer;
+import org.bytedeco.llvm.LLVM.LLVMTypeRef;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.ScratchPointers;
+import org.voidlang.llvm.type.TypeTable.Key;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Represents a wrapper for an LLVM struct type, which is an aggregate of elements of possibly different types.
+ * <br>
+ * Literal structs are identified by their element types, and are interned in the {@link TypeTable} of their
+ * context. Named structs are distinct types, even if their elements are the same, and may be created opaque, so
+ * that they can refer to themselves through pointers, and receive their body later.
+ * <br>
+ * The elements of a struct are laid out with the alignment of their types, unless the struct is packed, in which
+ * case there is no padding between the elements. The offsets of the elements for a target are provided by
+ * {@link org.voidlang.llvm.target.DataLayout}.
+ */
+public class IRStructType extends IRType {
+    public IRStructType(LLVMTypeRef handle, IRContext context) {
+        super(handle, context);
+    }
+
+    /**
+     * Retrieve the name of the struct.
+     *
+     * @return the name of the struct, or an empty optional for a literal struct
+     */
+    public Optional<String> name() {
+        BytePointer name = LLVMGetStructName(handle());
+        return name == null || name.isNull() ? Optional.empty() : Optional.of(name.getString());
+    }
+
+    /**
+     * Retrieve the indication, whether the struct has no body yet.
+     *
+     * @return {@code true} if the struct is opaque, {@code false} otherwise
+     */
+    public boolean isOpaque() {
+        return LLVMIsOpaqueStruct(handle()) != 0;
+    }
+
+    /**
+     * Retrieve the indication, whether the elements of the struct are laid out without padding.
+     *
+     * @return {@code true} if the struct is packed, {@code false} otherwise
+     */
+    public boolean isPacked() {
+        return LLVMIsPackedStruct(handle()) != 0;
+    }
+
+    /**
+     * Retrieve the number of elements of the struct.
+     *
+     * @return the number of elements
+     */
+    public int elementCount() {
+        return LLVMCountStructElementTypes(handle());
+    }
+
+    /**
+     * Retrieve the type of the element at the specified index.
+     *
+     * @param index the index of the element
+     * @return the type of the element
+     */
+    public IRType elementType(int index) {
+        checkArgument(index >= 0 && index < elementCount(), "index out of bounds: %s", index);
+        return new IRType(LLVMStructGetTypeAtIndex(handle(), index), context());
+    }
+
+    /**
+     * Set the body of an opaque named struct.
+     *
+     * @param elementTypes the types of the elements of the struct
+     * @param packed the indication, whether the elements are laid out without padding
+     * @throws IllegalStateException if the struct already has a body
+     */
+    public void setBody(List<IRType> elementTypes, boolean packed) {
+        checkState(isOpaque(), "struct already has a body");
+        int length = checkNotNull(elementTypes, "elementTypes").size();
+        PointerPointer<LLVMTypeRef> elements = ScratchPointers.first(length);
+        for (int i = 0; i < length; i++)
+            elements.put(i, checkNotNull(elementTypes.get(i), "elementTypes.get(" + i + ")").handle());
+        LLVMStructSetBody(handle(), elements, length, packed ? 1 : 0);
+    }
+
+    /**
+     * Create a new literal struct type with the specified element types.
+     *
+     * @param context the context in which the type is created
+     * @param elementTypes the types of the elements of the struct
+     * @param packed the indication, whether the elements are laid out without padding
+     * @return a new literal struct type
+     */
+    public static IRStructType create(IRContext context, List<IRType> elementTypes, boolean packed) {
+        int length = checkNotNull(elementTypes, "elementTypes").size();
+        long[] components = new long[length];
+        for (int i = 0; i < length; i++)
+            components[i] = checkNotNull(elementTypes.get(i), "elementTypes.get(" + i + ")").handle().address();
+        return TypeTable.of(context).intern(new Key(Key.STRUCT, packed ? 1 : 0, components), () -> {
+            PointerPointer<LLVMTypeRef> elements = ScratchPointers.first(length);
+            for (int i = 0; i < length; i++)
+                elements.put(i, elementTypes.get(i).handle());
+            return new IRStructType(LLVMStructTypeInContext(context.handle(), elements, length, packed ? 1 : 0), context);
+        });
+    }
+
+    /**
+     * Create a new literal struct type, that is not packed, with the specified element types.
+     *
+     * @param context the context in which the type is created
+     * @param elementTypes the types of the elements of the struct
+     * @return a new literal struct type
+     */
+    public static IRStructType create(IRContext context, IRType... elementTypes) {
+        return create(context, List.of(elementTypes), false);
+    }
+
+    /**
+     * Create a new opaque named struct type. The body of the struct is set with {@link #setBody(List, boolean)}.
+     *
+     * @param context the context in which the type is created
+     * @param name the name of the struct, which is made unique by LLVM if it is already used
+     * @return a new named struct type
+     */
+    public static IRStructType createNamed(IRContext context, String name) {
+        checkNotNull(context, "context");
+        return new IRStructType(LLVMStructCreateNamed(context.handle(), checkNotNull(name, "name")), context);
+    }
+
+    /**
+     * Create a new named struct type with the specified element types.
+     *
+     * @param context the context in which the type is created
+     * @param name the name of the struct, which is made unique by LLVM if it is already used
+     * @param elementTypes the types of the elements of the struct
+     * @param packed the indication, whether the elements are laid out without padding
+     * @return a new named struct type
+     */
+    public static IRStructType createNamed(IRContext context, String name, List<IRType> elementTypes, boolean packed) {
+        IRStructType type = createNamed(context, name);
+        type.setBody(elementTypes, packed);
+        return type;
+    }
+}
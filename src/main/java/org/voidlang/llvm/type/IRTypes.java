@@ -1,12 +1,19 @@
 package org.voidlang.llvm.type;
 
+import org.bytedeco.llvm.LLVM.LLVMTypeRef;
 import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.type.TypeTable.Key;
+import org.voidlang.llvm.type.TypeTable.Primitive;
 
 import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Represents a utility class that creates wrappers for LLVM types.
+ * <br>
+ * The wrappers are interned in the {@link TypeTable} of their context, so repeated calls with the same arguments
+ * return the same instance.
  */
 public class IRTypes {
     /**
@@ -16,7 +23,7 @@ public class IRTypes {
      * @return a new 1-bit integer type
      */
     public static IRType ofInt1(IRContext context) {
-        return new IRType(LLVMInt1TypeInContext(checkNotNull(context, "context").handle()), context);
+        return TypeTable.of(context).primitive(Primitive.INT1);
     }
 
     /**
@@ -25,7 +32,7 @@ public class IRTypes {
      * @return a new 1-bit integer type
      */
     public static IRType ofInt1() {
-        return new IRType(LLVMInt1Type(), IRContext.global());
+        return ofInt1(IRContext.global());
     }
 
     /**
@@ -35,7 +42,7 @@ public class IRTypes {
      * @return a new 8-bit integer type
      */
     public static IRType ofInt8(IRContext context) {
-        return new IRType(LLVMInt8TypeInContext(checkNotNull(context, "context").handle()), context);
+        return TypeTable.of(context).primitive(Primitive.INT8);
     }
 
     /**
@@ -44,7 +51,7 @@ public class IRTypes {
      * @return a new 8-bit integer type
      */
     public static IRType ofInt8() {
-        return new IRType(LLVMInt8Type(), IRContext.global());
+        return ofInt8(IRContext.global());
     }
 
     /**
@@ -54,7 +61,7 @@ public class IRTypes {
      * @return a new 16-bit integer type
      */
     public static IRType ofInt16(IRContext context) {
-        return new IRType(LLVMInt16TypeInContext(checkNotNull(context, "context").handle()), context);
+        return TypeTable.of(context).primitive(Primitive.INT16);
     }
 
     /**
@@ -63,7 +70,7 @@ public class IRTypes {
      * @return a new 16-bit integer type
      */
     public static IRType ofInt16() {
-        return new IRType(LLVMInt16Type(), IRContext.global());
+        return ofInt16(IRContext.global());
     }
 
     /**
@@ -73,7 +80,7 @@ public class IRTypes {
      * @return a new 32-bit integer type
      */
     public static IRType ofInt32(IRContext context) {
-        return new IRType(LLVMInt32TypeInContext(checkNotNull(context, "context").handle()), context);
+        return TypeTable.of(context).primitive(Primitive.INT32);
     }
 
     /**
@@ -82,7 +89,7 @@ public class IRTypes {
      * @return a new 32-bit integer type
      */
     public static IRType ofInt32() {
-        return new IRType(LLVMInt32Type(), IRContext.global());
+        return ofInt32(IRContext.global());
     }
 
     /**
@@ -92,7 +99,7 @@ public class IRTypes {
      * @return a new 64-bit integer type
      */
     public static IRType ofInt64(IRContext context) {
-        return new IRType(LLVMInt64TypeInContext(checkNotNull(context, "context").handle()), context);
+        return TypeTable.of(context).primitive(Primitive.INT64);
     }
 
     /**
@@ -101,7 +108,7 @@ public class IRTypes {
      * @return a new 64-bit integer type
      */
     public static IRType ofInt64() {
-        return new IRType(LLVMInt64Type(), IRContext.global());
+        return ofInt64(IRContext.global());
     }
 
     /**
@@ -111,7 +118,7 @@ public class IRTypes {
      * @return a new 128-bit integer type
      */
     public static IRType ofInt128(IRContext context) {
-        return new IRType(LLVMInt128TypeInContext(checkNotNull(context, "context").handle()), context);
+        return TypeTable.of(context).primitive(Primitive.INT128);
     }
 
     /**
@@ -120,7 +127,7 @@ public class IRTypes {
      * @return a new 128-bit integer type
      */
     public static IRType ofInt128() {
-        return new IRType(LLVMInt128Type(), IRContext.global());
+        return ofInt128(IRContext.global());
     }
 
     /**
@@ -130,7 +137,7 @@ public class IRTypes {
      * @return a new 32-bit floating-point type
      */
     public static IRType ofFloat(IRContext context) {
-        return new IRType(LLVMFloatTypeInContext(checkNotNull(context, "context").handle()), context);
+        return TypeTable.of(context).primitive(Primitive.FLOAT);
     }
 
     /**
@@ -139,7 +146,7 @@ public class IRTypes {
      * @return a new 32-bit floating-point type
      */
     public static IRType ofFloat() {
-        return new IRType(LLVMFloatType(), IRContext.global());
+        return ofFloat(IRContext.global());
     }
 
     /**
@@ -149,7 +156,7 @@ public class IRTypes {
      * @return a new 64-bit floating-point type
      */
     public static IRType ofDouble(IRContext context) {
-        return new IRType(LLVMDoubleTypeInContext(checkNotNull(context, "context").handle()), context);
+        return TypeTable.of(context).primitive(Primitive.DOUBLE);
     }
 
     /**
@@ -158,7 +165,7 @@ public class IRTypes {
      * @return a new 64-bit floating-point type
      */
     public static IRType ofDouble() {
-        return new IRType(LLVMDoubleType(), IRContext.global());
+        return ofDouble(IRContext.global());
     }
 
     /**
@@ -168,7 +175,7 @@ public class IRTypes {
      * @return a new void type
      */
     public static IRType ofVoid(IRContext context) {
-        return new IRType(LLVMVoidTypeInContext(checkNotNull(context, "context").handle()), context);
+        return TypeTable.of(context).primitive(Primitive.VOID);
     }
 
     /**
@@ -177,7 +184,7 @@ public class IRTypes {
      * @return a new void type
      */
     public static IRType ofVoid() {
-        return new IRType(LLVMVoidType(), IRContext.global());
+        return ofVoid(IRContext.global());
     }
 
     /**
@@ -189,7 +196,11 @@ public class IRTypes {
      * @return a new pointer type
      */
     public static IRType ofPointer(IRType type, int addressSpace) {
-        return new IRType(LLVMPointerType(checkNotNull(type, "type").handle(), addressSpace), type.context());
+        LLVMTypeRef element = checkNotNull(type, "type").handle();
+        return TypeTable.of(type.context()).intern(
+            new Key(Key.POINTER, addressSpace, element.address()),
+            () -> new IRType(LLVMPointerType(element, addressSpace), type.context())
+        );
     }
 
     /**
@@ -212,6 +223,46 @@ public class IRTypes {
      * @return a new array type
      */
     public static IRType ofArray(IRType type, int size) {
-        return new IRType(LLVMArrayType(checkNotNull(type, "type").handle(), size), type.context());
+        LLVMTypeRef element = checkNotNull(type, "type").handle();
+        return TypeTable.of(type.context()).intern(
+            new Key(Key.ARRAY, size, element.address()),
+            () -> new IRType(LLVMArrayType(element, size), type.context())
+        );
+    }
+
+    /**
+     * Create a new fixed vector type for the context of the specified type. Vector types are used for SIMD
+     * operations, where a single instruction operates on every element of the vector.
+     *
+     * @param type the type of the elements in the vector, which must be an integer, floating-point or pointer type
+     * @param size the number of elements in the vector
+     *
+     * @return a new vector type
+     */
+    public static IRType ofVector(IRType type, int size) {
+        LLVMTypeRef element = checkNotNull(type, "type").handle();
+        checkArgument(size > 0, "size must be positive");
+        return TypeTable.of(type.context()).intern(
+            new Key(Key.VECTOR, size, element.address()),
+            () -> new IRType(LLVMVectorType(element, size), type.context())
+        );
+    }
+
+    /**
+     * Create a new scalable vector type for the context of the specified type. The number of elements of a scalable
+     * vector is a multiple of the specified minimum, that is only known at runtime, e.g. on SVE or RVV hardware.
+     *
+     * @param type the type of the elements in the vector, which must be an integer, floating-point or pointer type
+     * @param minimumSize the minimum number of elements in the vector
+     *
+     * @return a new scalable vector type
+     */
+    public static IRType ofScalableVector(IRType type, int minimumSize) {
+        LLVMTypeRef element = checkNotNull(type, "type").handle();
+        checkArgument(minimumSize > 0, "minimumSize must be positive");
+        return TypeTable.of(type.context()).intern(
+            new Key(Key.SCALABLE_VECTOR, minimumSize, element.address()),
+            () -> new IRType(LLVMScalableVectorType(element, minimumSize), type.context())
+        );
     }
 }
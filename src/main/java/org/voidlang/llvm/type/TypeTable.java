@@ -0,0 +1,259 @@
+package org.voidlang.llvm.type;
+
+import org.bytedeco.llvm.LLVM.LLVMContextRef;
+import org.bytedeco.llvm.LLVM.LLVMTypeRef;
+import org.bytedeco.llvm.global.LLVM;
+import org.voidlang.llvm.module.IRContext;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents the table of the interned type wrappers of an {@link IRContext}.
+ * <br>
+ * LLVM uniques types per context, so the wrapper of a type can be shared by every lookup of the same type. The
+ * table returns the same {@link IRType} instance for repeated lookups, without crossing into native code and, for
+ * the primitive types, without allocating. The table of a context is released, when the context is disposed.
+ */
+public final class TypeTable {
+    /**
+     * The type tables of the contexts that have been used to create types.
+     */
+    private static final Map<IRContext, TypeTable> tables = new ConcurrentHashMap<>();
+
+    /**
+     * The context of the types of the table.
+     */
+    private final IRContext context;
+
+    /**
+     * The wrappers of the primitive types, indexed by the ordinal of their {@link Primitive}. Racing threads may
+     * create duplicate wrappers of the same type, which are equivalent.
+     */
+    private final IRType[] primitives = new IRType[Primitive.values().length];
+
+    /**
+     * The wrappers of the derived types, keyed by their structure.
+     */
+    private final Map<Key, IRType> derived = new ConcurrentHashMap<>();
+
+    /**
+     * Initialize the type table of the specified context.
+     *
+     * @param context the context of the types of the table
+     */
+    private TypeTable(IRContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Retrieve the interned wrapper of the specified primitive type.
+     *
+     * @param primitive the primitive type to retrieve
+     * @return the wrapper of the primitive type
+     */
+    IRType primitive(Primitive primitive) {
+        IRType type = primitives[primitive.ordinal()];
+        if (type == null)
+            primitives[primitive.ordinal()] = type = new IRType(primitive.factory.apply(context.handle()), context);
+        return type;
+    }
+
+    /**
+     * Retrieve the interned wrapper of the derived type with the specified key, creating it with the specified
+     * factory, if it has not been interned yet.
+     *
+     * @param key the structural key of the type
+     * @param factory the factory that creates the wrapper of the type
+     * @param <T> the type of the wrapper
+     * @return the wrapper of the type
+     */
+    @SuppressWarnings("unchecked")
+    <T extends IRType> T intern(Key key, Supplier<T> factory) {
+        IRType type = derived.get(key);
+        if (type == null) {
+            type = derived.computeIfAbsent(key, ignored -> factory.get());
+            // index the wrapper by its handle as well, so existing handles of the type resolve to the same wrapper
+            derived.putIfAbsent(new Key(Key.HANDLE, 0, type.handle().address()), type);
+        }
+        return (T) type;
+    }
+
+    /**
+     * Retrieve the interned wrapper of the specified existing type handle, e.g. a parameter type of a function.
+     * Primitive types resolve to the same wrappers as the {@link IRTypes} factories, and derived types resolve to
+     * the wrapper that was interned for the handle, if any.
+     *
+     * @param handle the handle to the LLVM type
+     * @return the wrapper of the type
+     */
+    IRType type(LLVMTypeRef handle) {
+        checkNotNull(handle, "handle");
+        Primitive primitive = Primitive.of(handle);
+        if (primitive != null)
+            return primitive(primitive);
+        return intern(new Key(Key.HANDLE, 0, handle.address()), () -> new IRType(handle, context));
+    }
+
+    /**
+     * Retrieve the type table of the specified context, creating it if the context has no table yet.
+     *
+     * @param context the context of the types
+     * @return the type table of the context
+     */
+    static TypeTable of(IRContext context) {
+        checkNotNull(context, "context");
+        TypeTable table = tables.get(context);
+        return table != null ? table : tables.computeIfAbsent(context, TypeTable::new);
+    }
+
+    /**
+     * Release the type table of the specified context. This is called when the context is disposed, as the address
+     * of a disposed context may be reused by a new context.
+     *
+     * @param context the disposed context
+     */
+    public static void release(IRContext context) {
+        tables.remove(checkNotNull(context, "context"));
+    }
+
+    /**
+     * Represents an enumeration of the primitive types, that are identified by their kind and width alone.
+     */
+    enum Primitive {
+        INT1(LLVM::LLVMInt1TypeInContext),
+        INT8(LLVM::LLVMInt8TypeInContext),
+        INT16(LLVM::LLVMInt16TypeInContext),
+        INT32(LLVM::LLVMInt32TypeInContext),
+        INT64(LLVM::LLVMInt64TypeInContext),
+        INT128(LLVM::LLVMInt128TypeInContext),
+        FLOAT(LLVM::LLVMFloatTypeInContext),
+        DOUBLE(LLVM::LLVMDoubleTypeInContext),
+        VOID(LLVM::LLVMVoidTypeInContext);
+
+        /**
+         * The function that retrieves the type from a context.
+         */
+        private final Function<LLVMContextRef, LLVMTypeRef> factory;
+
+        /**
+         * Initialize the primitive type with the specified factory.
+         *
+         * @param factory the function that retrieves the type from a context
+         */
+        Primitive(Function<LLVMContextRef, LLVMTypeRef> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * Retrieve the primitive type of the specified type handle.
+         *
+         * @param handle the handle to the LLVM type
+         * @return the primitive type, or {@code null} if the type is not primitive
+         */
+        static Primitive of(LLVMTypeRef handle) {
+            return switch (LLVM.LLVMGetTypeKind(handle)) {
+                case LLVM.LLVMIntegerTypeKind -> switch (LLVM.LLVMGetIntTypeWidth(handle)) {
+                    case 1 -> INT1;
+                    case 8 -> INT8;
+                    case 16 -> INT16;
+                    case 32 -> INT32;
+                    case 64 -> INT64;
+                    case 128 -> INT128;
+                    default -> null;
+                };
+                case LLVM.LLVMFloatTypeKind -> FLOAT;
+                case LLVM.LLVMDoubleTypeKind -> DOUBLE;
+                case LLVM.LLVMVoidTypeKind -> VOID;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * Represents the structural key of a derived type, which is made of the kind of the type, the addresses of the
+     * handles of its component types, and a size, whose meaning depends on the kind.
+     */
+    static final class Key {
+        /**
+         * The kind of pointer types, whose size is the address space.
+         */
+        static final int POINTER = 0;
+
+        /**
+         * The kind of array types, whose size is the number of elements.
+         */
+        static final int ARRAY = 1;
+
+        /**
+         * The kind of function types, whose size is {@code 1} for variadic functions and {@code 0} otherwise.
+         */
+        static final int FUNCTION = 2;
+
+        /**
+         * The kind of fixed vector types, whose size is the number of elements.
+         */
+        static final int VECTOR = 3;
+
+        /**
+         * The kind of scalable vector types, whose size is the minimum number of elements.
+         */
+        static final int SCALABLE_VECTOR = 4;
+
+        /**
+         * The kind of literal struct types, whose size is {@code 1} for packed structs and {@code 0} otherwise.
+         * Named structs are not interned, as each of them is a distinct type.
+         */
+        static final int STRUCT = 5;
+
+        /**
+         * The kind of the keys that index interned types by their own handle, whose only component is the address
+         * of the handle.
+         */
+        static final int HANDLE = 6;
+
+        /**
+         * The kind of the type.
+         */
+        private final int kind;
+
+        /**
+         * The size of the type.
+         */
+        private final long size;
+
+        /**
+         * The addresses of the handles of the component types.
+         */
+        private final long[] components;
+
+        /**
+         * Initialize the key with the specified kind, size and component addresses.
+         *
+         * @param kind the kind of the type
+         * @param size the size of the type
+         * @param components the addresses of the handles of the component types
+         */
+        Key(int kind, long size, long... components) {
+            this.kind = kind;
+            this.size = size;
+            this.components = components;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Key key && kind == key.kind && size == key.size
+                && Arrays.equals(components, key.components);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * kind + Long.hashCode(size)) * 31 + Arrays.hashCode(components);
+        }
+    }
+}
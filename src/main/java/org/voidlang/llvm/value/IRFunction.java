@@ -2,6 +2,7 @@ package org.voidlang.llvm.value;
 
 import com.google.common.base.Optional;
 import org.bytedeco.llvm.LLVM.LLVMValueRef;
+import org.voidlang.llvm.jit.OrcJit;
 import org.voidlang.llvm.module.IRModule;
 import org.voidlang.llvm.type.IRFunctionType;
 
@@ -64,6 +65,18 @@ public class IRFunction extends IRValue {
         return new IRValue(LLVMGetParam(handle, index));
     }
 
+    /**
+     * Retrieve the indication, whether the code of this function has been materialized by the specified JIT yet.
+     * Functions of lazily added modules are materialized when they are called for the first time.
+     *
+     * @param jit the JIT to which the module of the function was added
+     * @return {@code true} if the function has been materialized, {@code false} otherwise
+     * @see OrcJit#isMaterialized(String)
+     */
+    public boolean isMaterialized(OrcJit jit) {
+        return checkNotNull(jit, "jit").isMaterialized(name);
+    }
+
     /**
      * Create a new function with the specified module, name and type.
      *
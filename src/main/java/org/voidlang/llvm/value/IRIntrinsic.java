@@ -0,0 +1,135 @@
+package org.voidlang.llvm.value;
+
+import org.bytedeco.javacpp.PointerPointer;
+import org.bytedeco.llvm.LLVM.LLVMModuleRef;
+import org.bytedeco.llvm.LLVM.LLVMTypeRef;
+import org.bytedeco.llvm.LLVM.LLVMValueRef;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.module.ScratchPointers;
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.type.IRType;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Represents a wrapper for the declaration of an LLVM intrinsic function, e.g. {@code llvm.memcpy} or
+ * {@code llvm.fma}.
+ * <br>
+ * Intrinsics are resolved by their name through the intrinsic table of LLVM, which also computes the exact
+ * signature of overloaded intrinsics from their overload types, so the declarations never have to be written by
+ * hand. Declaring the same intrinsic twice in a module returns the same function.
+ * <br>
+ * For more information on the intrinsic functions, see the
+ * <a href="https://llvm.org/docs/LangRef.html#intrinsic-functions">LLVM documentation</a>
+ */
+public class IRIntrinsic extends IRValue {
+    /**
+     * The identifier of the intrinsic in the intrinsic table of LLVM.
+     */
+    private final int id;
+
+    /**
+     * The base name of the intrinsic, without the suffixes of the overload types.
+     */
+    private final String name;
+
+    /**
+     * The type signature of the declared overload.
+     */
+    private final IRFunctionType type;
+
+    /**
+     * Initialize the intrinsic with the specified handle, identifier, name and type.
+     *
+     * @param handle the handle to the declaration of the intrinsic
+     * @param id the identifier of the intrinsic
+     * @param name the base name of the intrinsic
+     * @param type the type signature of the declared overload
+     */
+    public IRIntrinsic(LLVMValueRef handle, int id, String name, IRFunctionType type) {
+        super(handle);
+        this.id = id;
+        this.name = checkNotNull(name, "name");
+        this.type = checkNotNull(type, "type");
+    }
+
+    public int id() {
+        return this.id;
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    public IRFunctionType type() {
+        return this.type;
+    }
+
+    /**
+     * Retrieve the indication, whether the intrinsic is overloaded, and therefore requires overload types to be
+     * declared.
+     *
+     * @return {@code true} if the intrinsic is overloaded, {@code false} otherwise
+     */
+    public boolean isOverloaded() {
+        return LLVMIntrinsicIsOverloaded(id) != 0;
+    }
+
+    /**
+     * Retrieve the identifier of the intrinsic with the specified name.
+     *
+     * @param name the base name of the intrinsic, e.g. {@code "llvm.memcpy"}
+     * @return the identifier of the intrinsic, or {@code 0} if LLVM has no intrinsic with the name
+     */
+    public static int lookup(String name) {
+        return LLVMLookupIntrinsicID(checkNotNull(name, "name"), name.length());
+    }
+
+    /**
+     * Declare the intrinsic with the specified name in a module, instantiated with the specified overload types.
+     * <br>
+     * The overload types replace the {@code any} types of the signature of the intrinsic, in order. For example,
+     * {@code llvm.fma} is declared for doubles with {@code declare(module, "llvm.fma", IRTypes.ofDouble(context))}.
+     *
+     * @param module the module in which the intrinsic is declared
+     * @param name the base name of the intrinsic
+     * @param overloads the overload types of the intrinsic
+     * @return the declaration of the intrinsic
+     * @throws IllegalArgumentException if LLVM has no intrinsic with the name
+     */
+    public static IRIntrinsic declare(IRModule module, String name, IRType... overloads) {
+        checkNotNull(module, "module");
+        LLVMTypeRef[] types = new LLVMTypeRef[checkNotNull(overloads, "overloads").length];
+        for (int i = 0; i < overloads.length; i++)
+            types[i] = checkNotNull(overloads[i], "overloads[" + i + "]").handle();
+        return declare(module.handle(), module.context(), name, types);
+    }
+
+    /**
+     * Declare the intrinsic with the specified name in the module of the specified handle, instantiated with the
+     * specified overload types.
+     *
+     * @param module the handle to the module in which the intrinsic is declared
+     * @param context the context of the module
+     * @param name the base name of the intrinsic
+     * @param overloads the handles to the overload types of the intrinsic
+     * @return the declaration of the intrinsic
+     * @throws IllegalArgumentException if LLVM has no intrinsic with the name
+     */
+    public static IRIntrinsic declare(LLVMModuleRef module, IRContext context, String name, LLVMTypeRef... overloads) {
+        checkNotNull(module, "module");
+        checkNotNull(context, "context");
+        int id = lookup(name);
+        checkArgument(id != 0, "unknown intrinsic: %s", name);
+        // pass the overload types to resolve both the declaration and its signature
+        PointerPointer<LLVMTypeRef> types = ScratchPointers.first(checkNotNull(overloads, "overloads").length);
+        for (int i = 0; i < overloads.length; i++)
+            types.put(i, overloads[i]);
+        LLVMValueRef handle = LLVMGetIntrinsicDeclaration(module, id, types, overloads.length);
+        LLVMTypeRef signature = LLVMIntrinsicGetType(context.handle(), id, types, overloads.length);
+        return new IRIntrinsic(handle, id, name, IRFunctionType.of(signature, context));
+    }
+}
@@ -0,0 +1,71 @@
+package org.voidlang.llvm;
+
+import org.voidlang.llvm.instruction.IRBlock;
+import org.voidlang.llvm.instruction.IRBuilder;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.type.IRType;
+import org.voidlang.llvm.type.IRTypes;
+import org.voidlang.llvm.value.IRFunction;
+
+import java.util.List;
+
+/**
+ * Represents a utility class that builds the modules used by the tests.
+ */
+public final class TestModules {
+    private TestModules() {
+    }
+
+    /**
+     * Retrieve the type {@code (i64) -> i64} of the functions created by this class.
+     *
+     * @param context the context of the type
+     * @return the function type
+     */
+    public static IRFunctionType unaryType(IRContext context) {
+        IRType i64 = IRTypes.ofInt64(context);
+        return IRFunctionType.create(context, i64, List.of(i64), false);
+    }
+
+    /**
+     * Create a module of functions of type {@code (i64) -> i64}, named {@code f0}, {@code f1} and so on, where the
+     * function {@code fi} adds the constant at index {@code i} to its argument.
+     *
+     * @param context the context in which the module is created
+     * @param name the name of the module
+     * @param constants the constants added by the functions
+     * @return a new module
+     */
+    public static IRModule addConstants(IRContext context, String name, long... constants) {
+        return addConstants(context, name, "f", constants);
+    }
+
+    /**
+     * Create a module of functions of type {@code (i64) -> i64}, named after the specified prefix followed by their
+     * index, where the function at index {@code i} adds the constant at index {@code i} to its argument.
+     *
+     * @param context the context in which the module is created
+     * @param name the name of the module
+     * @param prefix the prefix of the names of the functions
+     * @param constants the constants added by the functions
+     * @return a new module
+     */
+    public static IRModule addConstants(IRContext context, String name, String prefix, long... constants) {
+        IRModule module = IRModule.create(context, name);
+        IRType i64 = IRTypes.ofInt64(context);
+        IRFunctionType type = unaryType(context);
+        IRBuilder builder = IRBuilder.create(context);
+        try {
+            for (int i = 0; i < constants.length; i++) {
+                IRFunction function = IRFunction.create(module, prefix + i, type);
+                builder.positionAtEnd(IRBlock.create(context, function, "entry"));
+                builder.returnValue(builder.add(function.parameter(0), i64.constInt(constants[i], true)));
+            }
+        } finally {
+            builder.dispose();
+        }
+        return module;
+    }
+}
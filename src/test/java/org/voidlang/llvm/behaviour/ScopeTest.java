@@ -0,0 +1,107 @@
+package org.voidlang.llvm.behaviour;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.junit.jupiter.api.Test;
+import org.voidlang.llvm.TestModules;
+import org.voidlang.llvm.jit.ExecutionEngine;
+import org.voidlang.llvm.jit.JitCompilerOptions;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.target.NativeTarget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScopeTest {
+    @Test
+    void disposesHandlesInReverseOrder() {
+        List<String> log = new ArrayList<>();
+        try (Scope scope = Scope.open()) {
+            scope.own(new Handle("first", log));
+            scope.own(new Handle("second", log));
+            scope.own(new Handle("third", log));
+        }
+        assertEquals(List.of("third", "second", "first"), log);
+    }
+
+    @Test
+    void ownsEqualWrappersOnce() {
+        List<String> log = new ArrayList<>();
+        try (Scope scope = Scope.open()) {
+            scope.own(new Handle("handle", log));
+            scope.own(new Handle("handle", log));
+            assertEquals(1, scope.size());
+        }
+        assertEquals(List.of("handle"), log);
+    }
+
+    @Test
+    void untracksTransferredHandles() {
+        List<String> log = new ArrayList<>();
+        try (Scope outer = Scope.open()) {
+            Handle moved = outer.own(new Handle("moved", log));
+            Handle transferred = Scope.track(new Handle("transferred", log));
+            try (Scope inner = Scope.open()) {
+                // owning a handle of an enclosing scope moves it to the inner scope
+                inner.own(moved);
+                assertEquals(1, outer.size());
+                assertEquals(1, inner.size());
+                // the ownership of the other handle moves to an object outside of the scopes
+                Scope.untrack(transferred);
+                assertEquals(0, outer.size());
+            }
+            assertEquals(List.of("moved"), log);
+        }
+        assertEquals(List.of("moved"), log);
+    }
+
+    @Test
+    void rejectsOtherThreads() {
+        try (Scope scope = Scope.open()) {
+            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> scope.own(new Handle("handle", new ArrayList<>())));
+            Exception exception = assertThrows(Exception.class, future::join);
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+            assertEquals(0, scope.size());
+        }
+    }
+
+    @Test
+    void tracksExecutionEnginesOnceCreated() {
+        NativeTarget.initialize();
+        JitCompilerOptions options = JitCompilerOptions.create();
+        try (Scope scope = Scope.open()) {
+            IRContext context = IRContext.create();
+            IRModule module = TestModules.addConstants(context, "engine", 1);
+            assertEquals(2, scope.size());
+
+            ExecutionEngine engine = ExecutionEngine.create();
+            assertEquals(2, scope.size());
+
+            BytePointer error = new BytePointer();
+            assertTrue(engine.createMCJITCompilerForModule(module, options, error));
+            // the engine replaces the module, which it disposes itself
+            assertEquals(2, scope.size());
+            scope.release(module);
+            assertEquals(2, scope.size());
+            scope.release(engine);
+            assertEquals(1, scope.size());
+            scope.own(engine);
+        } finally {
+            options.dispose();
+        }
+    }
+
+    /**
+     * Represents a handle that records its disposal. Handles of the same name are equal, like wrappers of the same
+     * native handle.
+     */
+    private record Handle(String name, List<String> log) implements Disposable {
+        @Override
+        public void dispose() {
+            log.add(name);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.voidlang.llvm.jit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.voidlang.llvm.TestModules;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.module.OptimizationLevel;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompilationServiceTest {
+    private static final int CAPACITY = 2;
+
+    private CompilationService service;
+
+    /**
+     * The latch that is counted down, once the worker has started the blocking module.
+     */
+    private CountDownLatch started;
+
+    /**
+     * The latch that holds the worker in the blocking module.
+     */
+    private CountDownLatch blocked;
+
+    @BeforeEach
+    void setUp() {
+        service = CompilationService.create(OptimizationLevel.O0, 1, CAPACITY);
+        started = new CountDownLatch(1);
+        blocked = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blocked.countDown();
+        if (service != null)
+            service.dispose();
+    }
+
+    @Test
+    void rejectsModulesWhenTheQueueIsFull() throws Exception {
+        CompletableFuture<CompiledModule> running = occupyWorker();
+        CompletableFuture<CompiledModule> first = service.trySubmit("first", constants("first_", 1), CompilationPriority.NORMAL);
+        CompletableFuture<CompiledModule> second = service.trySubmit("second", constants("second_", 2), CompilationPriority.NORMAL);
+        assertEquals(CAPACITY, service.queued());
+
+        CompletableFuture<CompiledModule> rejected = service.trySubmit("rejected", constants("rejected_", 3), CompilationPriority.NORMAL);
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+
+        blocked.countDown();
+        assertEquals(1, running.get(30, TimeUnit.SECONDS).function("blocking_0").asLongUnaryOperator().applyAsLong(0));
+        assertEquals(11, first.get(30, TimeUnit.SECONDS).function("first_0").asLongUnaryOperator().applyAsLong(10));
+        assertEquals(12, second.get(30, TimeUnit.SECONDS).function("second_0").asLongUnaryOperator().applyAsLong(10));
+    }
+
+    @Test
+    void blocksSubmissionsUntilTheQueueHasRoom() throws Exception {
+        occupyWorker();
+        service.trySubmit("first", constants("first_", 1), CompilationPriority.NORMAL);
+        service.trySubmit("second", constants("second_", 2), CompilationPriority.NORMAL);
+
+        CompletableFuture<CompletableFuture<CompiledModule>> submission = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.submit("waiting", constants("waiting_", 3), CompilationPriority.NORMAL);
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+        });
+        // the submitting thread waits for a slot of the queue, which is freed when the worker takes a module
+        Thread.sleep(200);
+        assertFalse(submission.isDone());
+
+        blocked.countDown();
+        CompiledModule waiting = submission.get(30, TimeUnit.SECONDS).get(30, TimeUnit.SECONDS);
+        assertEquals(13, waiting.function("waiting_0").asLongUnaryOperator().applyAsLong(10));
+    }
+
+    @Test
+    void compilesModulesInTheOrderOfTheirPriority() throws Exception {
+        occupyWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<CompiledModule> normal = service.trySubmit("normal", recorded(order, "normal_"), CompilationPriority.NORMAL);
+        CompletableFuture<CompiledModule> high = service.trySubmit("high", recorded(order, "high_"), CompilationPriority.HIGH);
+
+        blocked.countDown();
+        CompletableFuture.allOf(normal, high).get(30, TimeUnit.SECONDS);
+        assertEquals(List.of("high_", "normal_"), order);
+    }
+
+    @Test
+    void cancelsQueuedModulesOnDispose() throws Exception {
+        CompletableFuture<CompiledModule> running = occupyWorker();
+        CompletableFuture<CompiledModule> queued = service.trySubmit("queued", constants("queued_", 1), CompilationPriority.NORMAL);
+
+        // the disposal waits for the running module, so the worker is released once the queue has been drained
+        CompilationService disposed = service;
+        service = null;
+        CompletableFuture<Void> disposal = CompletableFuture.runAsync(disposed::dispose);
+        assertThrows(CancellationException.class, () -> queued.get(30, TimeUnit.SECONDS));
+        assertFalse(disposal.isDone());
+
+        blocked.countDown();
+        disposal.get(30, TimeUnit.SECONDS);
+        assertNotNull(running.get(30, TimeUnit.SECONDS));
+        assertThrows(RejectedExecutionException.class, () -> disposed.trySubmit("late", constants("late_", 1), CompilationPriority.NORMAL));
+    }
+
+    /**
+     * Submit a module, whose builder holds the single worker of the service, until the test releases it.
+     *
+     * @return the future of the blocking module
+     */
+    private CompletableFuture<CompiledModule> occupyWorker() throws InterruptedException {
+        CompletableFuture<CompiledModule> future = service.trySubmit("blocking", context -> {
+            started.countDown();
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return TestModules.addConstants(context, "blocking", "blocking_", 1);
+        }, CompilationPriority.HIGH);
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+        return future;
+    }
+
+    /**
+     * Create a builder of a module with one function, that adds the specified constant to its argument.
+     *
+     * @param prefix the prefix of the name of the function
+     * @param constant the constant added by the function
+     * @return the builder of the module
+     */
+    private static Function<IRContext, IRModule> constants(String prefix, long constant) {
+        return context -> TestModules.addConstants(context, prefix, prefix, constant);
+    }
+
+    /**
+     * Create a builder of a module, that records the order in which the modules are built.
+     *
+     * @param order the list that records the prefixes of the built modules
+     * @param prefix the prefix of the name of the function
+     * @return the builder of the module
+     */
+    private static Function<IRContext, IRModule> recorded(List<String> order, String prefix) {
+        return context -> {
+            order.add(prefix);
+            return TestModules.addConstants(context, prefix, prefix, 0);
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package org.voidlang.llvm.jit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.voidlang.llvm.TestModules;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextPoolTest {
+    private static final int THREADS = 4;
+
+    private OrcJit jit;
+    private ContextPool pool;
+
+    @BeforeEach
+    void setUp() {
+        jit = OrcJit.create();
+        pool = ContextPool.create(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.dispose();
+        jit.dispose();
+    }
+
+    @Test
+    void compilesModulesOfEveryWorkerIntoOneJit() {
+        List<Function<IRContext, IRModule>> builders = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            long constant = i;
+            builders.add(context -> TestModules.addConstants(context, "module" + constant, "m" + constant + "_", constant));
+        }
+        List<CompiledModule> modules = pool.compileAll(jit, builders);
+        assertEquals(16, modules.size());
+        for (int i = 0; i < modules.size(); i++)
+            assertEquals(100 + i, modules.get(i).function("m" + i + "_0").asLongUnaryOperator().applyAsLong(100));
+    }
+
+    @Test
+    void givesEachWorkerItsOwnContext() throws InterruptedException {
+        // hold every worker busy at once, so that each task runs on a different thread
+        CountDownLatch started = new CountDownLatch(THREADS);
+        Map<Thread, ThreadSafeContext> contexts = new ConcurrentHashMap<>();
+        List<CompletableFuture<ThreadSafeContext>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(context -> {
+                started.countDown();
+                try {
+                    assertTrue(started.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                contexts.put(Thread.currentThread(), context);
+                return context;
+            }));
+        }
+        futures.forEach(CompletableFuture::join);
+        assertEquals(THREADS, contexts.size());
+        assertEquals(THREADS, Set.copyOf(contexts.values()).size());
+
+        // a worker keeps using its context for later tasks
+        ThreadSafeContext again = pool.submit(context -> {
+            assertSame(contexts.get(Thread.currentThread()), context);
+            return context;
+        }).join();
+        assertTrue(contexts.containsValue(again));
+    }
+}
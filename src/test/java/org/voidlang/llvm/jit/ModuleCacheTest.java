@@ -0,0 +1,153 @@
+package org.voidlang.llvm.jit;
+
+import org.bytedeco.llvm.LLVM.LLVMValueRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.voidlang.llvm.TestModules;
+import org.voidlang.llvm.instruction.IRBlock;
+import org.voidlang.llvm.instruction.IRBuilder;
+import org.voidlang.llvm.module.IRContext;
+import org.voidlang.llvm.module.IRModule;
+import org.voidlang.llvm.type.IRFunctionType;
+import org.voidlang.llvm.type.IRType;
+import org.voidlang.llvm.type.IRTypes;
+import org.voidlang.llvm.value.IRFunction;
+import org.voidlang.llvm.value.IRValue;
+
+import java.util.List;
+
+import static org.bytedeco.llvm.global.LLVM.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleCacheTest {
+    private OrcJit jit;
+    private ModuleCache cache;
+    private ThreadSafeContext context;
+
+    @BeforeEach
+    void setUp() {
+        jit = OrcJit.create();
+        context = ThreadSafeContext.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null)
+            cache.dispose();
+        jit.dispose();
+        context.dispose();
+    }
+
+    @Test
+    void keysIgnoreTheNamesOfDefinitions() {
+        IRModule first = TestModules.addConstants(context.context(), "first", "a", 1, 2);
+        IRModule renamed = TestModules.addConstants(context.context(), "renamed", "b", 1, 2);
+        IRModule different = TestModules.addConstants(context.context(), "different", "a", 1, 3);
+        try {
+            assertEquals(ModuleCache.key(first), ModuleCache.key(renamed));
+            assertNotEquals(ModuleCache.key(first), ModuleCache.key(different));
+        } finally {
+            first.dispose();
+            renamed.dispose();
+            different.dispose();
+        }
+    }
+
+    @Test
+    void compilesStructurallyEqualModulesOnce() {
+        cache = ModuleCache.create(jit, 4);
+        ModuleCache.Lease first = cache.compile(TestModules.addConstants(context.context(), "first", "a", 1), context);
+        long codeBytes = jit.residentMemory().codeBytes();
+        ModuleCache.Lease second = cache.compile(TestModules.addConstants(context.context(), "second", "b", 1), context);
+
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+        assertEquals(codeBytes, jit.residentMemory().codeBytes());
+        // the functions are named after the module of each caller, and share the same code
+        assertEquals(11, second.function("b0").asLongUnaryOperator().applyAsLong(10));
+        assertEquals(first.function("a0").address(), second.function("b0").address());
+        first.dispose();
+        second.dispose();
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedModule() {
+        cache = ModuleCache.create(jit, 2);
+        cache.compile(TestModules.addConstants(context.context(), "first", 1), context).dispose();
+        cache.compile(TestModules.addConstants(context.context(), "second", 2), context).dispose();
+        // the first module becomes the most recently used one
+        cache.compile(TestModules.addConstants(context.context(), "first", 1), context).dispose();
+        cache.compile(TestModules.addConstants(context.context(), "third", 3), context).dispose();
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+
+        cache.compile(TestModules.addConstants(context.context(), "first", 1), context).dispose();
+        assertEquals(2, cache.hits());
+        cache.compile(TestModules.addConstants(context.context(), "second", 2), context).dispose();
+        assertEquals(2, cache.hits());
+        assertEquals(4, cache.misses());
+    }
+
+    @Test
+    void keepsTheCodeOfEvictedModulesUntilTheirLeasesAreDisposed() {
+        cache = ModuleCache.create(jit, 1);
+        ModuleCache.Lease leased = cache.compile(TestModules.addConstants(context.context(), "leased", 5), context);
+        ModuleCache.Lease evicting = cache.compile(TestModules.addConstants(context.context(), "evicting", 7), context);
+        assertEquals(1, cache.evictions());
+
+        // the evicted module is still callable, as its lease holds its code
+        assertEquals(15, leased.function("f0").asLongUnaryOperator().applyAsLong(10));
+        long codeBytes = jit.residentMemory().codeBytes();
+        leased.dispose();
+        assertTrue(jit.residentMemory().codeBytes() < codeBytes);
+        assertEquals(17, evicting.function("f0").asLongUnaryOperator().applyAsLong(10));
+        evicting.dispose();
+    }
+
+    @Test
+    void separatesTheGlobalsOfDifferentModules() {
+        cache = ModuleCache.create(jit, 4);
+        // every module defines a global named counter, that the cache must not link to each other
+        ModuleCache.Lease ones = cache.compile(counter(context.context(), "ones", 1), context);
+        ModuleCache.Lease twos = cache.compile(counter(context.context(), "twos", 2), context);
+        ModuleCache.Lease shared = cache.compile(counter(context.context(), "shared", 1), context);
+
+        assertEquals(1, ones.function("next").asLongUnaryOperator().applyAsLong(0));
+        assertEquals(2, twos.function("next").asLongUnaryOperator().applyAsLong(0));
+        // a cache hit shares the code and the global of the cached module
+        assertEquals(2, shared.function("next").asLongUnaryOperator().applyAsLong(0));
+        assertEquals(4, twos.function("next").asLongUnaryOperator().applyAsLong(0));
+        ones.dispose();
+        twos.dispose();
+        shared.dispose();
+    }
+
+    /**
+     * Create a module with a global counter, and a function {@code next} that adds the specified step to the
+     * counter and returns the sum of the counter and its argument.
+     *
+     * @param context the context in which the module is created
+     * @param name the name of the module
+     * @param step the step of the counter
+     * @return a new module
+     */
+    private static IRModule counter(IRContext context, String name, long step) {
+        IRModule module = IRModule.create(context, name);
+        IRType i64 = IRTypes.ofInt64(context);
+        LLVMValueRef global = LLVMAddGlobal(module.handle(), i64.handle(), "counter");
+        LLVMSetInitializer(global, i64.constInt(0, false).handle());
+        IRFunction function = IRFunction.create(module, "next", IRFunctionType.create(context, i64, List.of(i64), false));
+        IRBuilder builder = IRBuilder.create(context);
+        try {
+            builder.positionAtEnd(IRBlock.create(context, function, "entry"));
+            IRValue counter = new IRValue(global);
+            IRValue value = builder.add(builder.load(i64, counter), i64.constInt(step, false));
+            builder.store(value, counter);
+            builder.returnValue(builder.add(value, function.parameter(0)));
+        } finally {
+            builder.dispose();
+        }
+        return module;
+    }
+}
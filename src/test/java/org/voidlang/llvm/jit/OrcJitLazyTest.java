@@ -0,0 +1,49 @@
+package org.voidlang.llvm.jit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.voidlang.llvm.TestModules;
+import org.voidlang.llvm.module.IRModule;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrcJitLazyTest {
+    private OrcJit jit;
+    private ThreadSafeContext context;
+
+    @BeforeEach
+    void setUp() {
+        jit = OrcJit.create();
+        context = ThreadSafeContext.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jit.dispose();
+        context.dispose();
+    }
+
+    @Test
+    void materializesOnlyTheCalledFunction() {
+        IRModule module = TestModules.addConstants(context.context(), "lazy", 1, 2);
+        jit.addLazyModule(module, context);
+        assertFalse(jit.isMaterialized("f0"));
+        assertFalse(jit.isMaterialized("f1"));
+
+        // looking up a function only resolves its stub, the first call compiles it
+        NativeFunction f0 = new NativeFunction("f0", jit.lookup("f0"), TestModules.unaryType(context.context()));
+        assertEquals(11, f0.asLongUnaryOperator().applyAsLong(10));
+        assertTrue(jit.isMaterialized("f0"));
+        assertFalse(jit.isMaterialized("f1"));
+    }
+
+    @Test
+    void materializesEagerModulesOnLookup() {
+        jit.addModule(TestModules.addConstants(context.context(), "eager", 1, 2), context);
+        assertFalse(jit.isMaterialized("f0"));
+        jit.lookup("f1");
+        assertTrue(jit.isMaterialized("f0"));
+        assertTrue(jit.isMaterialized("f1"));
+    }
+}
@@ -0,0 +1,64 @@
+package org.voidlang.llvm.jit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.voidlang.llvm.TestModules;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredCompilerTest {
+    private static final long THRESHOLD = 5;
+
+    private TieredCompiler compiler;
+    private ThreadSafeContext context;
+
+    @BeforeEach
+    void setUp() {
+        compiler = TieredCompiler.create(THRESHOLD);
+        context = ThreadSafeContext.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        compiler.dispose();
+        context.dispose();
+    }
+
+    @Test
+    void swapsHotFunctionsToOptimizedCode() throws Exception {
+        Map<String, TieredFunction> functions = compiler.add(TestModules.addConstants(context.context(), "tiered", 1, 2), context);
+        TieredFunction hot = functions.get("f0");
+        // the invoker is created before the swap, and must follow the call site to the optimized code
+        LongUnaryOperator invoker = hot.asLongUnaryOperator();
+        for (long i = 0; i < THRESHOLD; i++)
+            assertEquals(i + 1, invoker.applyAsLong(i));
+
+        hot.optimization().get(30, TimeUnit.SECONDS);
+        assertTrue(hot.isOptimized());
+        assertEquals(THRESHOLD, hot.calls());
+
+        // the optimized code computes the same results, and is no longer counted
+        assertEquals(101, invoker.applyAsLong(100));
+        assertEquals(-9, hot.asLongUnaryOperator().applyAsLong(-10));
+        assertEquals(THRESHOLD, hot.calls());
+    }
+
+    @Test
+    void keepsColdFunctionsUnoptimized() {
+        Map<String, TieredFunction> functions = compiler.add(TestModules.addConstants(context.context(), "cold", 1, 2), context);
+        TieredFunction cold = functions.get("f1");
+        LongUnaryOperator invoker = cold.asLongUnaryOperator();
+        for (long i = 0; i < THRESHOLD - 1; i++)
+            assertEquals(i + 2, invoker.applyAsLong(i));
+
+        assertEquals(THRESHOLD - 1, cold.calls());
+        assertFalse(cold.isOptimized());
+        assertFalse(cold.optimization().isDone());
+        assertFalse(functions.get("f0").isOptimized());
+    }
+}
@@ -0,0 +1,141 @@
+package org.voidlang.llvm.kernel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static org.junit.jupiter.api.Assertions.*;
+
+class KernelCompilerTest {
+    private KernelCompiler compiler;
+    private Arena arena;
+
+    @BeforeEach
+    void setUp() {
+        compiler = KernelCompiler.create();
+        arena = Arena.ofConfined();
+    }
+
+    @AfterEach
+    void tearDown() {
+        arena.close();
+        compiler.dispose();
+    }
+
+    @Test
+    void evaluatesArithmeticForEveryRow() {
+        Expression a = Expression.column(0, ColumnType.LONG);
+        Expression b = Expression.column(1, ColumnType.LONG);
+        Kernel kernel = compiler.compile(Expression.add(Expression.multiply(a, b), Expression.constant(1L)));
+
+        // enough rows to run both the vectorized loop and its remainder
+        int rows = 37;
+        long[] left = new long[rows];
+        long[] right = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            left[i] = i;
+            right[i] = i - 10;
+        }
+        MemorySegment output = arena.allocate(JAVA_LONG.byteSize() * rows, JAVA_LONG.byteAlignment());
+        kernel.evaluate(new MemorySegment[] { longs(left), longs(right) }, output, rows);
+        for (int i = 0; i < rows; i++)
+            assertEquals(left[i] * right[i] + 1, output.getAtIndex(JAVA_LONG, i));
+    }
+
+    @Test
+    void guardsIntegerDivisionLikeJava() {
+        Expression a = Expression.column(0, ColumnType.LONG);
+        Expression b = Expression.column(1, ColumnType.LONG);
+        Kernel quotient = compiler.compile(Expression.divide(a, b));
+        Kernel remainder = compiler.compile(Expression.remainder(a, b));
+
+        long[] left = { 7, -7, 7, Long.MIN_VALUE, Long.MIN_VALUE };
+        long[] right = { 2, 2, 0, -1, 0 };
+        MemorySegment[] columns = { longs(left), longs(right) };
+        MemorySegment quotients = arena.allocate(JAVA_LONG.byteSize() * left.length, JAVA_LONG.byteAlignment());
+        MemorySegment remainders = arena.allocate(JAVA_LONG.byteSize() * left.length, JAVA_LONG.byteAlignment());
+        quotient.evaluate(columns, quotients, left.length);
+        remainder.evaluate(columns, remainders, left.length);
+
+        // a division by zero yields zero, the overflowing division yields the Java result
+        assertArrayEquals(new long[] { 3, -3, 0, Long.MIN_VALUE, 0 }, quotients.toArray(JAVA_LONG));
+        assertArrayEquals(new long[] { 1, -1, 0, 0, 0 }, remainders.toArray(JAVA_LONG));
+    }
+
+    @Test
+    void guardsIntDivisionLikeJava() {
+        Expression a = Expression.column(0, ColumnType.INT);
+        Expression b = Expression.column(1, ColumnType.INT);
+        Kernel kernel = compiler.compile(Expression.divide(a, b));
+
+        int[] left = { 9, Integer.MIN_VALUE, 9 };
+        int[] right = { -3, -1, 0 };
+        MemorySegment output = arena.allocate(JAVA_INT.byteSize() * left.length, JAVA_INT.byteAlignment());
+        kernel.evaluate(new MemorySegment[] { arena.allocateArray(JAVA_INT, left), arena.allocateArray(JAVA_INT, right) }, output, left.length);
+        assertArrayEquals(new int[] { -3, Integer.MIN_VALUE, 0 }, output.toArray(JAVA_INT));
+    }
+
+    @Test
+    void saturatesCastsOfDoubles() {
+        Kernel toLong = compiler.compile(Expression.cast(Expression.column(0, ColumnType.DOUBLE), ColumnType.LONG));
+        Kernel toInt = compiler.compile(Expression.cast(Expression.column(0, ColumnType.DOUBLE), ColumnType.INT));
+
+        double[] values = { 1.9, -1.9, Double.NaN, 1e300, -1e300, Double.POSITIVE_INFINITY };
+        MemorySegment[] columns = { arena.allocateArray(JAVA_DOUBLE, values) };
+        MemorySegment longs = arena.allocate(JAVA_LONG.byteSize() * values.length, JAVA_LONG.byteAlignment());
+        MemorySegment ints = arena.allocate(JAVA_INT.byteSize() * values.length, JAVA_INT.byteAlignment());
+        toLong.evaluate(columns, longs, values.length);
+        toInt.evaluate(columns, ints, values.length);
+
+        long[] expectedLongs = new long[values.length];
+        int[] expectedInts = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            expectedLongs[i] = (long) values[i];
+            expectedInts[i] = (int) values[i];
+        }
+        assertArrayEquals(expectedLongs, longs.toArray(JAVA_LONG));
+        assertArrayEquals(expectedInts, ints.toArray(JAVA_INT));
+    }
+
+    @Test
+    void evaluatesConditionsAndBooleans() {
+        Expression value = Expression.column(0, ColumnType.DOUBLE);
+        Expression positive = Expression.compare(ComparisonOperator.GREATER, value, Expression.constant(0.0));
+        Kernel clamp = compiler.compile(Expression.conditional(positive, value, Expression.constant(0.0)));
+        Kernel test = compiler.compile(Expression.and(positive, Expression.not(Expression.compare(ComparisonOperator.GREATER, value, Expression.constant(10.0)))));
+
+        double[] values = { -2.5, 0.0, 3.5, 12.0, Double.NaN };
+        MemorySegment[] columns = { arena.allocateArray(JAVA_DOUBLE, values) };
+        MemorySegment clamped = arena.allocate(JAVA_DOUBLE.byteSize() * values.length, JAVA_DOUBLE.byteAlignment());
+        MemorySegment tested = arena.allocate(JAVA_BYTE.byteSize() * values.length);
+        clamp.evaluate(columns, clamped, values.length);
+        test.evaluate(columns, tested, values.length);
+
+        assertArrayEquals(new double[] { 0.0, 0.0, 3.5, 12.0, 0.0 }, clamped.toArray(JAVA_DOUBLE));
+        assertArrayEquals(new byte[] { 0, 0, 1, 0, 0 }, tested.toArray(JAVA_BYTE));
+    }
+
+    @Test
+    void rejectsOutputsThatOverlapColumns() {
+        Kernel kernel = compiler.compile(Expression.negate(Expression.column(0, ColumnType.LONG)));
+        MemorySegment column = longs(new long[] { 1, 2, 3 });
+        assertThrows(IllegalArgumentException.class, () -> kernel.evaluate(new MemorySegment[] { column }, column, 3));
+    }
+
+    /**
+     * Allocate a native column of the specified values.
+     *
+     * @param values the values of the column
+     * @return the native segment of the column
+     */
+    private MemorySegment longs(long[] values) {
+        return arena.allocateArray(JAVA_LONG, values);
+    }
+}